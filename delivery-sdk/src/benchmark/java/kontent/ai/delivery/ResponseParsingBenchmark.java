@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Compares the allocation of the former response parsing (body string, then JsonNode tree, then the response object)
+ * with the streaming parsing used by {@link DeliveryClient}.
+ * <p>
+ * Not a unit test - a manual benchmark, run by {@code gradlew benchmark}. It requires a HotSpot based JVM to read the
+ * allocated bytes of the current thread. The sample listing is loaded from the test resources.
+ */
+public class ResponseParsingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    public static void main(String[] args) throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(new JavaTimeModule());
+        final ObjectReader reader = objectMapper.readerFor(ContentItemsListingResponse.class);
+        final ObjectReader treeReader = objectMapper.readerFor(JsonNode.class);
+        final byte[] body = createListing(objectMapper, 2 * 1024 * 1024);
+
+        java.lang.System.out.printf("Response body size: %d bytes%n", body.length);
+        measure("string + tree + object (before)", () -> {
+            final String bodyString = new String(body, StandardCharsets.UTF_8);
+            final JsonNode jsonNode = objectMapper.readValue(bodyString, JsonNode.class);
+            return objectMapper.treeToValue(jsonNode, ContentItemsListingResponse.class);
+        });
+        measure("stream -> tree + object (cache)", () ->
+                reader.readValue(treeReader.<JsonNode>readValue(new ByteArrayInputStream(body))));
+        measure("stream -> object (no cache)", () ->
+                reader.readValue(new ByteArrayInputStream(body)));
+    }
+
+    /**
+     * Inflates the sample listing to roughly the requested size by copying its items and linked items.
+     */
+    private static byte[] createListing(ObjectMapper objectMapper, int size) throws IOException {
+        final ObjectNode sample = (ObjectNode) objectMapper.readTree(
+                ResponseParsingBenchmark.class.getResourceAsStream("SampleContentItemListWithLinkedItems.json"));
+        final ArrayNode items = (ArrayNode) sample.get("items");
+        final ObjectNode linkedItems = (ObjectNode) sample.get("modular_content");
+        final ArrayNode originalItems = items.deepCopy();
+        final ObjectNode originalLinkedItems = linkedItems.deepCopy();
+        int copy = 0;
+        while (objectMapper.writeValueAsBytes(sample).length < size) {
+            copy++;
+            for (JsonNode item : originalItems) {
+                items.add(withCodename(item, copy));
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = originalLinkedItems.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                linkedItems.set(field.getKey() + "_" + copy, withCodename(field.getValue(), copy));
+            }
+        }
+        return objectMapper.writeValueAsBytes(sample);
+    }
+
+    private static JsonNode withCodename(JsonNode item, int copy) {
+        final ObjectNode itemCopy = item.deepCopy();
+        final ObjectNode system = (ObjectNode) itemCopy.get("system");
+        system.put("codename", system.get("codename").asText() + "_" + copy);
+        return itemCopy;
+    }
+
+    private static void measure(String name, ParsingStrategy strategy) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            strategy.parse();
+        }
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        final long start = java.lang.System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            strategy.parse();
+        }
+        final long elapsed = java.lang.System.nanoTime() - start;
+        final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        java.lang.System.out.printf("%-35s %,12d bytes allocated/request %8.2f ms/request%n",
+                name, allocated / MEASURED_ITERATIONS, elapsed / 1_000_000d / MEASURED_ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface ParsingStrategy {
+        Object parse() throws Exception;
+    }
+}
@@ -56,4 +56,34 @@ public interface AsyncCacheManager {
      * @return Status of the operation.
      */
     CompletionStage put(final String url, JsonNode jsonNode, List<ContentItem> containedContentItems);
+
+    /**
+     * Returns the cached entry together with its validators. An expired entry may be returned, the client then
+     * revalidates it with a conditional request instead of downloading the whole response again.  A
+     * {@link CacheFreshness#STALE} entry is served, and refreshed by the client in the background.  Use
+     * {@link CacheEntry#withFreshness(CacheFreshness, java.time.Duration)} to return the freshness and the age of the
+     * entry.
+     * <p>
+     * The default implementation wraps the result of {@link #get(String)} in an entry without validators.
+     *
+     * @param url URL for retrieving data.
+     * @return The cached entry or null if there is no entry for the url.
+     */
+    default CompletionStage<CacheEntry> getEntry(final String url) {
+        return get(url).thenApply(jsonNode -> jsonNode == null ? null : new CacheEntry(jsonNode));
+    }
+
+    /**
+     * Put the data to cache together with its validators.
+     * <p>
+     * The default implementation stores just the {@link JsonNode} using {@link #put(String, JsonNode, List)}.
+     *
+     * @param url URL for retrieving the data.
+     * @param cacheEntry Plain data to cache with its validators.
+     * @param containedContentItems Strongly typed data.
+     * @return Status of the operation.
+     */
+    default CompletionStage<?> put(final String url, CacheEntry cacheEntry, List<ContentItem> containedContentItems) {
+        return put(url, cacheEntry.getJsonNode(), containedContentItems);
+    }
 }
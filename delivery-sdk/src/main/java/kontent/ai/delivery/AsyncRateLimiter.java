@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting the rate of requests sent to the Kontent.ai API.
+ * <p>
+ * Callers that cannot get a permit right away are queued and released asynchronously from the scheduler once the
+ * bucket refills, so no thread is blocked while waiting. The limiter can also be paused, e.g. when the API responds
+ * with a {@code Retry-After} header, in which case all callers are held back until the pause elapses.
+ * <p>
+ * Queued callers are released by their {@link RequestPriority} and in the order of arrival within the same priority.
+ */
+class AsyncRateLimiter {
+
+    private static final CompletableFuture<Void> PERMITTED = CompletableFuture.completedFuture(null);
+
+    private final double permitsPerSecond;
+    private final double maxPermits;
+    private final ScheduledExecutorService scheduler;
+
+    private final Queue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparing((Waiter waiter) -> waiter.priority).thenComparingLong(waiter -> waiter.sequence));
+    private long nextSequence = 0;
+    private double permits;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private boolean releaseScheduled;
+
+    /**
+     * @param permitsPerSecond the sustained rate of requests, 0 for an unlimited rate
+     * @param scheduler        used to release queued callers
+     */
+    AsyncRateLimiter(double permitsPerSecond, ScheduledExecutorService scheduler) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        this.scheduler = scheduler;
+        this.permits = maxPermits;
+        this.lastRefillNanos = java.lang.System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Acquires a permit to send a request of {@link RequestPriority#NORMAL} priority.
+     *
+     * @return stage completed once the request may be sent
+     */
+    CompletionStage<Void> acquire() {
+        return acquire(RequestPriority.NORMAL);
+    }
+
+    /**
+     * Acquires a permit to send a request.
+     *
+     * @param priority the priority of the request, higher priority requests are released first
+     * @return stage completed once the request may be sent
+     */
+    CompletionStage<Void> acquire(RequestPriority priority) {
+        synchronized (this) {
+            final long now = java.lang.System.nanoTime();
+            refill(now);
+            if (waiters.isEmpty() && tryTake(now)) {
+                return PERMITTED;
+            }
+            final Waiter waiter = new Waiter(priority, nextSequence++);
+            waiters.add(waiter);
+            scheduleRelease(now);
+            return waiter.permit;
+        }
+    }
+
+    /**
+     * Holds back all requests for the given time, e.g. as requested by a {@code Retry-After} header.
+     *
+     * @param millis how long no request should be sent
+     */
+    synchronized void pause(long millis) {
+        final long until = java.lang.System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        if (until - pausedUntilNanos > 0) {
+            pausedUntilNanos = until;
+        }
+    }
+
+    private void release() {
+        final List<CompletableFuture<Void>> released = new ArrayList<>();
+        synchronized (this) {
+            releaseScheduled = false;
+            final long now = java.lang.System.nanoTime();
+            refill(now);
+            while (!waiters.isEmpty() && tryTake(now)) {
+                released.add(waiters.poll().permit);
+            }
+            if (!waiters.isEmpty()) {
+                scheduleRelease(now);
+            }
+        }
+        released.forEach(waiter -> waiter.complete(null));
+    }
+
+    private boolean tryTake(long now) {
+        if (now - pausedUntilNanos < 0) {
+            return false;
+        }
+        if (permitsPerSecond <= 0) {
+            return true;
+        }
+        if (permits >= 1) {
+            permits--;
+            return true;
+        }
+        return false;
+    }
+
+    private void refill(long now) {
+        if (permitsPerSecond > 0) {
+            permits = Math.min(maxPermits, permits + (now - lastRefillNanos) * permitsPerSecond / 1_000_000_000d);
+        }
+        lastRefillNanos = now;
+    }
+
+    private void scheduleRelease(long now) {
+        if (releaseScheduled) {
+            return;
+        }
+        long delayNanos = Math.max(0, pausedUntilNanos - now);
+        if (permitsPerSecond > 0 && permits < 1) {
+            delayNanos = Math.max(delayNanos, (long) ((1 - permits) * 1_000_000_000d / permitsPerSecond));
+        }
+        releaseScheduled = true;
+        scheduler.schedule(this::release, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Waiter {
+
+        private final RequestPriority priority;
+        private final long sequence;
+        private final CompletableFuture<Void> permit = new CompletableFuture<>();
+
+        private Waiter(RequestPriority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
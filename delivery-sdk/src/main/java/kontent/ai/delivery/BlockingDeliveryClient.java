@@ -0,0 +1,271 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Blocking facade of the {@link DeliveryClient}.
+ * <p>
+ * Each method waits for the result of the corresponding {@link DeliveryClient} method and rethrows its failure as is,
+ * e.g. a {@link KontentErrorException}, instead of wrapping it in an {@link ExecutionException}.  The waiting is
+ * cheap on virtual threads, so this is the simplest way of using the SDK e.g. from a thread-per-request web server
+ * running on Java 21+.
+ */
+public class BlockingDeliveryClient {
+
+    private final DeliveryClient deliveryClient;
+
+    public BlockingDeliveryClient(DeliveryClient deliveryClient) {
+        if (deliveryClient == null) {
+            throw new IllegalArgumentException("The Delivery client must not be null.");
+        }
+        this.deliveryClient = deliveryClient;
+    }
+
+    public BlockingDeliveryClient(DeliveryOptions deliveryOptions) {
+        this(new DeliveryClient(deliveryOptions));
+    }
+
+    /**
+     * Returns the wrapped asynchronous client, e.g. to register types or set a cache manager.
+     *
+     * @return the wrapped client
+     */
+    @SuppressWarnings("WeakerAccess")
+    public DeliveryClient getDeliveryClient() {
+        return deliveryClient;
+    }
+
+    public ContentItemsListingResponse getItems() {
+        return join(deliveryClient.getItems());
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public ContentItemsListingResponse getItems(List<NameValuePair> params) {
+        return join(deliveryClient.getItems(params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public ContentItemsListingResponse getItems(List<NameValuePair> params, RequestOptions requestOptions) {
+        return join(deliveryClient.getItems(params, requestOptions));
+    }
+
+    @SuppressWarnings("unused")
+    public <T> List<T> getItems(Class<T> tClass) {
+        return join(deliveryClient.getItems(tClass));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> List<T> getItems(Class<T> tClass, List<NameValuePair> params) {
+        return join(deliveryClient.getItems(tClass, params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> List<T> getItems(Class<T> tClass, List<NameValuePair> params, RequestOptions requestOptions) {
+        return join(deliveryClient.getItems(tClass, params, requestOptions));
+    }
+
+    /**
+     * Streams all content items matching the parameters from the items feed.
+     *
+     * @param tClass the type to map the items to
+     * @param params the query parameters
+     * @param <T>    the type to map the items to
+     * @return the lazily fetched stream of the content items
+     * @see DeliveryClient#streamItemsFeed(Class, List)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> Stream<T> streamItemsFeed(Class<T> tClass, List<NameValuePair> params) {
+        return deliveryClient.streamItemsFeed(tClass, params);
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public void initializeSync(List<NameValuePair> params, ContinuationTokenStore tokenStore) {
+        join(deliveryClient.initializeSync(params, tokenStore));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public int sync(ContinuationTokenStore tokenStore, SyncListener listener) {
+        return join(deliveryClient.sync(tokenStore, listener));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> List<T> getAllItems(Class<T> tClass, List<NameValuePair> params) {
+        return join(deliveryClient.getAllItems(tClass, params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> Page<T> getPageOfItems(Class<T> tClass, List<NameValuePair> params) {
+        return join(deliveryClient.getPageOfItems(tClass, params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> Page<T> getNextPage(Page<T> currentPage) {
+        return join(deliveryClient.getNextPage(currentPage));
+    }
+
+    /**
+     * Streams all content items matching the parameters, page by page.
+     *
+     * @param tClass the type to map the items to
+     * @param params the query parameters
+     * @param <T>    the type to map the items to
+     * @return the lazily fetched stream of the content items
+     * @see DeliveryClient#streamItems(Class, List)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> Stream<T> streamItems(Class<T> tClass, List<NameValuePair> params) {
+        return deliveryClient.streamItems(tClass, params);
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> Stream<T> streamItems(Class<T> tClass, List<NameValuePair> params, int prefetchPages) {
+        return deliveryClient.streamItems(tClass, params, prefetchPages);
+    }
+
+    @SuppressWarnings("unused")
+    public ContentItemResponse getItem(String contentItemCodename) {
+        return join(deliveryClient.getItem(contentItemCodename));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public ContentItemResponse getItem(String contentItemCodename, List<NameValuePair> params) {
+        return join(deliveryClient.getItem(contentItemCodename, params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public ContentItemResponse getItem(
+            String contentItemCodename, List<NameValuePair> params, RequestOptions requestOptions) {
+        return join(deliveryClient.getItem(contentItemCodename, params, requestOptions));
+    }
+
+    @SuppressWarnings("unused")
+    public <T> T getItem(String contentItemCodename, Class<T> tClass) {
+        return join(deliveryClient.getItem(contentItemCodename, tClass));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> T getItem(String contentItemCodename, Class<T> tClass, List<NameValuePair> params) {
+        return join(deliveryClient.getItem(contentItemCodename, tClass, params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> T getItem(
+            String contentItemCodename, Class<T> tClass, List<NameValuePair> params, RequestOptions requestOptions) {
+        return join(deliveryClient.getItem(contentItemCodename, tClass, params, requestOptions));
+    }
+
+    public ContentTypesListingResponse getTypes() {
+        return join(deliveryClient.getTypes());
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public ContentTypesListingResponse getTypes(List<NameValuePair> params) {
+        return join(deliveryClient.getTypes(params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public ContentTypesListingResponse getTypes(List<NameValuePair> params, RequestOptions requestOptions) {
+        return join(deliveryClient.getTypes(params, requestOptions));
+    }
+
+    public ContentType getType(String contentTypeCodeName) {
+        return join(deliveryClient.getType(contentTypeCodeName));
+    }
+
+    @SuppressWarnings("unused")
+    public Element<?> getContentTypeElement(String contentTypeCodeName, String elementCodeName) {
+        return join(deliveryClient.getContentTypeElement(contentTypeCodeName, elementCodeName));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public Element<?> getContentTypeElement(
+            String contentTypeCodeName, String elementCodeName, List<NameValuePair> params) {
+        return join(deliveryClient.getContentTypeElement(contentTypeCodeName, elementCodeName, params));
+    }
+
+    @SuppressWarnings("unused")
+    public TaxonomyGroupListingResponse getTaxonomyGroups() {
+        return join(deliveryClient.getTaxonomyGroups());
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public TaxonomyGroupListingResponse getTaxonomyGroups(List<NameValuePair> params) {
+        return join(deliveryClient.getTaxonomyGroups(params));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public TaxonomyGroupListingResponse getTaxonomyGroups(List<NameValuePair> params, RequestOptions requestOptions) {
+        return join(deliveryClient.getTaxonomyGroups(params, requestOptions));
+    }
+
+    @SuppressWarnings("unused")
+    public TaxonomyGroup getTaxonomyGroup(String taxonomyGroupCodename) {
+        return join(deliveryClient.getTaxonomyGroup(taxonomyGroupCodename));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public TaxonomyGroup getTaxonomyGroup(String taxonomyGroupCodename, List<NameValuePair> params) {
+        return join(deliveryClient.getTaxonomyGroup(taxonomyGroupCodename, params));
+    }
+
+    static <T> T join(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stage.toCompletableFuture().cancel(true);
+            throw new KontentIOException(new InterruptedIOException("Interrupted while waiting for the response"), false);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof IOException) {
+            return new KontentIOException((IOException) cause, false);
+        }
+        return new CompletionException(cause);
+    }
+}
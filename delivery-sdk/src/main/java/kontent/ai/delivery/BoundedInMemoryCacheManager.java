@@ -0,0 +1,542 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Uses the JVM memory to cache results, up to a maximum weight - the estimated size of the cached responses in bytes.
+ * Like the {@link SimpleInMemoryCacheManager}, it allows cache to be invalidated based on both the codename and
+ * language of content items.
+ * <p>
+ * When the cache is full, it evicts the responses least likely to be requested again, using the W-TinyLFU policy:
+ * <ul>
+ *     <li>New responses enter a small LRU window (1% of the maximum weight).</li>
+ *     <li>Responses leaving the window compete with the least recently used response of the main space.  The one
+ *     requested more often recently, as estimated by a {@link FrequencySketch}, stays.  A burst of one-off requests
+ *     therefore cannot flush the popular responses out of the cache.</li>
+ *     <li>The main space is a segmented LRU - responses requested again are protected (80% of the main space) from
+ *     the responses requested only once.</li>
+ * </ul>
+ * Reads do not lock, they are looked up in a {@link ConcurrentHashMap} and recorded in a striped buffer, which is
+ * applied to the eviction policy in batches.  When the buffer is full, reads are not recorded, so the policy works
+ * with a sample of the reads under heavy load.  Writes and invalidations take a lock.
+ * <p>
+ * Optionally, the cached responses expire after a time to live.  Within the stale-while-revalidate window after it,
+ * a response is still served as {@link CacheFreshness#STALE}, while the {@link DeliveryClient} refreshes it in the
+ * background, so that the requests do not wait for the API.  Expired responses are kept until they are evicted, the
+ * client revalidates them with a conditional request.
+ * <p>
+ * Do not use this cache manager when your application is deployed as multiple replicas!
+ * In that case a centralized cache (e.g. Redis) is advisable.
+ */
+@Slf4j
+public class BoundedInMemoryCacheManager implements CacheManager {
+
+    static final double WINDOW_RATIO = 0.01;
+    static final double PROTECTED_RATIO = 0.8;
+
+    // Estimated sizes in bytes of the objects held by the cache
+    private static final long ENTRY_OVERHEAD = 160;
+    private static final long OBJECT_NODE_OVERHEAD = 72;
+    private static final long FIELD_OVERHEAD = 48;
+    private static final long ARRAY_NODE_OVERHEAD = 56;
+    private static final long REFERENCE_SIZE = 8;
+    private static final long VALUE_NODE_OVERHEAD = 24;
+    private static final long STRING_OVERHEAD = 40;
+
+    private final long maximumWeight;
+    private final Duration timeToLive;
+    private final Duration staleWhileRevalidate;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final Map<String, Node> data = new ConcurrentHashMap<>();
+    private final ReadBuffer readBuffer = new ReadBuffer();
+
+    // Guarded by the eviction lock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private final Set<Node> window = new LinkedHashSet<>();
+    private final Set<Node> probation = new LinkedHashSet<>();
+    private final Set<Node> protectedSegment = new LinkedHashSet<>();
+    private final Map<String, Set<String>> urlsForTags = new HashMap<>();
+    private long windowWeight;
+    private long protectedWeight;
+    private volatile long weightedSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumWeight the maximum estimated size of the cached responses in bytes
+     * @throws IllegalArgumentException when the maximum weight is not positive
+     */
+    public BoundedInMemoryCacheManager(long maximumWeight) {
+        this(maximumWeight, null, null);
+    }
+
+    /**
+     * @param maximumWeight        the maximum estimated size of the cached responses in bytes
+     * @param timeToLive           the time a cached response is fresh, or null when it never expires
+     * @param staleWhileRevalidate the time after the time to live when a cached response is still served while it is
+     *                             refreshed in the background, or null for none
+     * @throws IllegalArgumentException when the maximum weight or the durations are not positive
+     */
+    public BoundedInMemoryCacheManager(long maximumWeight, Duration timeToLive, Duration staleWhileRevalidate) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        CacheFreshness.checkExpiration(timeToLive, staleWhileRevalidate);
+        this.maximumWeight = maximumWeight;
+        this.timeToLive = timeToLive;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_RATIO));
+        this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * PROTECTED_RATIO);
+    }
+
+    @Override
+    public JsonNode get(final String url) {
+        return Optional.ofNullable(getEntry(url))
+                .map(CacheEntry::getJsonNode)
+                .orElse(null);
+    }
+
+    @Override
+    public CacheEntry getEntry(final String url) {
+        final Node node = data.get(url);
+        if (node == null) {
+            misses.increment();
+            afterRead(url);
+            return null;
+        }
+        hits.increment();
+        afterRead(node);
+        final CacheEntry cacheEntry = node.entry;
+        if (timeToLive == null) {
+            return cacheEntry;
+        }
+        final Duration age = Duration.ofNanos(java.lang.System.nanoTime() - node.cachedAtNanos);
+        return cacheEntry.withFreshness(CacheFreshness.of(age, timeToLive, staleWhileRevalidate), age);
+    }
+
+    @Override
+    public void put(final String url, final JsonNode jsonNode, final List<ContentItem> containedContentItems) {
+        put(url, new CacheEntry(jsonNode), containedContentItems);
+    }
+
+    @Override
+    public void put(final String url, final CacheEntry cacheEntry, final List<ContentItem> containedContentItems) {
+        final long weight = weigh(url, cacheEntry);
+        // Tags are created for every code_name+language combination that can be determined from the given containedContentItems
+        final Set<String> tags = containedContentItems == null
+                ? Collections.emptySet()
+                : SimpleInMemoryCacheManager.createCacheTags(containedContentItems).stream()
+                        .map(SimpleInMemoryCacheManager.CacheTag::toString)
+                        .collect(Collectors.toSet());
+
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            Node node = data.get(url);
+            if (weight > maximumWeight) {
+                log.debug("Response of {} bytes exceeds the cache size, not cached", weight);
+                if (node != null) {
+                    remove(node);
+                }
+                return;
+            }
+            if (node == null) {
+                node = new Node(url, cacheEntry, weight);
+                data.put(url, node);
+                sketch.ensureCapacity(data.size(), data.keySet());
+                sketch.increment(url);
+                window.add(node);
+                windowWeight += weight;
+                weightedSize += weight;
+            } else {
+                node.entry = cacheEntry;
+                node.cachedAtNanos = java.lang.System.nanoTime();
+                final long weightChange = weight - node.weight;
+                node.weight = weight;
+                if (node.queue == Node.WINDOW) {
+                    windowWeight += weightChange;
+                } else if (node.queue == Node.PROTECTED) {
+                    protectedWeight += weightChange;
+                }
+                weightedSize += weightChange;
+                onAccess(node);
+            }
+            updateTags(node, tags);
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(final String url) {
+        evictionLock.lock();
+        try {
+            final Node node = data.get(url);
+            if (node != null) {
+                remove(node);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(final SimpleInMemoryCacheManager.CacheTag cacheTag) {
+        evictionLock.lock();
+        try {
+            final Set<String> urls = urlsForTags.remove(cacheTag.toString());
+            if (urls != null) {
+                for (String url : urls.toArray(new String[0])) {
+                    final Node node = data.get(url);
+                    if (node != null) {
+                        remove(node);
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of lookups which found a cached response.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups which found no cached response.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of responses evicted to keep the cache within its maximum weight.  Invalidated responses are
+     * not counted.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return the number of cached responses
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * Returns the estimated size of the cached responses.
+     *
+     * @return the weighted size in bytes
+     */
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    private void afterRead(Object keyOrNode) {
+        if (readBuffer.offer(keyOrNode) && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffer() {
+        readBuffer.drainTo(keyOrNode -> {
+            if (keyOrNode instanceof Node) {
+                onAccess((Node) keyOrNode);
+            } else {
+                // A miss counts towards the frequency, so that the response is admitted when it is put later
+                sketch.increment(keyOrNode);
+            }
+        });
+    }
+
+    private void onAccess(Node node) {
+        sketch.increment(node.url);
+        switch (node.queue) {
+            case Node.WINDOW:
+                reorder(window, node);
+                break;
+            case Node.PROBATION:
+                probation.remove(node);
+                protectedSegment.add(node);
+                node.queue = Node.PROTECTED;
+                protectedWeight += node.weight;
+                // Demote the least recently used protected responses back to probation
+                while (protectedWeight > protectedMaximum && protectedSegment.size() > 1) {
+                    final Node demoted = first(protectedSegment);
+                    protectedSegment.remove(demoted);
+                    protectedWeight -= demoted.weight;
+                    probation.add(demoted);
+                    demoted.queue = Node.PROBATION;
+                }
+                break;
+            case Node.PROTECTED:
+                reorder(protectedSegment, node);
+                break;
+            default:
+                // Removed in the meantime
+                break;
+        }
+    }
+
+    private void evict() {
+        // The responses leaving the window are candidates for the main space, added to the end of probation
+        final Deque<Node> candidates = new ArrayDeque<>();
+        while (windowWeight > windowMaximum && !window.isEmpty()) {
+            final Node node = first(window);
+            window.remove(node);
+            windowWeight -= node.weight;
+            probation.add(node);
+            node.queue = Node.PROBATION;
+            candidates.add(node);
+        }
+
+        while (weightedSize > maximumWeight) {
+            final Node candidate = candidates.peekFirst();
+            Node victim = first(probation);
+            if (victim == candidate) {
+                victim = first(protectedSegment);
+            }
+            if (victim == null) {
+                victim = first(window);
+            }
+            final Node evicted;
+            if (candidate == null) {
+                evicted = victim;
+            } else if (victim == null) {
+                evicted = candidate;
+            } else {
+                // Admit the candidate only when it is used more often than the victim
+                evicted = sketch.frequency(candidate.url) > sketch.frequency(victim.url) ? victim : candidate;
+            }
+            if (evicted == candidate) {
+                candidates.pollFirst();
+            }
+            remove(evicted);
+            evictions.increment();
+        }
+    }
+
+    private void remove(Node node) {
+        data.remove(node.url, node);
+        if (node.queue == Node.WINDOW) {
+            window.remove(node);
+            windowWeight -= node.weight;
+        } else if (node.queue == Node.PROBATION) {
+            probation.remove(node);
+        } else if (node.queue == Node.PROTECTED) {
+            protectedSegment.remove(node);
+            protectedWeight -= node.weight;
+        }
+        if (node.queue != Node.REMOVED) {
+            weightedSize -= node.weight;
+        }
+        node.queue = Node.REMOVED;
+        updateTags(node, Collections.emptySet());
+    }
+
+    private void updateTags(Node node, Set<String> tags) {
+        for (String tag : node.tags) {
+            if (!tags.contains(tag)) {
+                final Set<String> urls = urlsForTags.get(tag);
+                if (urls != null && urls.remove(node.url) && urls.isEmpty()) {
+                    urlsForTags.remove(tag);
+                }
+            }
+        }
+        for (String tag : tags) {
+            urlsForTags.computeIfAbsent(tag, t -> new HashSet<>()).add(node.url);
+        }
+        node.tags = tags;
+    }
+
+    private static void reorder(Set<Node> queue, Node node) {
+        queue.remove(node);
+        queue.add(node);
+    }
+
+    private static Node first(Set<Node> queue) {
+        final Iterator<Node> iterator = queue.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Estimates the size of the cached response in bytes.
+     */
+    static long weigh(String url, CacheEntry cacheEntry) {
+        return ENTRY_OVERHEAD + weigh(url) + weigh(cacheEntry.getEtag()) + weigh(cacheEntry.getLastModified())
+                + weigh(cacheEntry.getJsonNode());
+    }
+
+    static long weigh(JsonNode jsonNode) {
+        long weight = 0;
+        final Deque<JsonNode> unvisited = new ArrayDeque<>();
+        if (jsonNode != null) {
+            unvisited.push(jsonNode);
+        }
+        while (!unvisited.isEmpty()) {
+            final JsonNode node = unvisited.pop();
+            if (node.isObject()) {
+                weight += OBJECT_NODE_OVERHEAD;
+                final Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    final Map.Entry<String, JsonNode> field = fields.next();
+                    weight += FIELD_OVERHEAD + weigh(field.getKey());
+                    unvisited.push(field.getValue());
+                }
+            } else if (node.isArray()) {
+                weight += ARRAY_NODE_OVERHEAD + REFERENCE_SIZE * node.size();
+                for (JsonNode element : node) {
+                    unvisited.push(element);
+                }
+            } else if (node.isTextual()) {
+                weight += VALUE_NODE_OVERHEAD + weigh(node.textValue());
+            } else {
+                weight += VALUE_NODE_OVERHEAD;
+            }
+        }
+        return weight;
+    }
+
+    private static long weigh(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    private static final class Node {
+
+        static final int WINDOW = 0;
+        static final int PROBATION = 1;
+        static final int PROTECTED = 2;
+        static final int REMOVED = 3;
+
+        final String url;
+        volatile CacheEntry entry;
+        volatile long cachedAtNanos = java.lang.System.nanoTime();
+
+        // Guarded by the eviction lock
+        long weight;
+        int queue = WINDOW;
+        Set<String> tags = Collections.emptySet();
+
+        Node(String url, CacheEntry entry, long weight) {
+            this.url = url;
+            this.entry = entry;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Records the reads to apply to the eviction policy later, in stripes picked by the reading thread.  Reads which
+     * do not fit into a full stripe are dropped.
+     */
+    private static final class ReadBuffer {
+
+        private static final int STRIPES = 16;
+        private static final int STRIPE_SIZE = 16;
+
+        private final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(STRIPES * STRIPE_SIZE);
+        private final AtomicIntegerArray writes = new AtomicIntegerArray(STRIPES);
+
+        /**
+         * @return true when the stripe is full and the buffer should be drained
+         */
+        boolean offer(Object read) {
+            final int stripe = Thread.currentThread().hashCode() & (STRIPES - 1);
+            final int index = writes.getAndIncrement(stripe);
+            if (index < STRIPE_SIZE) {
+                slots.lazySet(stripe * STRIPE_SIZE + index, read);
+            }
+            return index >= STRIPE_SIZE - 1;
+        }
+
+        void drainTo(Consumer<Object> consumer) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                final int written = Math.min(writes.get(stripe), STRIPE_SIZE);
+                for (int index = 0; index < written; index++) {
+                    final Object read = slots.getAndSet(stripe * STRIPE_SIZE + index, null);
+                    if (read != null) {
+                        consumer.accept(read);
+                    }
+                }
+                writes.set(stripe, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+
+/**
+ * A cached response of the Kontent.ai Delivery API together with the validators needed to revalidate it.
+ * <p>
+ * When a cache manager returns an expired entry from {@link AsyncCacheManager#getEntry(String)}, the
+ * {@link DeliveryClient} sends a conditional request using the {@code ETag} and {@code Last-Modified} validators of
+ * the entry. If the content has not changed, the API responds with {@code 304 Not Modified} and the cached
+ * {@link JsonNode} is reused without downloading or parsing the body.
+ * <p>
+ * A {@link CacheFreshness#STALE} entry is served right away, and the {@link DeliveryClient} refreshes it in the
+ * background.
+ *
+ * @see AsyncCacheManager#getEntry(String)
+ * @see CacheManager#getEntry(String)
+ */
+@lombok.Getter
+@lombok.ToString
+@lombok.EqualsAndHashCode
+public class CacheEntry {
+
+    /**
+     * The cached response.
+     *
+     * @return The JsonNode created from the response of the Kontent.ai Delivery API.
+     */
+    private final JsonNode jsonNode;
+
+    /**
+     * The {@code ETag} header of the cached response.
+     *
+     * @return The entity tag of the cached response or null.
+     */
+    private final String etag;
+
+    /**
+     * The {@code Last-Modified} header of the cached response.
+     *
+     * @return The last modification date of the cached response as sent by the API or null.
+     */
+    private final String lastModified;
+
+    /**
+     * The freshness of the entry, determined by the cache manager when the entry is retrieved.
+     *
+     * @return The freshness of the entry.
+     */
+    private final CacheFreshness freshness;
+
+    /**
+     * The time since the response was cached, set by the cache manager when the entry is retrieved.
+     *
+     * @return The age of the entry or null when it is unknown.
+     */
+    private final Duration age;
+
+    public CacheEntry(JsonNode jsonNode) {
+        this(jsonNode, null, null);
+    }
+
+    public CacheEntry(JsonNode jsonNode, String etag, String lastModified) {
+        this(jsonNode, etag, lastModified, false);
+    }
+
+    public CacheEntry(JsonNode jsonNode, String etag, String lastModified, boolean expired) {
+        this(jsonNode, etag, lastModified, expired ? CacheFreshness.EXPIRED : CacheFreshness.FRESH, null);
+    }
+
+    public CacheEntry(JsonNode jsonNode, String etag, String lastModified, CacheFreshness freshness, Duration age) {
+        this.jsonNode = jsonNode;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.freshness = freshness;
+        this.age = age;
+    }
+
+    /**
+     * Whether the entry has expired.  An expired entry is not served before it is revalidated with the Kontent.ai
+     * Delivery API.
+     *
+     * @return true if the entry has to be revalidated before it is used.
+     */
+    public boolean isExpired() {
+        return freshness == CacheFreshness.EXPIRED;
+    }
+
+    /**
+     * Whether the entry is stale.  A stale entry is served, and refreshed in the background.
+     *
+     * @return true if the entry outlived its time to live, but is within the stale-while-revalidate window.
+     */
+    public boolean isStale() {
+        return freshness == CacheFreshness.STALE;
+    }
+
+    /**
+     * Returns a copy of this entry marked as expired, e.g. to be returned by a cache manager once the entry outlived
+     * its time to live.
+     *
+     * @return an expired copy of this entry
+     */
+    public CacheEntry asExpired() {
+        return new CacheEntry(jsonNode, etag, lastModified, CacheFreshness.EXPIRED, age);
+    }
+
+    /**
+     * Returns a copy of this entry with the given freshness and age, e.g. to be returned by a cache manager which
+     * keeps the time the entry was cached.
+     *
+     * @param freshness the freshness of the entry
+     * @param age       the time since the response was cached
+     * @return a copy of this entry
+     * @see CacheFreshness#of(Duration, Duration, Duration)
+     */
+    public CacheEntry withFreshness(CacheFreshness freshness, Duration age) {
+        return new CacheEntry(jsonNode, etag, lastModified, freshness, age);
+    }
+
+    /**
+     * Returns whether the entry can be revalidated by a conditional request.
+     *
+     * @return true if the entry has an {@code ETag} or a {@code Last-Modified} validator.
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+}
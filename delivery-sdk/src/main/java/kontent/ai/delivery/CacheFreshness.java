@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.time.Duration;
+
+/**
+ * The freshness of a {@link CacheEntry}, determined by the cache manager from the age of the entry.
+ *
+ * @see CacheEntry#getFreshness()
+ * @see BoundedInMemoryCacheManager#BoundedInMemoryCacheManager(long, Duration, Duration)
+ * @see SimpleInMemoryCacheManager#SimpleInMemoryCacheManager(Duration, Duration)
+ */
+public enum CacheFreshness {
+
+    /**
+     * The entry is within its time to live and is served from the cache.
+     */
+    FRESH,
+
+    /**
+     * The entry outlived its time to live, but is within the stale-while-revalidate window.  It is served from the
+     * cache right away, and the {@link DeliveryClient} refreshes it once in the background.
+     */
+    STALE,
+
+    /**
+     * The entry outlived both its time to live and the stale-while-revalidate window.  It is not served before it is
+     * revalidated with the Kontent.ai Delivery API, unless the request uses {@link CacheMode#CACHE_ONLY}.
+     */
+    EXPIRED;
+
+    /**
+     * Determines the freshness of an entry of the given age, e.g. in a custom cache manager.
+     *
+     * @param age                  the time since the entry was cached
+     * @param timeToLive           the time the entry is fresh, or null when it never expires
+     * @param staleWhileRevalidate the time after the time to live when the entry is still served while it is
+     *                             refreshed, or null for none
+     * @return the freshness of the entry
+     */
+    public static CacheFreshness of(Duration age, Duration timeToLive, Duration staleWhileRevalidate) {
+        if (timeToLive == null || age.compareTo(timeToLive) < 0) {
+            return FRESH;
+        }
+        if (staleWhileRevalidate != null && age.compareTo(timeToLive.plus(staleWhileRevalidate)) < 0) {
+            return STALE;
+        }
+        return EXPIRED;
+    }
+
+    /**
+     * Checks the expiration settings of a cache manager.
+     *
+     * @throws IllegalArgumentException when the durations are not positive, or the stale-while-revalidate window is
+     *                                  set without a time to live
+     */
+    static void checkExpiration(Duration timeToLive, Duration staleWhileRevalidate) {
+        if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero())) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+        if (staleWhileRevalidate != null && staleWhileRevalidate.isNegative()) {
+            throw new IllegalArgumentException("staleWhileRevalidate must not be negative");
+        }
+        if (staleWhileRevalidate != null && timeToLive == null) {
+            throw new IllegalArgumentException("staleWhileRevalidate requires timeToLive");
+        }
+    }
+}
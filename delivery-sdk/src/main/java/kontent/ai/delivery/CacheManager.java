@@ -65,4 +65,33 @@ public interface CacheManager {
      * @param containedContentItems (null allowed) can be used to inspect the original contents of the JsonNode and allow for precise cache invalidation (if implemented).
      */
     void put(final String url, JsonNode jsonNode, List<ContentItem> containedContentItems);
+
+    /**
+     * Retrieve an earlier cached response together with its validators.  An expired entry may be returned, the
+     * {@link DeliveryClient} then revalidates it with a conditional request instead of downloading the whole response
+     * again.  A {@link CacheFreshness#STALE} entry is served, and refreshed by the {@link DeliveryClient} in the
+     * background.
+     * <p>
+     * The default implementation wraps the result of {@link #get(String)} in an entry without validators.
+     *
+     * @param url The url that would be used to retrieve the response from Kontent.ai Delivery API.
+     * @return The cached entry or null if no value is available in the cache for the given url.
+     */
+    default CacheEntry getEntry(final String url) {
+        final JsonNode jsonNode = get(url);
+        return jsonNode == null ? null : new CacheEntry(jsonNode);
+    }
+
+    /**
+     * Cache a response from the Kontent.ai Delivery API together with its validators.
+     * <p>
+     * The default implementation stores just the {@link JsonNode} using {@link #put(String, JsonNode, List)}.
+     *
+     * @param url the URL that was used to retrieve the response from the Kontent.ai Delivery API.
+     * @param cacheEntry the JsonNode created from the response with its validators.
+     * @param containedContentItems (null allowed) can be used to inspect the original contents of the JsonNode and allow for precise cache invalidation (if implemented).
+     */
+    default void put(final String url, CacheEntry cacheEntry, List<ContentItem> containedContentItems) {
+        put(url, cacheEntry.getJsonNode(), containedContentItems);
+    }
 }
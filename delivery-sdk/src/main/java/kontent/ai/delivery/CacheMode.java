@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+/**
+ * Determines how a request uses the cache manager of the {@link DeliveryClient}, set via
+ * {@link RequestOptions#setCacheMode(CacheMode)}.
+ *
+ * @see DeliveryClient#setCacheManager(CacheManager)
+ * @see DeliveryClient#setCacheManager(AsyncCacheManager)
+ */
+public enum CacheMode {
+
+    /**
+     * The response is served from the cache when present, otherwise it is retrieved from Kontent.ai and put in the
+     * cache.  This is the default.
+     */
+    READ_THROUGH,
+
+    /**
+     * The response is always retrieved from Kontent.ai and put in the cache, e.g. to refresh the cache in a background
+     * job.
+     */
+    BYPASS_BUT_WRITE,
+
+    /**
+     * The response is served from the cache only, even when the cache entry is expired.  The request fails with
+     * {@link KontentCacheMissException} when the response is not in the cache.
+     */
+    CACHE_ONLY
+}
@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker guarding the calls to the Kontent.ai API, see {@link CircuitBreakerOptions}.
+ * <p>
+ * Outcomes are kept in a count-based ring buffer. Each state change starts a new generation and outcomes of calls
+ * permitted in an older generation are ignored, so that e.g. slow calls started before the circuit opened cannot
+ * affect the half-open probing.
+ */
+@Slf4j
+class CircuitBreaker {
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final CircuitBreakerOptions options;
+    private final long slowCallNanos;
+    private final long waitInOpenStateNanos;
+
+    private final byte[] outcomes;
+    private int nextOutcome = 0;
+    private int recordedCalls = 0;
+    private int failedCalls = 0;
+    private int slowCalls = 0;
+
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private long generation = 0;
+    private long openedAt = 0;
+    private int halfOpenPermits = 0;
+    private int halfOpenSuccesses = 0;
+
+    CircuitBreaker(CircuitBreakerOptions options) {
+        this.options = options;
+        this.slowCallNanos = options.getSlowCallDuration().toNanos();
+        this.waitInOpenStateNanos = options.getWaitDurationInOpenState().toNanos();
+        this.outcomes = new byte[options.getSlidingWindowSize()];
+    }
+
+    /**
+     * Asks for a permission to send a call.
+     *
+     * @return the generation the call has to be recorded with
+     * @throws KontentCircuitBreakerOpenException when the circuit is open or all the half-open probes are in flight
+     */
+    long acquirePermission() {
+        CircuitBreakerState previousState = null;
+        try {
+            synchronized (this) {
+                if (state == CircuitBreakerState.OPEN) {
+                    final long remaining = waitInOpenStateNanos - (currentNanos() - openedAt);
+                    if (remaining > 0) {
+                        throw new KontentCircuitBreakerOpenException(Duration.ofNanos(remaining));
+                    }
+                    previousState = transitionTo(CircuitBreakerState.HALF_OPEN);
+                }
+                if (state == CircuitBreakerState.HALF_OPEN) {
+                    if (halfOpenPermits >= options.getPermittedCallsInHalfOpenState()) {
+                        throw new KontentCircuitBreakerOpenException(Duration.ZERO);
+                    }
+                    halfOpenPermits++;
+                }
+                return generation;
+            }
+        } finally {
+            if (previousState != null) {
+                notifyListener(previousState, CircuitBreakerState.HALF_OPEN);
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param callGeneration the generation returned by {@link #acquirePermission()}
+     * @param durationNanos  how long the call took
+     * @param failed         whether the call failed
+     */
+    void record(long callGeneration, long durationNanos, boolean failed) {
+        final boolean slow = durationNanos > slowCallNanos;
+        final CircuitBreakerState previousState;
+        final CircuitBreakerState newState;
+        synchronized (this) {
+            if (callGeneration != generation) {
+                return;
+            }
+            previousState = state;
+            if (state == CircuitBreakerState.HALF_OPEN) {
+                if (failed || slow) {
+                    transitionTo(CircuitBreakerState.OPEN);
+                } else if (++halfOpenSuccesses >= options.getPermittedCallsInHalfOpenState()) {
+                    transitionTo(CircuitBreakerState.CLOSED);
+                }
+            } else if (state == CircuitBreakerState.CLOSED) {
+                recordOutcome((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+                if (recordedCalls >= options.getMinimumNumberOfCalls()
+                        && (failedCalls >= options.getFailureRateThreshold() * recordedCalls
+                        || slowCalls >= options.getSlowCallRateThreshold() * recordedCalls)) {
+                    log.warn("Opening circuit breaker, {} failed and {} slow calls out of the last {}",
+                            failedCalls, slowCalls, recordedCalls);
+                    transitionTo(CircuitBreakerState.OPEN);
+                }
+            }
+            newState = state;
+        }
+        if (previousState != newState) {
+            notifyListener(previousState, newState);
+        }
+    }
+
+    /**
+     * Returns the permission of a call which was cancelled before its outcome was known, without recording anything.
+     *
+     * @param callGeneration the generation returned by {@link #acquirePermission()}
+     */
+    synchronized void release(long callGeneration) {
+        if (callGeneration == generation && state == CircuitBreakerState.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    synchronized CircuitBreakerState getState() {
+        return state;
+    }
+
+    private void recordOutcome(byte outcome) {
+        if (recordedCalls == outcomes.length) {
+            final byte evicted = outcomes[nextOutcome];
+            failedCalls -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextOutcome] = outcome;
+        failedCalls += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private CircuitBreakerState transitionTo(CircuitBreakerState newState) {
+        final CircuitBreakerState previousState = state;
+        state = newState;
+        generation++;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == CircuitBreakerState.OPEN) {
+            openedAt = currentNanos();
+        } else if (newState == CircuitBreakerState.CLOSED) {
+            nextOutcome = 0;
+            recordedCalls = 0;
+            failedCalls = 0;
+            slowCalls = 0;
+        }
+        return previousState;
+    }
+
+    private void notifyListener(CircuitBreakerState previousState, CircuitBreakerState newState) {
+        log.info("Circuit breaker changed state from {} to {}", previousState, newState);
+        if (options.getListener() == null) {
+            return;
+        }
+        try {
+            options.getListener().onStateChange(previousState, newState);
+        } catch (RuntimeException e) {
+            log.error("Circuit breaker listener failed: {}", e.toString());
+        }
+    }
+
+    long currentNanos() {
+        return java.lang.System.nanoTime();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+/**
+ * Settings of the circuit breaker of the {@link DeliveryClient}, set via
+ * {@link DeliveryOptions#setCircuitBreaker(CircuitBreakerOptions)}.
+ * <p>
+ * The circuit breaker records the outcome of the last {@link #getSlidingWindowSize()} calls to the Kontent.ai API,
+ * retries included.  A call fails when the API responds with a retry status (e.g. 503) or the request cannot be
+ * executed at all.  A call is slow when it takes longer than {@link #getSlowCallDuration()}.  Once the failure rate or
+ * the slow call rate reaches its threshold, the circuit opens and requests fail fast with
+ * {@link KontentCircuitBreakerOpenException} instead of running their retry schedule.  After
+ * {@link #getWaitDurationInOpenState()}, the circuit becomes half-open and lets {@link #getPermittedCallsInHalfOpenState()}
+ * probe requests through - the circuit closes when all of them succeed and opens again otherwise.
+ *
+ * @see CircuitBreakerState
+ */
+@lombok.Data
+@lombok.NoArgsConstructor
+@lombok.AllArgsConstructor
+@lombok.Builder
+public class CircuitBreakerOptions {
+
+    /**
+     * Sets the number of the most recent calls used to compute the failure and slow call rates.  Defaults to 100.
+     *
+     * @param slidingWindowSize New value for this CircuitBreakerOptions instance.
+     * @return                  The size of the sliding window.
+     */
+    @Builder.Default
+    int slidingWindowSize = 100;
+
+    /**
+     * Sets the minimum number of calls in the sliding window before the rates are evaluated, so that a few failures
+     * after start do not open the circuit.  Defaults to 20.
+     *
+     * @param minimumNumberOfCalls  New value for this CircuitBreakerOptions instance.
+     * @return                      The minimum number of calls needed to open the circuit.
+     */
+    @Builder.Default
+    int minimumNumberOfCalls = 20;
+
+    /**
+     * Sets the share of failed calls (0 to 1) which opens the circuit.  Defaults to 0.5.
+     *
+     * @param failureRateThreshold  New value for this CircuitBreakerOptions instance.
+     * @return                      The failure rate threshold.
+     */
+    @Builder.Default
+    double failureRateThreshold = 0.5;
+
+    /**
+     * Sets the duration after which a call is considered slow.  Defaults to 5 seconds.
+     *
+     * @param slowCallDuration  New value for this CircuitBreakerOptions instance.
+     * @return                  The slow call duration.
+     */
+    @Builder.Default
+    Duration slowCallDuration = Duration.ofSeconds(5);
+
+    /**
+     * Sets the share of slow calls (0 to 1) which opens the circuit.  Defaults to 1, i.e. the circuit opens when all
+     * the calls in the sliding window are slow.
+     *
+     * @param slowCallRateThreshold New value for this CircuitBreakerOptions instance.
+     * @return                      The slow call rate threshold.
+     */
+    @Builder.Default
+    double slowCallRateThreshold = 1;
+
+    /**
+     * Sets how long the circuit stays open before probe requests are let through.  Defaults to 30 seconds.
+     *
+     * @param waitDurationInOpenState   New value for this CircuitBreakerOptions instance.
+     * @return                          The wait duration in the open state.
+     */
+    @Builder.Default
+    Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+    /**
+     * Sets the number of probe requests let through in the half-open state.  Defaults to 5.
+     *
+     * @param permittedCallsInHalfOpenState New value for this CircuitBreakerOptions instance.
+     * @return                              The number of probe requests.
+     */
+    @Builder.Default
+    int permittedCallsInHalfOpenState = 5;
+
+    /**
+     * Sets the listener notified when the circuit changes its state, e.g. to raise an alert when it opens.
+     *
+     * @param listener  New value for this CircuitBreakerOptions instance.
+     * @return          The listener, or null.
+     */
+    @Builder.Default
+    CircuitBreakerListener listener = null;
+}
@@ -27,7 +27,6 @@ package kontent.ai.delivery;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -102,11 +101,7 @@ public class ContentItemsListingResponse implements LinkedItemProvider {
      *                  response.
      */
     public <T> List<T> castTo(Class<T> tClass) {
-        ArrayList<T> tItems = new ArrayList<>();
-        for (ContentItem item : getItems()) {
-            tItems.add(stronglyTypedContentItemConverter.convert(item, this.getLinkedItems(), tClass));
-        }
-        return tItems;
+        return stronglyTypedContentItemConverter.convert(getItems(), this.getLinkedItems(), tClass);
     }
 
     void setItems(List<ContentItem> items) {
@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+/**
+ * Stores the continuation token of the Sync API, which marks the position in the stream of changes.
+ * <p>
+ * Use a persistent store, e.g. {@link FileContinuationTokenStore} or your database, so that a restarted application
+ * resumes the sync where it left off instead of initializing it again.
+ *
+ * @see DeliveryClient#initializeSync(java.util.List, ContinuationTokenStore)
+ * @see DeliveryClient#sync(ContinuationTokenStore, SyncListener)
+ */
+public interface ContinuationTokenStore {
+
+    /**
+     * Returns the stored continuation token.
+     *
+     * @return the token, or null when the sync has not been initialized yet
+     */
+    String load();
+
+    /**
+     * Stores the continuation token, replacing the previous one.
+     *
+     * @param token the new token
+     */
+    void store(String token);
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default executors of the {@link DeliveryClient}.
+ * <p>
+ * This is the Java 8 version of the class.  On Java 21+, it is replaced by a version using virtual threads (the SDK
+ * jar is a multi-release jar).
+ */
+final class DefaultExecutors {
+
+    static final int BLOCKING_THREADS = 64;
+
+    /**
+     * A bounded pool of daemon threads, so that the blocking calls neither starve the common fork-join pool nor keep
+     * the JVM running.  Idle threads time out, so it is never shut down.
+     */
+    private static final ThreadPoolExecutor BLOCKING_EXECUTOR = createBlockingExecutor();
+
+    private DefaultExecutors() {
+    }
+
+    /**
+     * Returns the executor used when {@link DeliveryOptions#getExecutor()} is not set.
+     *
+     * @return the common fork-join pool
+     */
+    static Executor responseExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns the executor used when {@link DeliveryOptions#getBlockingExecutor()} is not set.
+     *
+     * @return a shared pool of at most {@link #BLOCKING_THREADS} daemon threads
+     */
+    static Executor blockingExecutor() {
+        return BLOCKING_EXECUTOR;
+    }
+
+    private static ThreadPoolExecutor createBlockingExecutor() {
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                BLOCKING_THREADS, BLOCKING_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(
+                            runnable, "kontent-delivery-blocking-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -24,22 +24,31 @@
 
 package kontent.ai.delivery;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import kontent.ai.delivery.template.TemplateEngineConfig;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
+import org.reactivestreams.Publisher;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -53,6 +62,12 @@ public class DeliveryClient {
     public static final String HEADER_X_KC_SDK_ID = "X-KC-SDKID";
     public static final String HEADER_AUTHORIZATION = "Authorization";
     public static final String HEADER_ACCEPT = "Accept";
+    public static final String HEADER_RETRY_AFTER = "Retry-After";
+    public static final String HEADER_ETAG = "ETag";
+    public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    public static final String HEADER_X_CONTINUATION = "X-Continuation";
     private static final String[] RESERVED_HEADERS = new String[]{HEADER_ACCEPT, HEADER_X_KC_SDK_ID, HEADER_AUTHORIZATION, HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT};
     private static String sdkId;
 
@@ -79,12 +94,28 @@ public class DeliveryClient {
     }
 
     private static final String ITEMS = "items";
+    private static final String ITEMS_FEED = "items-feed";
+    private static final String SYNC = "sync";
+    private static final String SYNC_INIT = "sync/init";
     private static final String TYPES = "types";
     private static final String ELEMENTS = "elements";
     private static final String TAXONOMIES = "taxonomies";
 
     private static final String URL_CONCAT = "%s/%s";
 
+    static final int DEFAULT_PREFETCH_PAGES = 2;
+
+    private static final String SPAN_REQUEST = "kontent.request";
+    private static final String SPAN_GET_ITEM = "kontent.getItem";
+    private static final String SPAN_GET_ITEMS = "kontent.getItems";
+    private static final String SPAN_GET_PAGE_OF_ITEMS = "kontent.getPageOfItems";
+    private static final String SPAN_CACHE_GET = "kontent.cache.get";
+    private static final String SPAN_CACHE_PUT = "kontent.cache.put";
+    private static final String SPAN_HTTP = "kontent.http";
+    private static final String SPAN_RETRY_BACKOFF = "kontent.retry.backoff";
+    private static final String SPAN_BIND = "kontent.bind";
+    private static final String SPAN_RICH_TEXT = "kontent.rich_text";
+
     private static final List<Integer> RETRY_STATUSES = Collections.unmodifiableList(Arrays.asList(408, 429, 500, 502, 503, 504));
 
     private ObjectMapper objectMapper = new ObjectMapper()
@@ -98,9 +129,21 @@ public class DeliveryClient {
             new StronglyTypedContentItemConverter();
     private TemplateEngineConfig templateEngineConfig;
 
-    private OkHttpClient httpClient;
+    private HttpTransport httpTransport;
+
+    /**
+     * Runs the CPU-bound stages after a response is received - parsing, binding, strongly typed conversion and rich
+     * text resolution - so that they do not hold up the threads of the {@link HttpTransport}.
+     */
+    private Executor executor;
+
+    /**
+     * Runs the blocking calls of a {@link CacheManager} and of a {@link ContinuationTokenStore}, apart from the
+     * CPU-bound stages.
+     */
+    private Executor blockingExecutor;
 
-    private AsyncCacheManager cacheManager = new AsyncCacheManager() {
+    private static final AsyncCacheManager NO_CACHE_MANAGER = new AsyncCacheManager() {
         @Override
         public CompletionStage<JsonNode> get(String url) {
             return CompletableFuture.completedFuture(null);
@@ -112,7 +155,40 @@ public class DeliveryClient {
         }
     };
 
-    static final ScheduledExecutorService SCHEDULER = new ScheduledThreadPoolExecutor(0);
+    private AsyncCacheManager cacheManager = NO_CACHE_MANAGER;
+
+    /**
+     * Readers are immutable and thread-safe, so one reader per response class is built and reused.
+     */
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+    private static final String IN_FLIGHT_KEY_WAITING = "wait ";
+
+    /**
+     * Requests which are currently being retrieved from Kontent.ai, keyed by URL. Concurrent callers asking for the
+     * same URL join the in-flight request instead of issuing their own HTTP call. Requests sent with the
+     * {@link #HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT} header are keyed by the URL with the
+     * {@link #IN_FLIGHT_KEY_WAITING} prefix, so that they are never served a response which may be outdated.
+     */
+    private final ConcurrentMap<String, InFlightRequest> inFlightRequests = new ConcurrentHashMap<>();
+    private final AtomicLong originRequests = new AtomicLong(0);
+    private final AtomicLong coalescedRequests = new AtomicLong(0);
+
+    /**
+     * URLs of the stale cache entries which are being refreshed in the background.
+     */
+    private final Set<String> refreshingUrls = ConcurrentHashMap.newKeySet();
+
+    private RetryBudget retryBudget;
+    private AsyncRateLimiter rateLimiter;
+    private CircuitBreaker circuitBreaker;
+    private LatencyTracker latencyTracker;
+    private RetryBudget hedgeBudget;
+    private final AtomicLong hedgedRequests = new AtomicLong(0);
+    private ItemBatcher itemBatcher;
+    private MetricsListener metricsListener;
 
     /**
      * Please use this constructor when you need to initialize client with default template configuration - so when you are using template engine. For i.e. Android platform use {@link DeliveryClient#DeliveryClient(DeliveryOptions, TemplateEngineConfig)} and set second parameter to null.
@@ -152,7 +228,62 @@ public class DeliveryClient {
         if (deliveryOptions.getRetryAttempts() < 0) {
             throw new IllegalArgumentException("Cannot retry connections less than 0 times.");
         }
+        if (deliveryOptions.getRetryInitialDelay() == null || deliveryOptions.getRetryInitialDelay().isNegative()) {
+            throw new IllegalArgumentException("The retry initial delay must be specified and cannot be negative.");
+        }
+        if (deliveryOptions.getRetryMaxDelay() == null
+                || deliveryOptions.getRetryMaxDelay().compareTo(deliveryOptions.getRetryInitialDelay()) < 0) {
+            throw new IllegalArgumentException("The retry max delay cannot be less than the retry initial delay.");
+        }
+        if (deliveryOptions.getRetryBudgetRatio() < 0 || deliveryOptions.getRetryBudgetMinRetriesPerSecond() < 0) {
+            throw new IllegalArgumentException("The retry budget cannot be negative.");
+        }
+        if (deliveryOptions.getMaxConcurrentRequests() < 1 || deliveryOptions.getMaxConcurrentRequestsPerHost() < 1) {
+            throw new IllegalArgumentException("The max concurrent requests must be at least 1.");
+        }
+        if (deliveryOptions.getHttpTransport() == null && deliveryOptions.getHttpClient() == null && Arrays.asList(
+                deliveryOptions.getConnectionKeepAlive(),
+                deliveryOptions.getConnectTimeout(),
+                deliveryOptions.getReadTimeout(),
+                deliveryOptions.getCallTimeout()).stream().anyMatch(timeout -> timeout == null || timeout.isNegative())) {
+            throw new IllegalArgumentException("The connection keep-alive and timeouts must be specified and cannot be negative.");
+        }
+        if (deliveryOptions.getMaxRequestsPerSecond() < 0) {
+            throw new IllegalArgumentException("The max requests per second cannot be negative.");
+        }
+        if (deliveryOptions.getMaxParallelPageRequests() < 1) {
+            throw new IllegalArgumentException("The max parallel page requests must be at least 1.");
+        }
+        if (deliveryOptions.getCircuitBreaker() != null) {
+            validateCircuitBreakerOptions(deliveryOptions.getCircuitBreaker());
+        }
+        if (deliveryOptions.getHedging() != null) {
+            validateHedgingOptions(deliveryOptions.getHedging());
+        }
+        if (deliveryOptions.getItemBatching() != null) {
+            validateItemBatchingOptions(deliveryOptions.getItemBatching());
+        }
+        if (deliveryOptions.getLinkedItemsHydration() != null) {
+            validateLinkedItemsHydrationOptions(deliveryOptions.getLinkedItemsHydration());
+        }
         this.deliveryOptions = deliveryOptions;
+        this.retryBudget = new RetryBudget(
+                deliveryOptions.getRetryBudgetRatio(), deliveryOptions.getRetryBudgetMinRetriesPerSecond());
+        this.rateLimiter = new AsyncRateLimiter(deliveryOptions.getMaxRequestsPerSecond(), SCHEDULER);
+        if (deliveryOptions.getCircuitBreaker() != null) {
+            this.circuitBreaker = new CircuitBreaker(deliveryOptions.getCircuitBreaker());
+        }
+        if (deliveryOptions.getHedging() != null) {
+            this.latencyTracker = new LatencyTracker(deliveryOptions.getHedging().getLatencyPercentile());
+            this.hedgeBudget = new RetryBudget(
+                    deliveryOptions.getHedging().getBudgetRatio(),
+                    deliveryOptions.getHedging().getBudgetMinHedgesPerSecond());
+        }
+        if (deliveryOptions.getItemBatching() != null) {
+            this.itemBatcher = new ItemBatcher(deliveryOptions.getItemBatching(), this::loadItemBatch, SCHEDULER);
+        }
+        this.metricsListener = deliveryOptions.getMetricsListener();
+        stronglyTypedContentItemConverter.setMetricsListener(metricsListener);
 
         if (templateEngineConfig != null) {
             templateEngineConfig.init();
@@ -160,12 +291,64 @@ public class DeliveryClient {
         }
         reconfigureDeserializer();
 
-        OkHttpClient.Builder builder = new OkHttpClient.Builder();
-        if (deliveryOptions.getProxyServer() != null) {
-            builder.proxy(deliveryOptions.getProxyServer());
+        this.executor = deliveryOptions.getExecutor() != null
+                ? deliveryOptions.getExecutor()
+                : DefaultExecutors.responseExecutor();
+        this.blockingExecutor = deliveryOptions.getBlockingExecutor() != null
+                ? deliveryOptions.getBlockingExecutor()
+                : DefaultExecutors.blockingExecutor();
+        this.httpTransport = deliveryOptions.getHttpTransport() != null
+                ? deliveryOptions.getHttpTransport()
+                : new OkHttpTransport(deliveryOptions);
+    }
+
+    private static void validateCircuitBreakerOptions(CircuitBreakerOptions options) {
+        if (options.getSlidingWindowSize() < 1
+                || options.getMinimumNumberOfCalls() < 1
+                || options.getPermittedCallsInHalfOpenState() < 1) {
+            throw new IllegalArgumentException(
+                    "The circuit breaker sliding window, minimum number of calls and permitted calls in half-open " +
+                            "state must be at least 1.");
+        }
+        if (options.getFailureRateThreshold() <= 0 || options.getFailureRateThreshold() > 1
+                || options.getSlowCallRateThreshold() <= 0 || options.getSlowCallRateThreshold() > 1) {
+            throw new IllegalArgumentException("The circuit breaker rate thresholds must be greater than 0 and at most 1.");
+        }
+        if (options.getSlowCallDuration() == null || options.getSlowCallDuration().isNegative()
+                || options.getWaitDurationInOpenState() == null || options.getWaitDurationInOpenState().isNegative()) {
+            throw new IllegalArgumentException(
+                    "The circuit breaker slow call duration and wait duration must be specified and cannot be negative.");
+        }
+    }
+
+    private static void validateHedgingOptions(HedgingOptions options) {
+        if (options.getLatencyPercentile() <= 0 || options.getLatencyPercentile() > 1) {
+            throw new IllegalArgumentException("The hedging latency percentile must be greater than 0 and at most 1.");
+        }
+        if (options.getMinDelay() == null || options.getMinDelay().isNegative()) {
+            throw new IllegalArgumentException("The hedging min delay must be specified and cannot be negative.");
+        }
+        if (options.getBudgetRatio() < 0 || options.getBudgetMinHedgesPerSecond() < 0) {
+            throw new IllegalArgumentException("The hedge budget cannot be negative.");
+        }
+    }
+
+    private static void validateItemBatchingOptions(ItemBatchingOptions options) {
+        if (options.getWindow() == null || options.getWindow().isNegative()) {
+            throw new IllegalArgumentException("The item batching window must be specified and cannot be negative.");
         }
+        if (options.getMaxBatchSize() < 1) {
+            throw new IllegalArgumentException("The max item batch size must be at least 1.");
+        }
+    }
 
-        this.httpClient = builder.build();
+    private static void validateLinkedItemsHydrationOptions(LinkedItemsHydrationOptions options) {
+        if (options.getMaxDepth() < 0) {
+            throw new IllegalArgumentException("The max depth of linked items hydration cannot be negative.");
+        }
+        if (options.getMaxBatchSize() < 1) {
+            throw new IllegalArgumentException("The max batch size of linked items hydration must be at least 1.");
+        }
     }
 
     @SuppressWarnings("unused")
@@ -184,19 +367,100 @@ public class DeliveryClient {
 
     @SuppressWarnings("WeakerAccess")
     public CompletionStage<ContentItemsListingResponse> getItems(List<NameValuePair> params) {
-        return executeRequest(ITEMS, params, ContentItemsListingResponse.class)
+        return getItems(params, null);
+    }
+
+    /**
+     * Retrieves content items with {@link RequestOptions} of this request, e.g. a deadline or a cache mode.
+     *
+     * @param params         the query parameters
+     * @param requestOptions the options of this request, or null for the defaults
+     * @return the content items listing
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<ContentItemsListingResponse> getItems(
+            List<NameValuePair> params, RequestOptions requestOptions) {
+        return getItems(createUrl(ITEMS, params), languageParameter(params), requestOptions);
+    }
+
+    /**
+     * Retrieves content items of a precompiled {@link Query}.
+     *
+     * @param query the query, e.g. built by {@link DeliveryParameterBuilder#buildQuery()}
+     * @return the content items listing
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<ContentItemsListingResponse> getItems(Query query) {
+        return getItems(query, null);
+    }
+
+    /**
+     * Retrieves content items of a precompiled {@link Query} with {@link RequestOptions} of this request.
+     *
+     * @param query          the query, e.g. built by {@link DeliveryParameterBuilder#buildQuery()}
+     * @param requestOptions the options of this request, or null for the defaults
+     * @return the content items listing
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<ContentItemsListingResponse> getItems(Query query, RequestOptions requestOptions) {
+        return getItems(
+                createUrl(ITEMS, query), query.getParameterValue(DeliveryParameterBuilder.LANGUAGE), requestOptions);
+    }
+
+    private CompletionStage<ContentItemsListingResponse> getItems(
+            String url, String language, RequestOptions requestOptions) {
+        final RequestContext context = new RequestContext(requestOptions, deliveryOptions);
+        final TraceSpan span = context.startSpan(SPAN_GET_ITEMS);
+        return endWhenComplete(span, executeRequest(url, ContentItemsListingResponse.class, context)
+                .thenCompose(response -> hydrateLinkedItems(response, language))
                 .thenApply(contentItemsListingResponse ->
                         contentItemsListingResponse
                                 .setStronglyTypedContentItemConverter(stronglyTypedContentItemConverter))
                 .thenApply(response -> {
-                    createRichTextElementConverter().process(response.items);
+                    processRichText(response.items, context);
                     return response;
-                });
+                }));
     }
 
     @SuppressWarnings("WeakerAccess")
     public <T> CompletionStage<List<T>> getItems(Class<T> tClass, List<NameValuePair> params) {
-        return getItems(addTypeParameterIfNecessary(tClass, params))
+        return getItems(tClass, params, null);
+    }
+
+    /**
+     * Retrieves content items mapped to the given type with {@link RequestOptions} of this request.
+     *
+     * @param tClass         the type to map the items to
+     * @param params         the query parameters
+     * @param requestOptions the options of this request, or null for the defaults
+     * @param <T>            the type to map the items to
+     * @return the mapped content items
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<List<T>> getItems(
+            Class<T> tClass, List<NameValuePair> params, RequestOptions requestOptions) {
+        return getItems(addTypeParameterIfNecessary(tClass, params), requestOptions)
+                .thenApply(contentItemsListingResponse -> contentItemsListingResponse.castTo(tClass));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<List<T>> getItems(Class<T> tClass, Query query) {
+        return getItems(tClass, query, null);
+    }
+
+    /**
+     * Retrieves content items of a precompiled {@link Query} mapped to the given type with {@link RequestOptions} of
+     * this request.
+     *
+     * @param tClass         the type to map the items to
+     * @param query          the query, e.g. built by {@link DeliveryParameterBuilder#buildQuery()}
+     * @param requestOptions the options of this request, or null for the defaults
+     * @param <T>            the type to map the items to
+     * @return the mapped content items
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<List<T>> getItems(Class<T> tClass, Query query, RequestOptions requestOptions) {
+        return getItems(addTypeParameterIfNecessary(tClass, query), requestOptions)
                 .thenApply(contentItemsListingResponse -> contentItemsListingResponse.castTo(tClass));
     }
 
@@ -212,10 +476,12 @@ public class DeliveryClient {
 
     @SuppressWarnings("WeakerAccess")
     public <T> CompletionStage<Page<T>> getPageOfItems(Class<T> tClass, List<NameValuePair> params) {
-        return getItems(params)
-                .thenApply(response ->
-                        response.setStronglyTypedContentItemConverter(stronglyTypedContentItemConverter))
-                .thenApply(response -> new Page<>(response, tClass));
+        return getPageOfItems(createUrl(ITEMS, params), tClass, new RequestContext(null, deliveryOptions));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<Page<T>> getPageOfItems(Class<T> tClass, Query query) {
+        return getPageOfItems(createUrl(ITEMS, query), tClass, new RequestContext(null, deliveryOptions));
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -225,13 +491,296 @@ public class DeliveryClient {
             return CompletableFuture.completedFuture(null);
         }
 
-        return executeRequest(pagination.getNextPage(), ContentItemsListingResponse.class)
+        return getPageOfItems(
+                pagination.getNextPage(), currentPage.getType(), new RequestContext(null, deliveryOptions));
+    }
+
+    /**
+     * Streams all content items matching the parameters, page by page, following
+     * {@link Pagination#getNextPage()}.  Use {@link DeliveryParameterBuilder#page(Integer, Integer)} to set the page
+     * size, otherwise the whole listing is a single page.
+     * <p>
+     * The next two pages are fetched while the current one is consumed.  Consumed
+     * pages are not retained, so the memory used does not grow with the size of the listing.  Close the stream
+     * to stop fetching when it is not consumed to the end.  Failures of the page requests are rethrown
+     * unwrapped, e.g. as a {@link KontentErrorException}.
+     *
+     * @param tClass the type to map the items to
+     * @param params the query parameters
+     * @param <T>    the type to map the items to
+     * @return the lazily fetched stream of the content items
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> Stream<T> streamItems(Class<T> tClass, List<NameValuePair> params) {
+        return streamItems(tClass, params, DEFAULT_PREFETCH_PAGES);
+    }
+
+    /**
+     * Streams all content items matching the parameters, fetching up to {@code prefetchPages} pages ahead of the
+     * consumed one.
+     *
+     * @param tClass        the type to map the items to
+     * @param params        the query parameters
+     * @param prefetchPages the maximum number of pages requested ahead, at least 1
+     * @param <T>           the type to map the items to
+     * @return the lazily fetched stream of the content items
+     * @see #streamItems(Class, List)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> Stream<T> streamItems(Class<T> tClass, List<NameValuePair> params, int prefetchPages) {
+        if (prefetchPages < 1) {
+            throw new IllegalArgumentException("Prefetch pages must be at least 1.");
+        }
+        PrefetchingPageSpliterator<Page<T>, T> spliterator = PrefetchingPageSpliterator.ofPages(
+                () -> getPageOfItems(tClass, addTypeParameterIfNecessary(tClass, params)),
+                this::getNextPage,
+                prefetchPages);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Streams all content items matching the parameters from the items feed.  Unlike {@link #streamItems(Class, List)},
+     * the items feed pages with a continuation token sent in the {@value #HEADER_X_CONTINUATION} header, which stays
+     * fast however deep the scan goes, so it suits walking the whole project.  The feed supports filtering, ordering,
+     * {@link DeliveryParameterBuilder#projection(String...)} and {@link DeliveryParameterBuilder#language(String)},
+     * but not paging parameters or the depth of linked items.
+     * <p>
+     * The items are emitted page by page as they arrive.  The next two pages are fetched while the current one is
+     * consumed and consumed pages are not retained.  The feed is never cached.
+     *
+     * @param tClass the type to map the items to
+     * @param params the query parameters
+     * @param <T>    the type to map the items to
+     * @return the lazily fetched stream of the content items
+     * @see <a href="https://kontent.ai/learn/reference/delivery-api#operation/enumerate-content-items">
+     * Kontent.ai API reference - Enumerate content items</a>
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> Stream<T> streamItemsFeed(Class<T> tClass, List<NameValuePair> params) {
+        return streamItemsFeed(tClass, params, DEFAULT_PREFETCH_PAGES);
+    }
+
+    /**
+     * Streams all content items matching the parameters from the items feed, fetching up to {@code prefetchPages}
+     * pages ahead of the consumed one.
+     *
+     * @param tClass        the type to map the items to
+     * @param params        the query parameters
+     * @param prefetchPages the maximum number of pages requested ahead, at least 1
+     * @param <T>           the type to map the items to
+     * @return the lazily fetched stream of the content items
+     * @see #streamItemsFeed(Class, List)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> Stream<T> streamItemsFeed(Class<T> tClass, List<NameValuePair> params, int prefetchPages) {
+        if (prefetchPages < 1) {
+            throw new IllegalArgumentException("Prefetch pages must be at least 1.");
+        }
+        final String url = createUrl(ITEMS_FEED, addTypeParameterIfNecessary(tClass, params));
+        PrefetchingPageSpliterator<FeedPage<T>, T> spliterator = new PrefetchingPageSpliterator<>(
+                () -> getItemsFeedPage(url, tClass, null),
+                page -> getItemsFeedPage(url, tClass, page.getContinuationToken()),
+                FeedPage::hasNext,
+                FeedPage::getItems,
+                prefetchPages);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    private <T> CompletionStage<FeedPage<T>> getItemsFeedPage(String url, Class<T> tClass, String continuationToken) {
+        final RequestContext context = new RequestContext(null, deliveryOptions);
+        HttpTransportRequest request = buildNewRequest(url, context.isWaitForLoadingNewContent());
+        if (continuationToken != null) {
+            request = request.withHeader(HEADER_X_CONTINUATION, continuationToken);
+        }
+        log.debug("Request to items feed: {}", url);
+        return retrieveFromKontent(request, context)
+                // Leave the transport thread, the body is parsed and bound on the executor
+                .thenApplyAsync(response -> {
+                    final String nextContinuationToken = response.getHeader(HEADER_X_CONTINUATION);
+                    final ContentItemsListingResponse listing = readBody(response, ContentItemsListingResponse.class)
+                            .setStronglyTypedContentItemConverter(stronglyTypedContentItemConverter);
+                    processRichText(listing.items, context);
+                    return new FeedPage<>(listing.castTo(tClass), nextContinuationToken);
+                }, executor);
+    }
+
+    /**
+     * Initializes the synchronization of the content items matching the parameters and stores the continuation token
+     * marking the current state of the project.  A subsequent {@link #sync(ContinuationTokenStore, SyncListener)}
+     * then delivers the changes made since.  The Sync API supports filtering by
+     * {@link DeliveryParameterBuilder#filterEquals(String, String)} of {@code system.type} and
+     * {@code system.collection} and by {@link DeliveryParameterBuilder#language(String)}.
+     * <p>
+     * Initialize the sync once, before copying the current content e.g. with {@link #streamItemsFeed(Class, List)},
+     * so that no change is missed.
+     *
+     * @param params     the query parameters
+     * @param tokenStore the store of the continuation token
+     * @return a stage completed once the token is stored
+     * @see <a href="https://kontent.ai/learn/reference/delivery-api#operation/initialize-synchronization">
+     * Kontent.ai API reference - Initialize synchronization</a>
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<Void> initializeSync(List<NameValuePair> params, ContinuationTokenStore tokenStore) {
+        final String url = createUrl(SYNC_INIT, params);
+        log.debug("Initializing sync: {}", url);
+        return retrieveFromKontent(
+                buildNewRequest(HttpTransportRequest.POST, url, false), new RequestContext(null, deliveryOptions))
+                // The token store may block, e.g. on a file or a database
+                .thenAcceptAsync(response -> {
+                    closeQuietly(response);
+                    tokenStore.store(getContinuationToken(response));
+                }, executor);
+    }
+
+    /**
+     * Delivers the changes of content items made since the stored continuation token to the listener, in order, and
+     * stores the new token after each batch of changes.  The changes are fetched until the API has no more.
+     *
+     * @param tokenStore the store of the continuation token, initialized by
+     *                   {@link #initializeSync(List, ContinuationTokenStore)}
+     * @param listener   the listener of the changes
+     * @return the number of the delivered changes, or a failure with {@link IllegalStateException} when the store
+     * holds no token
+     * @see <a href="https://kontent.ai/learn/reference/delivery-api#operation/synchronize-content">
+     * Kontent.ai API reference - Synchronize content</a>
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<Integer> sync(ContinuationTokenStore tokenStore, SyncListener listener) {
+        return CompletableFuture.supplyAsync(tokenStore::load, blockingExecutor)
+                .thenCompose(token -> {
+                    if (token == null) {
+                        throw new CompletionException(new IllegalStateException(
+                                "The continuation token store is empty, the sync must be initialized first."));
+                    }
+                    return syncChanges(token, tokenStore, listener, 0);
+                });
+    }
+
+    private CompletionStage<Integer> syncChanges(
+            String continuationToken, ContinuationTokenStore tokenStore, SyncListener listener, int syncedChanges) {
+        final HttpTransportRequest request = buildNewRequest(createUrl(SYNC, Collections.emptyList()), false)
+                .withHeader(HEADER_X_CONTINUATION, continuationToken);
+        return retrieveFromKontent(request, new RequestContext(null, deliveryOptions))
+                .thenComposeAsync(response -> {
+                    final String nextContinuationToken;
+                    try {
+                        nextContinuationToken = getContinuationToken(response);
+                    } catch (KontentIOException e) {
+                        closeQuietly(response);
+                        throw e;
+                    }
+                    final List<SyncItem> items = Optional.ofNullable(readBody(response, SyncResponse.class).getItems())
+                            .orElse(Collections.emptyList());
+                    for (SyncItem item : items) {
+                        if (item.getData() != null) {
+                            item.getData().setStronglyTypedContentItemConverter(stronglyTypedContentItemConverter);
+                        }
+                        listener.onChange(item);
+                    }
+                    tokenStore.store(nextContinuationToken);
+                    if (items.isEmpty()) {
+                        return CompletableFuture.completedFuture(syncedChanges);
+                    }
+                    return syncChanges(nextContinuationToken, tokenStore, listener, syncedChanges + items.size());
+                }, executor);
+    }
+
+    private static String getContinuationToken(HttpTransportResponse response) {
+        final String continuationToken = response.getHeader(HEADER_X_CONTINUATION);
+        if (continuationToken == null || continuationToken.isEmpty()) {
+            throw new KontentIOException(
+                    String.format("The response does not contain the %s header.", HEADER_X_CONTINUATION), false);
+        }
+        return continuationToken;
+    }
+
+    /**
+     * Publishes all content items matching the parameters as a Reactive Streams {@link Publisher}, following
+     * {@link Pagination#getNextPage()}.  Use {@link DeliveryParameterBuilder#page(Integer, Integer)} to set the page
+     * size.
+     * <p>
+     * A page is only requested from the Delivery API when the subscriber has signalled demand for more items than
+     * already received.  Cancelling the subscription aborts the request in flight.  Each subscription walks the
+     * pages anew.  On Java 9+, {@code org.reactivestreams.FlowAdapters.toFlowPublisher(publisher)} adapts the
+     * publisher to {@code java.util.concurrent.Flow.Publisher}.
+     *
+     * @param tClass the type to map the items to
+     * @param params the query parameters
+     * @param <T>    the type to map the items to
+     * @return the publisher of the content items
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> Publisher<T> publishItems(Class<T> tClass, List<NameValuePair> params) {
+        final String firstPageUrl = createUrl(ITEMS, addTypeParameterIfNecessary(tClass, params));
+        return new PagePublisher<>(
+                context -> getPageOfItems(firstPageUrl, tClass, context),
+                (page, context) -> getPageOfItems(page.getPagination().getNextPage(), tClass, context),
+                () -> new RequestContext(null, deliveryOptions));
+    }
+
+    /**
+     * Retrieves all content items matching the parameters, fetching the pages concurrently.  The first page is
+     * requested with {@link DeliveryParameterBuilder#includeTotalCount()}, so that the {@code skip} of all the
+     * remaining pages is known up front.  These are then fetched at most
+     * {@link DeliveryOptions#getMaxParallelPageRequests()} at a time.  The page size is the {@code limit} set by
+     * {@link DeliveryParameterBuilder#page(Integer, Integer)}, without it all items are retrieved in a single request.
+     *
+     * @param tClass the type to map the items to
+     * @param params the query parameters
+     * @param <T>    the type to map the items to
+     * @return all the content items in the order of the listing
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<List<T>> getAllItems(Class<T> tClass, List<NameValuePair> params) {
+        final List<NameValuePair> typedParams = addTypeParameterIfNecessary(tClass, params);
+        final List<NameValuePair> firstPageParams = new ArrayList<>(typedParams);
+        if (typedParams.stream().noneMatch(param -> DeliveryParameterBuilder.INCLUDE_TOTAL_COUNT.equals(param.getName()))) {
+            firstPageParams.add(new NameValuePair(DeliveryParameterBuilder.INCLUDE_TOTAL_COUNT, "true"));
+        }
+        return getPageOfItems(createUrl(ITEMS, firstPageParams), tClass, new RequestContext(null, deliveryOptions))
+                .thenCompose(firstPage -> {
+                    final Pagination pagination = firstPage.getPagination();
+                    if (!firstPage.hasNext() || pagination.getTotalCount() == null
+                            || pagination.getLimit() == null || pagination.getLimit() < 1) {
+                        return CompletableFuture.completedFuture(firstPage.getContent());
+                    }
+                    final List<Supplier<CompletionStage<List<T>>>> remainingPages = new ArrayList<>();
+                    for (int skip = pagination.getSkip() + pagination.getLimit();
+                         skip < pagination.getTotalCount();
+                         skip += pagination.getLimit()) {
+                        final String url = createUrl(ITEMS, withSkip(typedParams, skip));
+                        remainingPages.add(() ->
+                                getPageOfItems(url, tClass, new RequestContext(null, deliveryOptions))
+                                        .thenApply(Page::getContent));
+                    }
+                    return ParallelRequests.run(remainingPages, deliveryOptions.getMaxParallelPageRequests())
+                            .thenApply(pages -> {
+                                final List<T> items = new ArrayList<>(firstPage.getContent());
+                                pages.forEach(items::addAll);
+                                return items;
+                            });
+                });
+    }
+
+    private static List<NameValuePair> withSkip(List<NameValuePair> params, int skip) {
+        final List<NameValuePair> pageParams = params.stream()
+                .filter(param -> !DeliveryParameterBuilder.SKIP.equals(param.getName()))
+                .collect(Collectors.toList());
+        pageParams.add(new NameValuePair(DeliveryParameterBuilder.SKIP, Integer.toString(skip)));
+        return pageParams;
+    }
+
+    private <T> CompletionStage<Page<T>> getPageOfItems(String url, Class<T> tClass, RequestContext context) {
+        final TraceSpan span = context.startSpan(SPAN_GET_PAGE_OF_ITEMS);
+        return endWhenComplete(span, executeRequest(url, ContentItemsListingResponse.class, context)
+                .thenCompose(response -> hydrateLinkedItems(response, languageParameter(url)))
                 .thenApply(response -> response.setStronglyTypedContentItemConverter(stronglyTypedContentItemConverter))
                 .thenApply(response -> {
-                    createRichTextElementConverter().process(response.items);
+                    processRichText(response.items, context);
                     return response;
                 })
-                .thenApply(response -> new Page<>(response, currentPage.getType()));
+                .thenApply(response -> new Page<>(response, tClass)));
     }
 
     @SuppressWarnings("unused")
@@ -241,19 +790,111 @@ public class DeliveryClient {
 
     @SuppressWarnings("WeakerAccess")
     public CompletionStage<ContentItemResponse> getItem(String contentItemCodename, List<NameValuePair> params) {
+        return getItem(contentItemCodename, params, (RequestOptions) null);
+    }
+
+    /**
+     * Retrieves a content item with {@link RequestOptions} of this request, e.g. a deadline or a cache mode.
+     *
+     * @param contentItemCodename the codename of the content item
+     * @param params              the query parameters
+     * @param requestOptions      the options of this request, or null for the defaults
+     * @return the content item
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<ContentItemResponse> getItem(
+            String contentItemCodename, List<NameValuePair> params, RequestOptions requestOptions) {
+        final String apiCall = String.format(URL_CONCAT, ITEMS, contentItemCodename);
+        return getItem(contentItemCodename, createUrl(apiCall, params), params, requestOptions);
+    }
+
+    /**
+     * Retrieves a content item with a precompiled {@link Query}.
+     *
+     * @param contentItemCodename the codename of the content item
+     * @param query               the query, e.g. built by {@link DeliveryParameterBuilder#buildQuery()}
+     * @return the content item
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<ContentItemResponse> getItem(String contentItemCodename, Query query) {
+        return getItem(contentItemCodename, query, (RequestOptions) null);
+    }
+
+    /**
+     * Retrieves a content item with a precompiled {@link Query} and {@link RequestOptions} of this request.
+     *
+     * @param contentItemCodename the codename of the content item
+     * @param query               the query, e.g. built by {@link DeliveryParameterBuilder#buildQuery()}
+     * @param requestOptions      the options of this request, or null for the defaults
+     * @return the content item
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<ContentItemResponse> getItem(
+            String contentItemCodename, Query query, RequestOptions requestOptions) {
         final String apiCall = String.format(URL_CONCAT, ITEMS, contentItemCodename);
-        return executeRequest(apiCall, params, ContentItemResponse.class)
+        return getItem(contentItemCodename, createUrl(apiCall, query), query.getParameters(), requestOptions);
+    }
+
+    private CompletionStage<ContentItemResponse> getItem(
+            String contentItemCodename, String url, List<NameValuePair> params, RequestOptions requestOptions) {
+        final RequestContext context = new RequestContext(requestOptions, deliveryOptions);
+        final TraceSpan span = context.startSpan(SPAN_GET_ITEM);
+        final CompletionStage<ContentItemResponse> itemResponse =
+                itemBatcher != null && requestOptions == null && !deliveryOptions.isWaitForLoadingNewContent()
+                        ? executeBatchedRequest(contentItemCodename, url, params, context)
+                        : executeRequest(url, ContentItemResponse.class, context);
+        return endWhenComplete(span, itemResponse
+                .thenCompose(response -> hydrateLinkedItems(response, languageParameter(params)))
                 .thenApply(response ->
                         response.setStronglyTypedContentItemConverter(stronglyTypedContentItemConverter))
                 .thenApply(response -> {
-                    createRichTextElementConverter().process(response.item);
+                    processRichText(Collections.singletonList(response.item), context);
                     return response;
-                });
+                }));
     }
 
     @SuppressWarnings("WeakerAccess")
     public <T> CompletionStage<T> getItem(String contentItemCodename, Class<T> tClass, List<NameValuePair> params) {
-        return getItem(contentItemCodename, addTypeParameterIfNecessary(tClass, params))
+        return getItem(contentItemCodename, tClass, params, null);
+    }
+
+    /**
+     * Retrieves a content item mapped to the given type with {@link RequestOptions} of this request.
+     *
+     * @param contentItemCodename the codename of the content item
+     * @param tClass              the type to map the item to
+     * @param params              the query parameters
+     * @param requestOptions      the options of this request, or null for the defaults
+     * @param <T>                 the type to map the item to
+     * @return the mapped content item
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<T> getItem(
+            String contentItemCodename, Class<T> tClass, List<NameValuePair> params, RequestOptions requestOptions) {
+        return getItem(contentItemCodename, addTypeParameterIfNecessary(tClass, params), requestOptions)
+                .thenApply(contentItemResponse -> contentItemResponse.castTo(tClass));
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<T> getItem(String contentItemCodename, Class<T> tClass, Query query) {
+        return getItem(contentItemCodename, tClass, query, null);
+    }
+
+    /**
+     * Retrieves a content item with a precompiled {@link Query} mapped to the given type with {@link RequestOptions}
+     * of this request.
+     *
+     * @param contentItemCodename the codename of the content item
+     * @param tClass              the type to map the item to
+     * @param query               the query, e.g. built by {@link DeliveryParameterBuilder#buildQuery()}
+     * @param requestOptions      the options of this request, or null for the defaults
+     * @param <T>                 the type to map the item to
+     * @return the mapped content item
+     */
+    @SuppressWarnings("WeakerAccess")
+    public <T> CompletionStage<T> getItem(
+            String contentItemCodename, Class<T> tClass, Query query, RequestOptions requestOptions) {
+        return getItem(contentItemCodename, addTypeParameterIfNecessary(tClass, query), requestOptions)
                 .thenApply(contentItemResponse -> contentItemResponse.castTo(tClass));
     }
 
@@ -263,7 +904,20 @@ public class DeliveryClient {
 
     @SuppressWarnings("WeakerAccess")
     public CompletionStage<ContentTypesListingResponse> getTypes(List<NameValuePair> params) {
-        return executeRequest(TYPES, params, ContentTypesListingResponse.class);
+        return getTypes(params, null);
+    }
+
+    /**
+     * Retrieves content types with {@link RequestOptions} of this request, e.g. a deadline or a cache mode.
+     *
+     * @param params         the query parameters
+     * @param requestOptions the options of this request, or null for the defaults
+     * @return the content types listing
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<ContentTypesListingResponse> getTypes(
+            List<NameValuePair> params, RequestOptions requestOptions) {
+        return executeRequest(TYPES, params, ContentTypesListingResponse.class, requestOptions);
     }
 
     public CompletionStage<ContentType> getType(String contentTypeCodeName) {
@@ -290,7 +944,20 @@ public class DeliveryClient {
 
     @SuppressWarnings("WeakerAccess")
     public CompletionStage<TaxonomyGroupListingResponse> getTaxonomyGroups(List<NameValuePair> params) {
-        return executeRequest(TAXONOMIES, params, TaxonomyGroupListingResponse.class);
+        return getTaxonomyGroups(params, null);
+    }
+
+    /**
+     * Retrieves taxonomy groups with {@link RequestOptions} of this request, e.g. a deadline or a cache mode.
+     *
+     * @param params         the query parameters
+     * @param requestOptions the options of this request, or null for the defaults
+     * @return the taxonomy groups listing
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CompletionStage<TaxonomyGroupListingResponse> getTaxonomyGroups(
+            List<NameValuePair> params, RequestOptions requestOptions) {
+        return executeRequest(TAXONOMIES, params, TaxonomyGroupListingResponse.class, requestOptions);
     }
 
     @SuppressWarnings("unused")
@@ -390,161 +1057,790 @@ public class DeliveryClient {
             @Override
             public CompletionStage<JsonNode> get(String url) {
 
+                // Get back to the executor, the cached response is bound there
                 return CompletableFuture.supplyAsync(() ->
-                        cacheManager.get(url)
-                );
+                        cacheManager.get(url),
+                        blockingExecutor
+                ).thenApplyAsync(jsonNode -> jsonNode, executor);
             }
 
             @Override
             public CompletionStage put(String url, JsonNode jsonNode, List<ContentItem> containedContentItems) {
-                return CompletableFuture.runAsync(() -> cacheManager.put(url, jsonNode, containedContentItems));
+                return CompletableFuture.runAsync(() -> cacheManager.put(url, jsonNode, containedContentItems), blockingExecutor);
+            }
+
+            @Override
+            public CompletionStage<CacheEntry> getEntry(String url) {
+                return CompletableFuture.supplyAsync(() -> cacheManager.getEntry(url), blockingExecutor)
+                        .thenApplyAsync(cacheEntry -> cacheEntry, executor);
+            }
+
+            @Override
+            public CompletionStage<?> put(String url, CacheEntry cacheEntry, List<ContentItem> containedContentItems) {
+                return CompletableFuture.runAsync(() -> cacheManager.put(url, cacheEntry, containedContentItems), blockingExecutor);
             }
         };
         this.setCacheManager(bridgedCacheManager);
     }
 
     private <T> CompletionStage<T> executeRequest(final String apiCall, final List<NameValuePair> queryParams, Class<T> tClass) {
-        return executeRequest(createUrl(apiCall, queryParams), tClass);
+        return executeRequest(apiCall, queryParams, tClass, null);
+    }
+
+    private <T> CompletionStage<T> executeRequest(
+            final String apiCall, final List<NameValuePair> queryParams, Class<T> tClass, RequestOptions requestOptions) {
+        return executeRequest(createUrl(apiCall, queryParams), tClass, new RequestContext(requestOptions, deliveryOptions));
     }
 
     private <T> CompletionStage<T> executeRequest(final String url, Class<T> tClass) {
-        final Request request = buildNewRequest(url);
-        log.debug("Request to url: {}", url);
-        final boolean skipCache = Optional.ofNullable(request.header(HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT))
-                .map(Boolean::valueOf)
-                .orElse(false);
+        return executeRequest(url, tClass, new RequestContext(null, deliveryOptions));
+    }
 
+    private <T> CompletionStage<T> executeRequest(final String url, Class<T> tClass, RequestContext context) {
+        final HttpTransportRequest request = buildNewRequest(url, context.isWaitForLoadingNewContent());
+        log.debug("Request to url: {}", url);
+        final TraceSpan span = context.startSpan(SPAN_REQUEST);
+        if (span != TraceSpan.NOOP) {
+            span.setAttribute("endpoint", endpointOf(url));
+        }
 
-        if (skipCache) {
-            return retrieveFromKontent(request, url, tClass, 0);
+        final CompletionStage<T> response;
+        if (context.getCacheMode() == CacheMode.BYPASS_BUT_WRITE) {
+            response = retrieveCoalesced(request, url, tClass, null, context);
         } else {
-            return cacheManager.get(url).thenApply(jsonNode -> {
-                try {
-                    if (jsonNode == null) {
-                        return null;
+            response = getCacheEntry(url, context).thenCompose(cacheEntry -> {
+                if (cacheEntry == null) {
+                    if (context.getCacheMode() == CacheMode.CACHE_ONLY) {
+                        throw new CompletionException(new KontentCacheMissException(url));
                     }
-                    return objectMapper.treeToValue(jsonNode, tClass);
-                } catch (JsonProcessingException e) {
-                    log.error("JsonProcessingException parsing Kontent.ai object: {}", e.toString());
+                    return retrieveCoalesced(request, url, tClass, null, context);
                 }
-                return null;
-            }).thenCompose(result -> {
-                if (result != null) {
-                    return CompletableFuture.completedFuture(result);
-                } else {
-                    return retrieveFromKontent(request, url, tClass, 0);
+                if (cacheEntry.isExpired() && context.getCacheMode() != CacheMode.CACHE_ONLY) {
+                    log.debug("Revalidating expired cache entry for url: {}", url);
+                    return retrieveCoalesced(request, url, tClass, cacheEntry, context);
                 }
+                if (cacheEntry.isStale() && context.getCacheMode() != CacheMode.CACHE_ONLY) {
+                    refreshInBackground(url, tClass, cacheEntry);
+                }
+                final TraceSpan bindSpan = context.startChildSpan(SPAN_BIND);
+                try {
+                    final T t = reader(tClass).readValue(cacheEntry.getJsonNode());
+                    bindSpan.end(null);
+                    return CompletableFuture.completedFuture(t);
+                } catch (IOException e) {
+                    bindSpan.end(e);
+                    log.error("IOException parsing Kontent.ai object: {}", e.toString());
+                    if (context.getCacheMode() == CacheMode.CACHE_ONLY) {
+                        throw new CompletionException(e);
+                    }
+                }
+                return retrieveCoalesced(request, url, tClass, null, context);
             });
         }
+        return endWhenComplete(span, context.hasDeadline() ? withDeadline(response, context) : response);
     }
 
-    private <T> CompletionStage<T> retrieveFromKontent(Request request, final String url, Class<T> tClass, int retryTurn) {
-        return send(request)
-                .thenApply(this::logResponseInfo)
-                .thenApply(this::handleErrorIfNecessary)
-                .thenApply(Response::body)
-                .thenApply((responseBody) -> {
-                    try {
-                        return responseBody.string();
-                    } catch (IOException e) {
-                        log.error("IOException when converting responseBody to body string: {}", e.toString());
-                        throw new CompletionException(e);
+    private CompletionStage<ContentItemsListingResponse> hydrateLinkedItems(
+            ContentItemsListingResponse response, String language) {
+        return hydrateLinkedItems(response.getItems(), response.getLinkedItems(), language)
+                .thenApply(linkedItems -> {
+                    if (linkedItems != null) {
+                        response.setLinkedItems(linkedItems);
                     }
-                })
-                .thenApply((bodyString) -> {
-                    try {
-                        return objectMapper.readValue(bodyString, JsonNode.class);
-                    } catch (IOException e) {
-                        log.error("IOException when mapping body string to the JsonNode: {}", e.toString());
-                        throw new CompletionException(e);
-                    }
-                })
-                .thenCompose((jsonNode) -> {
-                    try {
-                        return convertAndPutInCache(url, tClass, jsonNode);
-                    } catch (JsonProcessingException e) {
-                        log.error("JsonProcessingException when converting JsonNode to typed class: {}", e.toString());
-                        throw new CompletionException(e);
-                    }
-                })
-                .exceptionally((error) -> {
-                    final AtomicInteger counter = new AtomicInteger(retryTurn);
-
-                    if (error instanceof CompletionException) {
-                        Throwable cause = error.getCause();
-
-                        // Don't retry when when not KontentException or not set to retry
-                        boolean retry = cause instanceof KontentException && ((KontentException) cause).shouldRetry();
+                    return response;
+                });
+    }
 
-                        if (!retry) {
-                            throw (CompletionException) error;
-                        }
+    private CompletionStage<ContentItemResponse> hydrateLinkedItems(ContentItemResponse response, String language) {
+        return hydrateLinkedItems(Collections.singletonList(response.getItem()), response.getLinkedItems(), language)
+                .thenApply(linkedItems -> {
+                    if (linkedItems != null) {
+                        response.setLinkedItems(linkedItems);
                     }
+                    return response;
+                });
+    }
+
+    /**
+     * Loads the linked items referenced by the content items, but missing in the response.
+     *
+     * @return the linked items together with the loaded ones, or null when hydration is disabled
+     */
+    private CompletionStage<Map<String, ContentItem>> hydrateLinkedItems(
+            List<ContentItem> items, Map<String, ContentItem> linkedItems, String language) {
+        if (deliveryOptions.getLinkedItemsHydration() == null || items == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return new LinkedItemsHydrator(
+                deliveryOptions.getLinkedItemsHydration(),
+                deliveryOptions.getMaxParallelPageRequests(),
+                linkedItems,
+                codenames -> {
+                    final List<NameValuePair> params = new ArrayList<>();
+                    if (language != null) {
+                        params.add(new NameValuePair(DeliveryParameterBuilder.LANGUAGE, language));
+                    }
+                    params.add(new NameValuePair(
+                            "system.codename" + DeliveryParameterBuilder.IN, String.join(",", codenames)));
+                    // The next level is loaded by the next round
+                    params.add(new NameValuePair(DeliveryParameterBuilder.DEPTH, "0"));
+                    return executeRequest(ITEMS, params, ContentItemsListingResponse.class);
+                })
+                .hydrate(items);
+    }
+
+    private static String languageParameter(List<NameValuePair> params) {
+        return params == null ? null : params.stream()
+                .filter(param -> DeliveryParameterBuilder.LANGUAGE.equals(param.getName()))
+                .map(NameValuePair::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String languageParameter(String url) {
+        final int queryStart = url.indexOf('?');
+        if (queryStart < 0) {
+            return null;
+        }
+        return Arrays.stream(url.substring(queryStart + 1).split("&"))
+                .filter(param -> param.startsWith(DeliveryParameterBuilder.LANGUAGE + "="))
+                .map(param -> param.substring(DeliveryParameterBuilder.LANGUAGE.length() + 1))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Retrieves a content item from the cache, or as a part of a batch of content items.  The items missing in the
+     * batch response are requested on their own, so that the caller gets the same error as without batching.  An
+     * expired cache entry with validators is revalidated on its own too, as the batch request cannot be conditional.
+     */
+    private CompletionStage<ContentItemResponse> executeBatchedRequest(
+            String codename, String url, List<NameValuePair> params, RequestContext context) {
+        return getCacheEntry(url, context).thenCompose(cacheEntry -> {
+            if (cacheEntry != null && cacheEntry.isExpired() && cacheEntry.hasValidators()) {
+                log.debug("Revalidating expired cache entry for url: {}", url);
+                return retrieveCoalesced(
+                        buildNewRequest(url, false), url, ContentItemResponse.class, cacheEntry, context);
+            }
+            if (cacheEntry != null && !cacheEntry.isExpired()) {
+                if (cacheEntry.isStale()) {
+                    refreshInBackground(url, ContentItemResponse.class, cacheEntry);
+                }
+                try {
+                    return CompletableFuture.completedFuture(
+                            reader(ContentItemResponse.class).<ContentItemResponse>readValue(cacheEntry.getJsonNode()));
+                } catch (IOException e) {
+                    log.error("IOException parsing Kontent.ai object: {}", e.toString());
+                }
+            }
+            return itemBatcher.load(codename, params).thenCompose(jsonNode -> {
+                if (jsonNode == null) {
+                    return executeRequest(url, ContentItemResponse.class, context);
+                }
+                try {
+                    return convertAndPutInCache(url, ContentItemResponse.class, new CacheEntry(jsonNode), context);
+                } catch (IOException e) {
+                    log.error("IOException when converting JsonNode to typed class: {}", e.toString());
+                    throw new CompletionException(e);
+                }
+            });
+        });
+    }
+
+    private CompletionStage<Map<String, JsonNode>> loadItemBatch(List<NameValuePair> params, List<String> codenames) {
+        final List<NameValuePair> batchParams = new ArrayList<>(params);
+        batchParams.add(new NameValuePair("system.codename" + DeliveryParameterBuilder.IN, String.join(",", codenames)));
+        final String url = createUrl(ITEMS, batchParams);
+        log.debug("Batched request to url: {}", url);
+        return retrieveFromKontent(buildNewRequest(url, false), new RequestContext(null, deliveryOptions))
+                // Leave the transport thread, the body is parsed and split on the executor
+                .thenApplyAsync(response -> splitItemBatch(readBody(response, JsonNode.class), linkedItemsDepth(params)),
+                        executor);
+    }
+
+    /**
+     * Returns the depth of linked items requested by the parameters, the API returns 1 level by default.
+     */
+    private static int linkedItemsDepth(List<NameValuePair> params) {
+        for (NameValuePair param : params) {
+            if (DeliveryParameterBuilder.DEPTH.equals(param.getName())) {
+                try {
+                    return Integer.parseInt(param.getValue());
+                } catch (NumberFormatException e) {
+                    log.debug("Invalid depth parameter {}, assuming the default", param.getValue());
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Splits a listing response into the responses of its single content items, each with the linked items it
+     * references, directly or through other linked items up to the requested depth.  The linked items of the listing
+     * are shared by all the items, so that an item could otherwise get linked items deeper than it asked for.
+     */
+    private Map<String, JsonNode> splitItemBatch(JsonNode listing, int depth) {
+        final JsonNode linkedItems = listing.path("modular_content");
+        final Map<String, JsonNode> itemResponses = new HashMap<>();
+        for (JsonNode item : listing.path("items")) {
+            final ObjectNode itemLinkedItems = objectMapper.createObjectNode();
+            List<JsonNode> level = Collections.singletonList(item);
+            for (int levelDepth = 1; levelDepth <= depth && !level.isEmpty(); levelDepth++) {
+                final List<JsonNode> nextLevel = new ArrayList<>();
+                for (JsonNode levelItem : level) {
+                    for (JsonNode element : levelItem.path("elements")) {
+                        final String type = element.path("type").asText();
+                        final JsonNode references;
+                        if ("rich_text".equals(type)) {
+                            references = element.path("modular_content");
+                        } else if ("modular_content".equals(type)) {
+                            references = element.path("value");
+                        } else {
+                            continue;
+                        }
+                        for (JsonNode reference : references) {
+                            final JsonNode linkedItem = linkedItems.get(reference.asText());
+                            if (linkedItem != null && !itemLinkedItems.has(reference.asText())) {
+                                itemLinkedItems.set(reference.asText(), linkedItem);
+                                nextLevel.add(linkedItem);
+                            }
+                        }
+                    }
+                }
+                level = nextLevel;
+            }
+            final ObjectNode itemResponse = objectMapper.createObjectNode();
+            itemResponse.set("item", item);
+            itemResponse.set("modular_content", itemLinkedItems);
+            itemResponses.put(item.path("system").path("codename").asText(), itemResponse);
+        }
+        return itemResponses;
+    }
 
-                    if (counter.incrementAndGet() > deliveryOptions.getRetryAttempts()) {
-                        KontentRetryException ex = new KontentRetryException(deliveryOptions.getRetryAttempts());
-                        ex.initCause(error.getCause());
-                        throw ex;
+    /**
+     * Refreshes a stale cache entry in the background while the callers are served the stale entry, at most once at a
+     * time per URL.  The request is conditional when the entry has validators, so an unchanged response is not
+     * downloaded again.
+     */
+    private <T> void refreshInBackground(String url, Class<T> tClass, CacheEntry staleEntry) {
+        if (!refreshingUrls.add(url)) {
+            return;
+        }
+        log.debug("Refreshing stale cache entry for url: {}", url);
+        retrieveCoalesced(buildNewRequest(url, false), url, tClass, staleEntry, new RequestContext(null, deliveryOptions))
+                .whenComplete((t, error) -> {
+                    refreshingUrls.remove(url);
+                    if (error != null) {
+                        log.warn("Refreshing stale cache entry for url {} failed: {}", url, error.toString());
                     }
+                });
+    }
 
-                    //Perform a binary exponential backoff
-                    int wait = (int) (100 * Math.pow(2, retryTurn));
-                    log.info("Reattempting request after {}ms (re-attempt {} out of max {})",
-                            wait, counter.get(), deliveryOptions.getRetryAttempts());
+    /**
+     * Fails the response when the deadline of the request passes before it completes. The call itself goes on, so
+     * that concurrent requests which joined it still get the response.  A failure after the deadline, e.g. the attempt
+     * timeout shortened to the deadline firing before the timer, is reported as the deadline being exceeded too.
+     */
+    private static <T> CompletionStage<T> withDeadline(CompletionStage<T> response, RequestContext context) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final ScheduledFuture<?> timer = SCHEDULER.schedule(
+                () -> result.completeExceptionally(new KontentDeadlineExceededException(context.getDeadline())),
+                Math.max(0, context.remainingNanos()),
+                TimeUnit.NANOSECONDS);
+        response.whenComplete((t, error) -> {
+            timer.cancel(false);
+            if (error != null) {
+                final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                if (context.remainingNanos() <= 0 && !(cause instanceof KontentDeadlineExceededException)) {
+                    final KontentDeadlineExceededException exceeded =
+                            new KontentDeadlineExceededException(context.getDeadline());
+                    exceeded.initCause(cause);
+                    result.completeExceptionally(exceeded);
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            } else {
+                result.complete(t);
+            }
+        });
+        return result;
+    }
 
+    /**
+     * Retrieves the url from Kontent.ai unless the same url is already being retrieved, in which case the caller
+     * joins the in-flight request. The first caller performs the HTTP call, the parsing and the cache put; the joined
+     * callers bind their own instance of {@code T} from the shared {@link JsonNode}, because the responses are
+     * post-processed (rich text resolution) per caller.
+     * <p>
+     * Requests waiting for new content are coalesced separately, and a caller does not join a request which would
+     * give up before its own deadline.
+     */
+    private <T> CompletionStage<T> retrieveCoalesced(
+            HttpTransportRequest request, final String url, Class<T> tClass, CacheEntry expiredEntry,
+            RequestContext context) {
+        if (context.isCancelRequested()) {
+            final CompletableFuture<T> cancelled = new CompletableFuture<>();
+            cancelled.cancel(false);
+            return cancelled;
+        }
+        final String key = request.getHeader(HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT) != null
+                ? IN_FLIGHT_KEY_WAITING + url
+                : url;
+        while (true) {
+            final InFlightRequest created = new InFlightRequest(context);
+            final InFlightRequest inFlight = inFlightRequests.putIfAbsent(key, created);
+            if (inFlight == null) {
+                originRequests.incrementAndGet();
+                return retrieveAsLeader(request, url, key, tClass, expiredEntry, context, created);
+            }
+            if (!inFlight.isJoinableBy(context)) {
+                // Send a request of its own, which is not registered for joining
+                originRequests.incrementAndGet();
+                return retrieveAsLeader(request, url, key, tClass, expiredEntry, context, created);
+            }
+            if (inFlight.tryJoin()) {
+                coalescedRequests.incrementAndGet();
+                log.debug("Joining in-flight request to url: {}", url);
+                return inFlight.getResponse().thenApplyAsync(jsonNode -> {
                     try {
-                        return CompletableFuture.supplyAsync(
-                                () -> {
-                                    try {
-                                        return retrieveFromKontent(request, url, tClass, counter.get())
-                                                .toCompletableFuture().get();
-                                    } catch (InterruptedException e) {
-                                        log.error(String.format("InterruptedException have been raised on retial no. %d", counter.get()));
-                                        throw new CompletionException(e);
-                                    } catch (ExecutionException e) {
-                                        log.error(String.format("ExecutionException have been raised on retrial no. %d", counter.get()));
-                                        if (e.getCause() instanceof KontentRetryException) {
-                                            KontentRetryException exception = new KontentRetryException(((KontentRetryException) e.getCause()).getMaxRetryAttempts());
-                                            exception.initCause(error.getCause());
-                                            throw exception;
-                                        }
-                                        throw new CompletionException(e);
-                                    }
-                                },
-                                r -> SCHEDULER.schedule(
-                                        () -> ForkJoinPool.commonPool().execute(r), wait, TimeUnit.MILLISECONDS)
-                        ).toCompletableFuture()
-                                .get();
-                    } catch (InterruptedException e) {
-                        log.error("InterruptedException have been raised for timeout");
+                        return reader(tClass).<T>readValue(jsonNode);
+                    } catch (IOException e) {
+                        log.error("IOException when converting JsonNode to typed class: {}", e.toString());
                         throw new CompletionException(e);
-                    } catch (ExecutionException e) {
-                        log.error("ExecutionException have been raised for timeout");
-                        if (e.getCause() instanceof KontentRetryException) {
-                            KontentRetryException exception = new KontentRetryException(((KontentRetryException) e.getCause()).getMaxRetryAttempts());
-                            exception.initCause(error.getCause());
-                            throw exception;
-                        }
+                    }
+                }, executor);
+            }
+            // The in-flight request is already binding its response without sharing it, start a new one
+            inFlightRequests.remove(key, inFlight);
+        }
+    }
 
+    private <T> CompletionStage<T> retrieveAsLeader(
+            HttpTransportRequest request, final String url, final String key, Class<T> tClass, CacheEntry expiredEntry,
+            RequestContext context, InFlightRequest inFlight) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        // Cancelling the request must not fail the concurrent callers which joined it
+        context.setAbortGuard(inFlight::seal);
+        retrieveFromKontent(withValidators(request, expiredEntry), context)
+                // Leave the transport thread, the body is parsed and bound on the executor
+                .thenComposeAsync(response -> {
+                    final CacheEntry cacheEntry;
+                    if (response.getStatusCode() == 304 && expiredEntry != null) {
+                        // Not modified, reuse the cached response without downloading or parsing the body
+                        closeQuietly(response);
+                        cacheEntry = new CacheEntry(
+                                expiredEntry.getJsonNode(),
+                                Optional.ofNullable(response.getHeader(HEADER_ETAG)).orElse(expiredEntry.getEtag()),
+                                Optional.ofNullable(response.getHeader(HEADER_LAST_MODIFIED)).orElse(expiredEntry.getLastModified()));
+                    } else if (cacheManager == NO_CACHE_MANAGER && inFlight.seal()) {
+                        // Only build the JsonNode tree when somebody needs it - the cache or a joined caller
+                        inFlightRequests.remove(key, inFlight);
+                        return CompletableFuture.completedFuture(readBody(response, tClass, context));
+                    } else {
+                        cacheEntry = new CacheEntry(
+                                readBody(response, JsonNode.class, context),
+                                response.getHeader(HEADER_ETAG),
+                                response.getHeader(HEADER_LAST_MODIFIED));
+                    }
+                    try {
+                        // The cache manager may complete the put on its own thread, get back to the executor
+                        return convertAndPutInCache(url, tClass, cacheEntry, context)
+                                .thenApplyAsync(t -> {
+                                    inFlightRequests.remove(key, inFlight);
+                                    inFlight.getResponse().complete(cacheEntry.getJsonNode());
+                                    return t;
+                                }, executor);
+                    } catch (IOException e) {
+                        log.error("IOException when converting JsonNode to typed class: {}", e.toString());
                         throw new CompletionException(e);
                     }
+                }, executor)
+                .whenComplete((t, error) -> {
+                    if (error != null) {
+                        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        inFlightRequests.remove(key, inFlight);
+                        inFlight.getResponse().completeExceptionally(cause);
+                        result.completeExceptionally(cause);
+                    } else {
+                        result.complete(t);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Makes the request conditional when there is an expired cache entry with validators, so that the API can respond
+     * with {@code 304 Not Modified} instead of the whole body.
+     */
+    private static HttpTransportRequest withValidators(HttpTransportRequest request, CacheEntry expiredEntry) {
+        if (expiredEntry == null || !expiredEntry.hasValidators()) {
+            return request;
+        }
+        HttpTransportRequest conditionalRequest = request;
+        if (expiredEntry.getEtag() != null) {
+            conditionalRequest = conditionalRequest.withHeader(HEADER_IF_NONE_MATCH, expiredEntry.getEtag());
+        }
+        if (expiredEntry.getLastModified() != null) {
+            conditionalRequest = conditionalRequest.withHeader(HEADER_IF_MODIFIED_SINCE, expiredEntry.getLastModified());
+        }
+        return conditionalRequest;
+    }
+
+    /**
+     * Binds the response body to the given type straight from the body stream, without creating an intermediate
+     * string.
+     */
+    private <T> T readBody(HttpTransportResponse response, Class<T> tClass) {
+        try (InputStream body = response.getBody()) {
+            return reader(tClass).readValue(body);
+        } catch (IOException e) {
+            log.error("IOException when mapping response body to {}: {}", tClass.getSimpleName(), e.toString());
+            throw new CompletionException(e);
+        }
+    }
+
+    private <T> T readBody(HttpTransportResponse response, Class<T> tClass, RequestContext context) {
+        final TraceSpan span = context.startChildSpan(SPAN_BIND);
+        try {
+            final T t = readBody(response, tClass);
+            span.end(null);
+            return t;
+        } catch (RuntimeException e) {
+            span.end(e.getCause() != null ? e.getCause() : e);
+            throw e;
+        }
+    }
+
+    private ObjectReader reader(Class<?> tClass) {
+        return readers.computeIfAbsent(tClass, objectMapper::readerFor);
+    }
+
+    private static void closeQuietly(HttpTransportResponse response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            log.debug("IOException when closing the response body: {}", e.toString());
+        }
+    }
+
+    private CompletionStage<HttpTransportResponse> retrieveFromKontent(
+            HttpTransportRequest request, RequestContext context) {
+        retryBudget.recordRequest();
+        return retrieveFromKontent(request, context, 0, deliveryOptions.getRetryInitialDelay().toMillis());
+    }
+
+    private CompletionStage<HttpTransportResponse> retrieveFromKontent(
+            HttpTransportRequest request, RequestContext context, int retryTurn, long previousDelay) {
+        return rateLimiter.acquire(context.getPriority())
+                .thenCompose(permitted -> {
+                    if (context.isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    if (context.hasDeadline() && context.remainingNanos() <= 0) {
+                        throw new CompletionException(new KontentDeadlineExceededException(context.getDeadline()));
+                    }
+                    final TraceSpan span = context.startChildSpan(SPAN_HTTP);
+                    final CompletionStage<HttpTransportResponse> response =
+                            send(request.withTimeout(context.attemptTimeout()), context);
+                    if (span == TraceSpan.NOOP) {
+                        return response;
+                    }
+                    span.setAttribute("attempt", retryTurn + 1);
+                    return response.whenComplete((sent, error) -> {
+                        if (sent != null) {
+                            span.setAttribute("status", sent.getStatusCode());
+                        }
+                        span.end(unwrap(error));
+                    });
+                })
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    return retryIfPossible(request, context, retryTurn, previousDelay, error);
+                })
+                .thenCompose(stage -> stage);
+    }
+
+    /**
+     * Sends a single attempt of the request through the circuit breaker, if enabled.
+     */
+    private CompletionStage<HttpTransportResponse> send(HttpTransportRequest request, RequestContext context) {
+        if (circuitBreaker == null) {
+            final long start = java.lang.System.nanoTime();
+            final FlightRecorderEvents.HttpRequest event = new FlightRecorderEvents.HttpRequest();
+            event.begin();
+            return sendRecorded(request, context, event)
+                    .thenApply(response -> recordResponse(request, response, start, event))
+                    .thenApply(response -> handleErrorIfNecessary(request, response));
+        }
+        final long generation = circuitBreaker.acquirePermission();
+        final long start = java.lang.System.nanoTime();
+        final FlightRecorderEvents.HttpRequest event = new FlightRecorderEvents.HttpRequest();
+        event.begin();
+        final CompletionStage<HttpTransportResponse> sent;
+        try {
+            sent = sendRecorded(request, context, event);
+        } catch (RuntimeException e) {
+            circuitBreaker.record(generation, java.lang.System.nanoTime() - start, true);
+            throw e;
+        }
+        return sent
+                .thenApply(response -> recordResponse(request, response, start, event))
+                .thenApply(response -> handleErrorIfNecessary(request, response))
+                .whenComplete((response, error) -> {
+                    final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (cause instanceof CancellationException) {
+                        circuitBreaker.release(generation);
+                    } else {
+                        circuitBreaker.record(generation, java.lang.System.nanoTime() - start, isFailure(cause));
+                    }
                 });
     }
 
-    private Response handleErrorIfNecessary(Response response) throws KontentIOException, KontentErrorException {
-        final int status = response.code();
+    /**
+     * Sends the request and records the attempts which received no response.
+     */
+    private CompletionStage<HttpTransportResponse> sendRecorded(
+            HttpTransportRequest request, RequestContext context, FlightRecorderEvents.HttpRequest event) {
+        if (!event.isEnabled()) {
+            return sendHedged(request, context);
+        }
+        return sendHedged(request, context).whenComplete((response, error) -> {
+            if (error != null) {
+                commitHttpRequestEvent(event, request, 0, 0);
+            }
+        });
+    }
+
+    private void commitHttpRequestEvent(
+            FlightRecorderEvents.HttpRequest event, HttpTransportRequest request, int status, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = request.getMethod();
+            event.endpoint = endpointOf(request.getUrl());
+            event.status = status;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Sends the request and, when hedging is enabled and no response arrives within the latency percentile, sends an
+     * identical hedged request. The first response wins and the other call is cancelled.
+     */
+    private CompletionStage<HttpTransportResponse> sendHedged(HttpTransportRequest request, RequestContext context) {
+        if (latencyTracker == null) {
+            return sendCancellable(request, context);
+        }
+        hedgeBudget.recordRequest();
+        final HedgedRequest hedgedRequest = new HedgedRequest();
+        hedgedRequest.addAttempt(sendTracked(request, context));
+        final long percentileNanos = latencyTracker.getPercentileNanos();
+        if (percentileNanos >= 0) {
+            final long delayNanos = Math.max(deliveryOptions.getHedging().getMinDelay().toNanos(), percentileNanos);
+            final ScheduledFuture<?> hedge = SCHEDULER.schedule(() -> {
+                if (hedgedRequest.isPending() && hedgeBudget.tryAcquire()) {
+                    hedgedRequests.incrementAndGet();
+                    log.debug("Hedging request to {} after {}ms", request.getUrl(), delayNanos / 1_000_000);
+                    hedgedRequest.addAttempt(sendTracked(request, context));
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+            hedgedRequest.getResult().whenComplete((response, error) -> hedge.cancel(false));
+        }
+        return hedgedRequest.getResult();
+    }
+
+    /**
+     * Sends the request and records its response time. The response time is recorded before the response is passed
+     * on, so that the requests sent after this one completed see it in the percentile. Cancelling the returned stage
+     * still cancels the call.
+     */
+    private CompletionStage<HttpTransportResponse> sendTracked(HttpTransportRequest request, RequestContext context) {
+        final long start = java.lang.System.nanoTime();
+        final CompletableFuture<HttpTransportResponse> stage = sendCancellable(request, context).toCompletableFuture();
+        final CompletableFuture<HttpTransportResponse> tracked = stage.whenComplete((response, error) -> {
+            if (error == null) {
+                latencyTracker.record(java.lang.System.nanoTime() - start);
+            }
+        });
+        tracked.whenComplete((response, error) -> {
+            if (tracked.isCancelled()) {
+                stage.cancel(true);
+            }
+        });
+        return tracked;
+    }
+
+    /**
+     * Sends the request through the transport and cancels the call when the request gets cancelled.
+     */
+    private CompletionStage<HttpTransportResponse> sendCancellable(HttpTransportRequest request, RequestContext context) {
+        final CompletionStage<HttpTransportResponse> stage = httpTransport.send(request);
+        context.whenCancelled(() -> stage.toCompletableFuture().cancel(true));
+        return stage;
+    }
+
+    /**
+     * Client errors such as 404 mean that the API is healthy, everything else counts as a failure of the API.
+     */
+    private static boolean isFailure(Throwable error) {
+        return error != null
+                && !(error instanceof KontentErrorException && !((KontentErrorException) error).shouldRetry());
+    }
+
+    private CompletionStage<HttpTransportResponse> retryIfPossible(
+            HttpTransportRequest request, RequestContext context, int retryTurn, long previousDelay, Throwable error) {
+        final CompletableFuture<HttpTransportResponse> result = new CompletableFuture<>();
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+
+        // Don't retry when when not KontentException or not set to retry
+        if (!(cause instanceof KontentException) || !((KontentException) cause).shouldRetry()) {
+            result.completeExceptionally(cause);
+            return result;
+        }
+
+        final int attempt = retryTurn + 1;
+        if (attempt > deliveryOptions.getRetryAttempts()) {
+            KontentRetryException ex = new KontentRetryException(deliveryOptions.getRetryAttempts());
+            ex.initCause(cause);
+            result.completeExceptionally(ex);
+            return result;
+        }
+
+        if (!retryBudget.tryAcquire()) {
+            log.warn("Retry budget exhausted, not reattempting request to {}", request.getUrl());
+            result.completeExceptionally(cause);
+            return result;
+        }
+
+        final Duration retryAfter = getRetryAfter(cause);
+        if (retryAfter != null && retryAfter.compareTo(deliveryOptions.getRetryMaxDelay()) > 0) {
+            log.warn("Kontent.ai API asked to retry after {}ms which exceeds the retry max delay, not reattempting",
+                    retryAfter.toMillis());
+            result.completeExceptionally(cause);
+            return result;
+        }
+
+        final long wait = retryAfter != null
+                ? Math.max(retryAfter.toMillis(), nextRetryDelay(previousDelay))
+                : nextRetryDelay(previousDelay);
+        if (TimeUnit.MILLISECONDS.toNanos(wait) >= context.remainingNanos()) {
+            log.warn("Retry in {}ms would exceed the deadline of the request, not reattempting", wait);
+            result.completeExceptionally(cause);
+            return result;
+        }
+
+        log.info("Reattempting request after {}ms (re-attempt {} out of max {})",
+                wait, attempt, deliveryOptions.getRetryAttempts());
+        if (metricsListener != null) {
+            metricsListener.onRetry(endpointOf(request.getUrl()), attempt);
+        }
+
+        final TraceSpan backoffSpan = context.startChildSpan(SPAN_RETRY_BACKOFF);
+        backoffSpan.setAttribute("delay_ms", wait);
+        final FlightRecorderEvents.Retry event = new FlightRecorderEvents.Retry();
+        event.begin();
+        SCHEDULER.schedule(() -> {
+            backoffSpan.end(null);
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpointOf(request.getUrl());
+                event.attempt = attempt;
+                event.reason = cause.toString();
+                event.commit();
+            }
+            retrieveFromKontent(request, context, attempt, wait)
+                    .whenComplete((response, retryError) -> {
+                        if (retryError != null) {
+                            result.completeExceptionally(retryError);
+                        } else {
+                            result.complete(response);
+                        }
+                    });
+        }, wait, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private static Duration getRetryAfter(Throwable error) {
+        if (error instanceof KontentErrorException) {
+            return ((KontentErrorException) error).getRetryAfter();
+        } else if (error instanceof KontentIOException) {
+            return ((KontentIOException) error).getRetryAfter();
+        }
+        return null;
+    }
+
+    /**
+     * Parses the {@code Retry-After} header which holds either a number of seconds or an HTTP date.
+     */
+    private static Duration parseRetryAfter(HttpTransportResponse response) {
+        final String retryAfter = response.getHeader(HEADER_RETRY_AFTER);
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                final ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Duration.ofMillis(
+                        Math.max(0, date.toInstant().toEpochMilli() - java.lang.System.currentTimeMillis()));
+            } catch (DateTimeParseException ex) {
+                log.info("Ignoring unparsable {} header: {}", HEADER_RETRY_AFTER, retryAfter);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Computes the delay before the next retry using decorrelated jitter - a random value between the initial delay
+     * and three times the previous delay, capped at the max delay.
+     */
+    private long nextRetryDelay(long previousDelay) {
+        final long base = deliveryOptions.getRetryInitialDelay().toMillis();
+        final long cap = deliveryOptions.getRetryMaxDelay().toMillis();
+        final long upperBound = Math.max(base, Math.min(cap, previousDelay * 3));
+        if (upperBound <= base) {
+            return base;
+        }
+        return ThreadLocalRandom.current().nextLong(base, upperBound + 1);
+    }
+
+    private HttpTransportResponse handleErrorIfNecessary(HttpTransportRequest request, HttpTransportResponse response)
+            throws KontentIOException, KontentErrorException {
+        final int status = response.getStatusCode();
         if (RETRY_STATUSES.contains(status)) {
             log.error("Kontent.ai API retry status returned: {} (one of {})", status, RETRY_STATUSES.toString());
-            try {
-                KontentError kontentError = objectMapper.readValue(response.body().bytes(), KontentError.class);
-                throw new KontentErrorException(kontentError, true);
+            final Duration retryAfter = parseRetryAfter(response);
+            if (retryAfter != null) {
+                // Hold back all requests of this client, not just the retry of this one
+                rateLimiter.pause(retryAfter.toMillis());
+            }
+            KontentError kontentError;
+            try (InputStream body = response.getBody()) {
+                kontentError = objectMapper.readValue(body, KontentError.class);
             } catch (IOException e) {
                 log.error("IOException when trying to parse the error response body: {}", e.toString());
-                throw new KontentIOException(String.format("Kontent.ai API retry status returned: %d (one of %s)", status, RETRY_STATUSES.toString()), true);
+                KontentIOException exception = new KontentIOException(String.format("Kontent.ai API retry status returned: %d (one of %s)", status, RETRY_STATUSES.toString()), true);
+                exception.setRetryAfter(retryAfter);
+                throw exception;
             }
+            KontentErrorException exception = new KontentErrorException(kontentError, true);
+            exception.setRetryAfter(retryAfter);
+            throw exception;
         } else if (status >= 500) {
             log.error("Kontent.ai API server error, status: {}", status);
-            log.info("Request URL: ", response.request().url().toString());
+            log.info("Request URL: {}", request.getUrl());
+            closeQuietly(response);
             String message =
                     String.format(
                             "Unknown error with Kontent.ai API.  Kontent.ai is likely suffering site issues.  Status: %s",
@@ -552,8 +1848,8 @@ public class DeliveryClient {
             throw new CompletionException(new KontentIOException(message, false));
         } else if (status >= 400) {
             log.error("Kontent.ai API server error, status: {}", status);
-            try {
-                KontentError kontentError = objectMapper.readValue(response.body().bytes(), KontentError.class);
+            try (InputStream body = response.getBody()) {
+                KontentError kontentError = objectMapper.readValue(body, KontentError.class);
                 throw new CompletionException(new KontentErrorException(kontentError, false));
             } catch (IOException e) {
                 log.error("IOException connecting to Kontent.ai: {}", e.toString());
@@ -564,36 +1860,22 @@ public class DeliveryClient {
         return response;
     }
 
-    private CompletionStage<Response> send(Request request) {
-        final CompletableFuture<Response> future = new CompletableFuture<>();
-        httpClient.newCall(request).enqueue(new Callback() {
-            @Override
-            public void onFailure(Call call, IOException e) {
-                log.error("Request call failed with IO Exception: {}", e.getMessage());
-                future.completeExceptionally(e);
-            }
-
-            @Override
-            public void onResponse(Call call, Response response) throws IOException {
-                log.debug("Request call succeeded with response message:", response.message());
-                future.complete(response);
-            }
-        });
-        return future;
+    private HttpTransportRequest buildNewRequest(String url, boolean waitForLoadingNewContent) {
+        return buildNewRequest(HttpTransportRequest.GET, url, waitForLoadingNewContent);
     }
 
-    private Request buildNewRequest(String url) {
-        Request.Builder requestBuilder = new Request.Builder().url(url);
-        requestBuilder.header(HEADER_ACCEPT, "application/json");
-        requestBuilder.header(HEADER_X_KC_SDK_ID, sdkId);
+    private HttpTransportRequest buildNewRequest(String method, String url, boolean waitForLoadingNewContent) {
+        final List<Header> headers = new ArrayList<>();
+        headers.add(new Header(HEADER_ACCEPT, "application/json"));
+        headers.add(new Header(HEADER_X_KC_SDK_ID, sdkId));
 
         if (deliveryOptions.getProductionApiKey() != null) {
-            requestBuilder.header(HEADER_AUTHORIZATION, String.format("Bearer %s", deliveryOptions.getProductionApiKey()));
+            headers.add(new Header(HEADER_AUTHORIZATION, String.format("Bearer %s", deliveryOptions.getProductionApiKey())));
         } else if (deliveryOptions.isUsePreviewApi()) {
-            requestBuilder.header(HEADER_AUTHORIZATION, String.format("Bearer %s", deliveryOptions.getPreviewApiKey()));
+            headers.add(new Header(HEADER_AUTHORIZATION, String.format("Bearer %s", deliveryOptions.getPreviewApiKey())));
         }
-        if (deliveryOptions.isWaitForLoadingNewContent()) {
-            requestBuilder.header(HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT, "true");
+        if (waitForLoadingNewContent) {
+            headers.add(new Header(HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT, "true"));
         }
 
         if (deliveryOptions.getCustomHeaders() != null){
@@ -601,41 +1883,151 @@ public class DeliveryClient {
                 if (Arrays.stream(RESERVED_HEADERS).anyMatch(header.getName()::equals)) {
                     log.info("Custom header with name {} will be ignored", header.getName());
                 } else {
-                    requestBuilder.header(header.getName(), header.getValue());
+                    headers.add(header);
                 }
             }
         }
 
-        return requestBuilder.build();
+        return new HttpTransportRequest(method, url, headers);
 
     }
 
+    /**
+     * Creates the URL of the API call.  The parameters are brought to the canonical form of a {@link Query}, so that
+     * the same parameters in any order share the cache entries and the in-flight requests.
+     */
     private String createUrl(final String apiCall, final List<NameValuePair> queryParams) {
+        return createUrl(apiCall, Query.of(queryParams));
+    }
 
-        final String queryStr = Optional.ofNullable(queryParams)
-                .filter(params -> !params.isEmpty())
-                .map(params -> params.stream()
-                        .map(pair -> pair.getValue() != null
-                                ? String.format("%s=%s", pair.getName(), pair.getValue())
-                                : pair.getName())
-                        .collect(Collectors.joining("&")))
-                .map("?"::concat)
-                .orElse("");
-
+    private String createUrl(final String apiCall, final Query query) {
         final String endpoint = deliveryOptions.isUsePreviewApi() ?
                 deliveryOptions.getPreviewEndpoint() : deliveryOptions.getProductionEndpoint();
 
-        return String.format("%s/%s/%s%s", endpoint, deliveryOptions.getProjectId(), apiCall, queryStr);
+        // The query string is encoded once, when the query is built
+        final StringBuilder url = new StringBuilder(endpoint)
+                .append('/').append(deliveryOptions.getProjectId())
+                .append('/').append(apiCall);
+        if (!query.isEmpty()) {
+            url.append('?').append(query.getQueryString());
+        }
+        return url.toString();
     }
 
-    private Response logResponseInfo(Response response) {
-        log.info("{} - {}", response.message(), response.request().url());
-        log.debug("{} - {}:\n{}", response.code(), response.request().url(), response.body());
-        return response;
+    private HttpTransportResponse recordResponse(HttpTransportRequest request, HttpTransportResponse response,
+                                                 long start, FlightRecorderEvents.HttpRequest event) {
+        log.debug("{} - {}", response.getStatusCode(), request.getUrl());
+        final boolean recorded = event.isEnabled();
+        if (metricsListener == null && !recorded) {
+            return response;
+        }
+        final String endpoint = endpointOf(request.getUrl());
+        if (metricsListener != null) {
+            metricsListener.onRequest(endpoint, response.getStatusCode(), java.lang.System.nanoTime() - start);
+        }
+        return new HttpTransportResponse(
+                response.getStatusCode(),
+                response.getHeaders(),
+                new CountingInputStream(response.getBody(), bytes -> {
+                    if (metricsListener != null) {
+                        metricsListener.onResponseBytes(endpoint, bytes);
+                    }
+                    if (recorded) {
+                        commitHttpRequestEvent(event, request, response.getStatusCode(), bytes);
+                    }
+                }));
     }
 
-    private <T> CompletionStage<T> convertAndPutInCache(String url, Class<T> tClass, JsonNode jsonNode) throws JsonProcessingException {
-        final T t = objectMapper.treeToValue(jsonNode, tClass);
+    /**
+     * Returns the API path of the url with the codenames replaced by {@code *}, e.g. {@code items/*}.
+     */
+    private String endpointOf(String url) {
+        final String projectPath = "/" + deliveryOptions.getProjectId() + "/";
+        final int projectStart = url.indexOf(projectPath);
+        if (projectStart < 0) {
+            return url;
+        }
+        final int queryStart = url.indexOf('?', projectStart);
+        final String path = url.substring(
+                projectStart + projectPath.length(), queryStart < 0 ? url.length() : queryStart);
+        if (SYNC_INIT.equals(path)) {
+            return path;
+        }
+        final String[] segments = path.split("/");
+        for (int i = 1; i < segments.length; i += 2) {
+            segments[i] = "*";
+        }
+        return String.join("/", segments);
+    }
+
+    private CompletionStage<CacheEntry> getCacheEntry(String url, RequestContext context) {
+        final boolean measured = metricsListener != null && cacheManager != NO_CACHE_MANAGER;
+        final TraceSpan span = context.startChildSpan(SPAN_CACHE_GET);
+        final FlightRecorderEvents.CacheGet event = new FlightRecorderEvents.CacheGet();
+        final boolean recorded = event.isEnabled() && cacheManager != NO_CACHE_MANAGER;
+        if (!measured && !recorded && span == TraceSpan.NOOP) {
+            return cacheManager.getEntry(url);
+        }
+        final long start = java.lang.System.nanoTime();
+        event.begin();
+        return cacheManager.getEntry(url).whenComplete((cacheEntry, error) -> {
+            final boolean hit = cacheEntry != null && !cacheEntry.isExpired();
+            if (measured) {
+                metricsListener.onCacheGet(hit, java.lang.System.nanoTime() - start);
+            }
+            if (recorded) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.endpoint = endpointOf(url);
+                    event.hit = hit;
+                    event.commit();
+                }
+            }
+            span.setAttribute("hit", hit);
+            span.end(unwrap(error));
+        });
+    }
+
+    private void processRichText(List<ContentItem> items, RequestContext context) {
+        final TraceSpan span = context.startChildSpan(SPAN_RICH_TEXT);
+        final long start = metricsListener != null ? java.lang.System.nanoTime() : 0;
+        try {
+            createRichTextElementConverter().process(items);
+        } catch (RuntimeException e) {
+            span.end(e);
+            throw e;
+        }
+        if (metricsListener != null) {
+            metricsListener.onRichTextProcessing(java.lang.System.nanoTime() - start);
+        }
+        span.end(null);
+    }
+
+    /**
+     * Ends the span once the stage completes.
+     */
+    private static <T> CompletionStage<T> endWhenComplete(TraceSpan span, CompletionStage<T> stage) {
+        if (span == TraceSpan.NOOP) {
+            return stage;
+        }
+        return stage.whenComplete((t, error) -> span.end(unwrap(error)));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private <T> CompletionStage<T> convertAndPutInCache(
+            String url, Class<T> tClass, CacheEntry cacheEntry, RequestContext context) throws IOException {
+        final TraceSpan bindSpan = context.startChildSpan(SPAN_BIND);
+        final T t;
+        try {
+            t = reader(tClass).readValue(cacheEntry.getJsonNode());
+        } catch (IOException e) {
+            bindSpan.end(e);
+            throw e;
+        }
+        bindSpan.end(null);
         final List<ContentItem> containedContentItems;
         if (t instanceof ContentItemResponse) {
             containedContentItems = Collections.singletonList(((ContentItemResponse) t).getItem());
@@ -644,7 +2036,31 @@ public class DeliveryClient {
         } else {
             containedContentItems = Collections.emptyList();
         }
-        return cacheManager.put(url, jsonNode, containedContentItems)
+        final boolean measured = metricsListener != null && cacheManager != NO_CACHE_MANAGER;
+        final TraceSpan putSpan = context.startChildSpan(SPAN_CACHE_PUT);
+        final FlightRecorderEvents.CachePut event = new FlightRecorderEvents.CachePut();
+        final boolean recorded = event.isEnabled() && cacheManager != NO_CACHE_MANAGER;
+        if (!measured && !recorded && putSpan == TraceSpan.NOOP) {
+            final CompletionStage<?> put = cacheManager.put(url, cacheEntry, containedContentItems);
+            return put.thenApply((result) -> t);
+        }
+        final long start = java.lang.System.nanoTime();
+        event.begin();
+        final CompletionStage<?> put = cacheManager.put(url, cacheEntry, containedContentItems);
+        return put
+                .whenComplete((result, error) -> {
+                    if (measured) {
+                        metricsListener.onCachePut(java.lang.System.nanoTime() - start);
+                    }
+                    if (recorded) {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.endpoint = endpointOf(url);
+                            event.commit();
+                        }
+                    }
+                    putSpan.end(unwrap(error));
+                })
                 .thenApply((result) -> t);
     }
 
@@ -663,6 +2079,16 @@ public class DeliveryClient {
         return params;
     }
 
+    private Query addTypeParameterIfNecessary(Class<?> tClass, Query query) {
+        if (query.getParameterValue(Query.SYSTEM_TYPE) == null) {
+            String contentType = stronglyTypedContentItemConverter.getContentType(tClass);
+            if (contentType != null) {
+                return query.withContentType(contentType);
+            }
+        }
+        return query;
+    }
+
     private void reconfigureDeserializer() {
         objectMapper = new ObjectMapper()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -683,6 +2109,81 @@ public class DeliveryClient {
                 stronglyTypedContentItemConverter);
     }
 
+    /**
+     * Returns the number of requests which were actually sent to Kontent.ai after a cache miss (not counting retries).
+     *
+     * @return the number of origin requests made by this client
+     */
+    @SuppressWarnings("WeakerAccess")
+    public long getOriginRequestCount() {
+        return originRequests.get();
+    }
+
+    /**
+     * Returns the number of requests which were served by joining an identical request already in flight, i.e. the
+     * number of origin requests saved by request coalescing.
+     *
+     * @return the number of coalesced requests
+     */
+    @SuppressWarnings("WeakerAccess")
+    public long getCoalescedRequestCount() {
+        return coalescedRequests.get();
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "kontent-delivery-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Returns the number of requests waiting for a free slot of the http client, i.e. over
+     * {@link DeliveryOptions#getMaxConcurrentRequests()} or {@link DeliveryOptions#getMaxConcurrentRequestsPerHost()}.
+     * Useful for capacity planning.
+     *
+     * @return the number of queued requests
+     */
+    @SuppressWarnings("WeakerAccess")
+    public int getQueuedRequestCount() {
+        return httpTransport.getQueuedRequestCount();
+    }
+
+    /**
+     * Returns the number of requests currently being executed by the http client.
+     *
+     * @return the number of running requests
+     */
+    @SuppressWarnings("WeakerAccess")
+    public int getRunningRequestCount() {
+        return httpTransport.getRunningRequestCount();
+    }
+
+    /**
+     * Returns the number of hedged requests sent because the original request was slower than the latency percentile
+     * configured by {@link DeliveryOptions#setHedging(HedgingOptions)}.
+     *
+     * @return the number of hedged requests
+     */
+    @SuppressWarnings("WeakerAccess")
+    public long getHedgedRequestCount() {
+        return hedgedRequests.get();
+    }
+
+    /**
+     * Returns the current state of the circuit breaker.
+     *
+     * @return the circuit breaker state, always {@link CircuitBreakerState#CLOSED} when the circuit breaker is not
+     *         enabled via {@link DeliveryOptions#setCircuitBreaker(CircuitBreakerOptions)}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public CircuitBreakerState getCircuitBreakerState() {
+        return circuitBreaker != null ? circuitBreaker.getState() : CircuitBreakerState.CLOSED;
+    }
+
     DeliveryOptions getDeliveryOptions() {
         return deliveryOptions;
     }
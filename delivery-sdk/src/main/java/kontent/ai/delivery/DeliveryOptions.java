@@ -25,9 +25,12 @@
 package kontent.ai.delivery;
 
 import lombok.Builder;
+import okhttp3.OkHttpClient;
 
 import java.net.Proxy;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Keeps settings which are provided by customer or have default values, used in {@link DeliveryClient}.
@@ -150,6 +153,76 @@ public class DeliveryOptions {
     @Builder.Default
     int retryAttempts = 3;
 
+    /**
+     * Sets the base delay before a retry.  Delays between retries are computed with decorrelated jitter: each delay
+     * is picked at random between this base delay and three times the previous delay, capped at
+     * {@link #getRetryMaxDelay()}.  Defaults to 100 milliseconds.
+     *
+     * @param retryInitialDelay New value for this DeliveryOptions instance.
+     * @return                  The base delay before a retry configured in this DeliveryOptions instance.
+     */
+    @Builder.Default
+    Duration retryInitialDelay = Duration.ofMillis(100);
+
+    /**
+     * Sets the maximum delay between two retries of a request.  Defaults to 10 seconds.
+     *
+     * @param retryMaxDelay New value for this DeliveryOptions instance.
+     * @return              The maximum delay between retries configured in this DeliveryOptions instance.
+     */
+    @Builder.Default
+    Duration retryMaxDelay = Duration.ofSeconds(10);
+
+    /**
+     * Sets the maximum share of requests which may be retried by the client, measured over the last 10 seconds.  For
+     * example 0.2 allows one retry for every five requests.  Once the budget is exhausted, failed requests are not
+     * retried and fail with their original error, so that retries cannot amplify an outage.  Defaults to 0.2.
+     *
+     * @param retryBudgetRatio  New value for this DeliveryOptions instance.
+     * @return                  The share of requests which may be retried configured in this DeliveryOptions instance.
+     */
+    @Builder.Default
+    double retryBudgetRatio = 0.2;
+
+    /**
+     * Sets the number of retries per second which are always allowed by the retry budget regardless of
+     * {@link #getRetryBudgetRatio()}, so that a client with little traffic can still retry.  Defaults to 10.
+     *
+     * @param retryBudgetMinRetriesPerSecond    New value for this DeliveryOptions instance.
+     * @return                                  The number of retries per second always allowed in this
+     *                                          DeliveryOptions instance.
+     */
+    @Builder.Default
+    int retryBudgetMinRetriesPerSecond = 10;
+
+    /**
+     * Sets the maximum number of requests per second this client sends to the Kontent.ai API for the project.
+     * Requests over the limit are queued without blocking the calling thread and sent as soon as the limit allows.
+     * Defaults to 0, meaning the rate is not limited.
+     * <p>
+     * Independently of this setting, when the API responds with a {@code Retry-After} header, the client holds back
+     * all requests until the requested time elapses.
+     *
+     * @param maxRequestsPerSecond  New value for this DeliveryOptions instance.
+     * @return                      The maximum number of requests per second configured in this DeliveryOptions
+     *                              instance, 0 when unlimited.
+     * @see                         <a href="https://kontent.ai/learn/reference/delivery-api#section/API-limitations">
+     *                              Kontent.ai API reference - API limitations</a>
+     */
+    @Builder.Default
+    double maxRequestsPerSecond = 0;
+
+    /**
+     * Sets how many pages {@link DeliveryClient#getAllItems(Class, List)} fetches concurrently once the total count
+     * of the items is known.  Defaults to 4.
+     *
+     * @param maxParallelPageRequests   New value for this DeliveryOptions instance.
+     * @return                          The maximum number of pages fetched concurrently configured in this
+     *                                  DeliveryOptions instance.
+     */
+    @Builder.Default
+    int maxParallelPageRequests = 4;
+
     /**
      * Sets the proxy server used by the http client.  See {@link Proxy}.
      *
@@ -159,6 +232,196 @@ public class DeliveryOptions {
     @Builder.Default
     Proxy proxyServer = null;
 
+    /**
+     * Sets the maximum number of requests the http client executes concurrently.  Requests above this limit are
+     * queued in memory.  Defaults to 64.
+     *
+     * @param maxConcurrentRequests New value for this DeliveryOptions instance.
+     * @return                      The maximum number of concurrent requests configured in this DeliveryOptions
+     *                              instance.
+     */
+    @Builder.Default
+    int maxConcurrentRequests = 64;
+
+    /**
+     * Sets the maximum number of requests the http client executes concurrently against a single host.  As all
+     * requests of a client go to the same Delivery API host, this defaults to 64 - the same as
+     * {@link #getMaxConcurrentRequests()} - instead of the OkHttp default of 5.
+     *
+     * @param maxConcurrentRequestsPerHost  New value for this DeliveryOptions instance.
+     * @return                              The maximum number of concurrent requests per host configured in this
+     *                                      DeliveryOptions instance.
+     */
+    @Builder.Default
+    int maxConcurrentRequestsPerHost = 64;
+
+    /**
+     * Sets the maximum number of idle connections kept in the connection pool.  Defaults to 5.
+     *
+     * @param maxIdleConnections    New value for this DeliveryOptions instance.
+     * @return                      The maximum number of idle connections configured in this DeliveryOptions
+     *                              instance.
+     */
+    @Builder.Default
+    int maxIdleConnections = 5;
+
+    /**
+     * Sets how long an idle connection is kept in the connection pool.  Defaults to 5 minutes.
+     *
+     * @param connectionKeepAlive   New value for this DeliveryOptions instance.
+     * @return                      The keep-alive duration of idle connections configured in this DeliveryOptions
+     *                              instance.
+     */
+    @Builder.Default
+    Duration connectionKeepAlive = Duration.ofMinutes(5);
+
+    /**
+     * Sets the connect timeout of a request.  {@link Duration#ZERO} means no timeout.  Defaults to 10 seconds.
+     *
+     * @param connectTimeout    New value for this DeliveryOptions instance.
+     * @return                  The connect timeout configured in this DeliveryOptions instance.
+     */
+    @Builder.Default
+    Duration connectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Sets the read timeout of a request - the maximum time between two reads of the response.
+     * {@link Duration#ZERO} means no timeout.  Defaults to 10 seconds.
+     *
+     * @param readTimeout   New value for this DeliveryOptions instance.
+     * @return              The read timeout configured in this DeliveryOptions instance.
+     */
+    @Builder.Default
+    Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Sets the timeout of a whole request attempt, from resolving the host to reading the whole response.  Each retry
+     * attempt gets its own timeout.  {@link Duration#ZERO} means no timeout.  Defaults to no timeout.
+     *
+     * @param callTimeout   New value for this DeliveryOptions instance.
+     * @return              The call timeout configured in this DeliveryOptions instance.
+     */
+    @Builder.Default
+    Duration callTimeout = Duration.ZERO;
+
+    /**
+     * Sets the {@link OkHttpClient} used to execute requests, e.g. to share the connection pool and dispatcher with
+     * the rest of the application or to add interceptors.  When set, it is used as is and {@link #getProxyServer()},
+     * the concurrency limits, the connection pool settings and the timeouts of this DeliveryOptions instance are
+     * ignored.
+     *
+     * @param httpClient    The {@link OkHttpClient} to use, or null to let the client create its own.
+     * @return              The {@link OkHttpClient} configured for this instance, or null.
+     */
+    @Builder.Default
+    OkHttpClient httpClient = null;
+
+    /**
+     * Sets the {@link HttpTransport} used to send requests to the Delivery API, e.g. {@link JdkHttpTransport} or an
+     * instrumented transport of your own.  When set, {@link #getHttpClient()} is ignored and the transport is
+     * responsible for its own proxy, concurrency limits, connection pool and timeouts.  Defaults to an
+     * {@link OkHttpTransport} configured by this DeliveryOptions instance.
+     *
+     * @param httpTransport The {@link HttpTransport} to use, or null to use OkHttp.
+     * @return              The {@link HttpTransport} configured for this instance, or null.
+     */
+    @Builder.Default
+    HttpTransport httpTransport = null;
+
+    /**
+     * Enables the circuit breaker which makes requests fail fast with {@link KontentCircuitBreakerOpenException}
+     * while the Kontent.ai API keeps failing or responding too slowly, instead of running their whole retry schedule.
+     * Defaults to null, i.e. the circuit breaker is disabled.
+     *
+     * @param circuitBreaker    The {@link CircuitBreakerOptions} to use, or null to disable the circuit breaker.
+     * @return                  The {@link CircuitBreakerOptions} configured for this instance, or null.
+     * @see                     CircuitBreakerOptions
+     */
+    @Builder.Default
+    CircuitBreakerOptions circuitBreaker = null;
+
+    /**
+     * Enables request hedging - when a request is slower than a percentile of the recent response times, an identical
+     * request is sent and the first response is used.  Defaults to null, i.e. hedging is disabled.
+     *
+     * @param hedging   The {@link HedgingOptions} to use, or null to disable hedging.
+     * @return          The {@link HedgingOptions} configured for this instance, or null.
+     * @see             HedgingOptions
+     */
+    @Builder.Default
+    HedgingOptions hedging = null;
+
+    /**
+     * Enables batching of the requests for single content items - concurrent requests with the same query
+     * parameters are merged into a single listing request.  Defaults to null, i.e. batching is disabled.
+     *
+     * @param itemBatching  The {@link ItemBatchingOptions} to use, or null to disable batching.
+     * @return              The {@link ItemBatchingOptions} configured for this instance, or null.
+     * @see                 ItemBatchingOptions
+     */
+    @Builder.Default
+    ItemBatchingOptions itemBatching = null;
+
+    /**
+     * Enables loading of the linked items missing in a response, because they are deeper than the requested
+     * {@link DeliveryParameterBuilder#linkedItemsDepth(Integer)}, by follow-up requests.  Defaults to null, i.e. the
+     * missing linked items resolve to null.
+     *
+     * @param linkedItemsHydration  The {@link LinkedItemsHydrationOptions} to use, or null to disable hydration.
+     * @return                      The {@link LinkedItemsHydrationOptions} configured for this instance, or null.
+     * @see                         LinkedItemsHydrationOptions
+     */
+    @Builder.Default
+    LinkedItemsHydrationOptions linkedItemsHydration = null;
+
+    /**
+     * Sets the listener receiving the measurements of the client - request durations per endpoint, response sizes,
+     * retries, cache lookups and puts, strongly typed conversion and rich text resolution.  Defaults to null, i.e. no
+     * measurements are taken.
+     *
+     * @param metricsListener   The {@link MetricsListener} to use, or null.
+     * @return                  The {@link MetricsListener} configured for this instance, or null.
+     * @see                     InMemoryMetricsListener
+     */
+    @Builder.Default
+    MetricsListener metricsListener = null;
+
+    /**
+     * Sets the listener starting a span per call of the client, with child spans for the cache lookup, each HTTP
+     * attempt, the retry delays, JSON binding, the cache put and rich text resolution.  Defaults to null, i.e. no
+     * tracing.
+     *
+     * @param tracingListener   The {@link TracingListener} to use, or null.
+     * @return                  The {@link TracingListener} configured for this instance, or null.
+     * @see                     RequestOptions#setTraceContext(Object)
+     */
+    @Builder.Default
+    TracingListener tracingListener = null;
+
+    /**
+     * Sets the {@link Executor} running the work after a response is received - parsing and binding the response,
+     * strongly typed conversion and rich text resolution - so that it does not hold up the threads of the
+     * {@link HttpTransport}.  Defaults to null, i.e. {@link java.util.concurrent.ForkJoinPool#commonPool()}, or a
+     * virtual thread per task on Java 21+.
+     *
+     * @param executor  The {@link Executor} to use, or null for the default.
+     * @return          The {@link Executor} configured for this instance, or null.
+     */
+    @Builder.Default
+    Executor executor = null;
+
+    /**
+     * Sets the {@link Executor} running the blocking calls of a {@link CacheManager} set via
+     * {@link DeliveryClient#setCacheManager(CacheManager)} and of a {@link ContinuationTokenStore}, so that they block
+     * neither the {@link #getExecutor()} nor the common fork-join pool.  Defaults to null, i.e. a shared pool of at
+     * most 64 daemon threads, or a virtual thread per task on Java 21+.
+     *
+     * @param blockingExecutor  The {@link Executor} to use, or null for the default.
+     * @return                  The {@link Executor} configured for this instance, or null.
+     */
+    @Builder.Default
+    Executor blockingExecutor = null;
+
     /**
      * Include custom request headers. Headers with name {@link DeliveryClient#HEADER_ACCEPT}, {@link DeliveryClient#HEADER_AUTHORIZATION}, {@link DeliveryClient#HEADER_X_KC_SDK_ID}, {@link DeliveryClient#HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT} will be ignored.
      */
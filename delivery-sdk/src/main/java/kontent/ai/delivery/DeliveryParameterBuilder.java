@@ -840,4 +840,15 @@ public class DeliveryParameterBuilder {
     public List<NameValuePair> build() {
         return nameValuePairs;
     }
+
+    /**
+     * Builds an immutable {@link Query} to pass into the {@link DeliveryClient} from this
+     * DeliveryParametersBuilder.  The query string is canonicalized and encoded once, so the query can be kept in a
+     * constant and reused.
+     *
+     * @return A Query of the API query parameters.
+     */
+    public Query buildQuery() {
+        return Query.of(nameValuePairs);
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.List;
+
+/**
+ * A page of the items feed - the items and the continuation token of the next page.
+ *
+ * @param <T> the type of the content items
+ */
+class FeedPage<T> {
+
+    private final List<T> items;
+    private final String continuationToken;
+
+    FeedPage(List<T> items, String continuationToken) {
+        this.items = items;
+        this.continuationToken = continuationToken;
+    }
+
+    List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the token of the next page, sent in the {@code X-Continuation} header.
+     *
+     * @return the token of the next page, or null when this is the last page
+     */
+    String getContinuationToken() {
+        return continuationToken;
+    }
+
+    boolean hasNext() {
+        return continuationToken != null && !continuationToken.isEmpty();
+    }
+}
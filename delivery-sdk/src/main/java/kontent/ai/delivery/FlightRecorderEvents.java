@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+/**
+ * JDK Flight Recorder events of the {@link DeliveryClient}.
+ * <p>
+ * This is the Java 8 version of the class, in which the events do nothing.  On Java 11+, it is replaced by a version
+ * with the events extending {@code jdk.jfr.Event} (the SDK jar is a multi-release jar).  The events have the same
+ * fields and methods in both versions, and creating an event which is not recorded costs next to nothing.
+ */
+final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Returns whether the events are recorded by the JDK Flight Recorder on the current Java runtime.
+     *
+     * @return true on Java 11 and newer
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Counterpart of the methods of {@code jdk.jfr.Event}.
+     */
+    static class Event {
+
+        void begin() {
+        }
+
+        void end() {
+        }
+
+        boolean isEnabled() {
+            return false;
+        }
+
+        boolean shouldCommit() {
+            return false;
+        }
+
+        void commit() {
+        }
+    }
+
+    static class HttpRequest extends Event {
+        String method;
+        String endpoint;
+        int status;
+        long bytes;
+    }
+
+    static class CacheGet extends Event {
+        String endpoint;
+        boolean hit;
+    }
+
+    static class CachePut extends Event {
+        String endpoint;
+    }
+
+    static class Retry extends Event {
+        String endpoint;
+        int attempt;
+        String reason;
+    }
+
+    static class Conversion extends Event {
+        Class<?> targetClass;
+        int itemCount;
+    }
+}
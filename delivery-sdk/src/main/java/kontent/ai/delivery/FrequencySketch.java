@@ -0,0 +1,175 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.Collection;
+
+/**
+ * Estimates how often keys have been used recently - a count-min sketch of 4-bit counters.
+ * <p>
+ * Each key is counted in four counters picked by different hashes, and its frequency is the minimum of them, so
+ * collisions can only overestimate it.  Once the number of increments reaches ten times the capacity, all the
+ * counters are halved, so that the estimate follows the recent usage rather than the whole history.
+ * <p>
+ * Not thread-safe, the caller synchronizes the access.
+ */
+class FrequencySketch {
+
+    static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    FrequencySketch() {
+        table = new long[MIN_CAPACITY];
+        tableMask = MIN_CAPACITY - 1;
+        sampleSize = 10 * MIN_CAPACITY;
+    }
+
+    /**
+     * Grows the sketch to count about the given number of keys accurately.  The frequencies of the given keys are
+     * carried over to the grown sketch, the frequencies of the other keys are forgotten.
+     *
+     * @param capacity the expected number of keys
+     * @param keys     the keys whose frequencies are kept, e.g. the cached ones
+     */
+    void ensureCapacity(long capacity, Collection<?> keys) {
+        final int size = ceilingPowerOfTwo((int) Math.max(MIN_CAPACITY, Math.min(capacity, MAX_CAPACITY)));
+        if (table.length >= size) {
+            return;
+        }
+        final Object[] keptKeys = keys.toArray();
+        final int[] frequencies = new int[keptKeys.length];
+        for (int i = 0; i < keptKeys.length; i++) {
+            frequencies[i] = frequency(keptKeys[i]);
+        }
+        table = new long[size];
+        tableMask = size - 1;
+        sampleSize = 10 * size;
+        additions = 0;
+        for (int i = 0; i < keptKeys.length; i++) {
+            if (frequencies[i] > 0) {
+                raise(keptKeys[i], frequencies[i]);
+                additions += frequencies[i];
+            }
+        }
+        if (additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Returns the estimated number of recent uses of the key.
+     *
+     * @return the frequency, between 0 and {@link #MAX_FREQUENCY}
+     */
+    int frequency(Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final long counterHash = counterHash(hash, i);
+            final int shift = counterShift(counterHash);
+            frequency = Math.min(frequency, (int) ((table[counterIndex(counterHash)] >>> shift) & 0xfL));
+        }
+        return frequency;
+    }
+
+    /**
+     * Counts a use of the key.
+     */
+    void increment(Object key) {
+        final int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final long counterHash = counterHash(hash, i);
+            final int index = counterIndex(counterHash);
+            final int shift = counterShift(counterHash);
+            if (((table[index] >>> shift) & 0xfL) < MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Raises the counters of the key to at least the given frequency.
+     */
+    private void raise(Object key, int frequency) {
+        final int hash = spread(key.hashCode());
+        for (int i = 0; i < SEEDS.length; i++) {
+            final long counterHash = counterHash(hash, i);
+            final int index = counterIndex(counterHash);
+            final int shift = counterShift(counterHash);
+            if (((table[index] >>> shift) & 0xfL) < frequency) {
+                table[index] = (table[index] & ~(0xfL << shift)) | ((long) frequency << shift);
+            }
+        }
+    }
+
+    /**
+     * Halves all the counters.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private long counterHash(int hash, int i) {
+        long counterHash = (hash + SEEDS[i]) * SEEDS[i];
+        return counterHash ^ (counterHash >>> 29);
+    }
+
+    private int counterIndex(long counterHash) {
+        return (int) counterHash & tableMask;
+    }
+
+    private static int counterShift(long counterHash) {
+        // The 16 counters of a long are picked by bits above the largest index
+        return (int) ((counterHash >>> 58) & 0xfL) << 2;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Races the attempts of a hedged request.  The first attempt which receives a response wins and the other attempts are
+ * cancelled; the request fails only when all of its attempts fail.  Cancelling the result cancels all the attempts.
+ */
+class HedgedRequest {
+
+    private final CompletableFuture<HttpTransportResponse> result = new CompletableFuture<>();
+    private final List<CompletableFuture<HttpTransportResponse>> attempts = new ArrayList<>(2);
+    private int pendingAttempts = 0;
+    private Throwable firstError;
+
+    HedgedRequest() {
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                cancelAttemptsExcept(null);
+            }
+        });
+    }
+
+    /**
+     * Adds an attempt to the race.
+     *
+     * @param stage the response of the attempt
+     */
+    void addAttempt(CompletionStage<HttpTransportResponse> stage) {
+        final CompletableFuture<HttpTransportResponse> attempt = stage.toCompletableFuture();
+        synchronized (this) {
+            if (result.isDone()) {
+                attempt.cancel(true);
+                return;
+            }
+            attempts.add(attempt);
+            pendingAttempts++;
+        }
+        attempt.whenComplete((response, error) -> onAttemptComplete(attempt, response, error));
+    }
+
+    /**
+     * Returns whether the request is still waiting for a response, i.e. whether it makes sense to hedge it.
+     *
+     * @return true when no attempt has completed the request yet
+     */
+    boolean isPending() {
+        return !result.isDone();
+    }
+
+    CompletableFuture<HttpTransportResponse> getResult() {
+        return result;
+    }
+
+    private void onAttemptComplete(
+            CompletableFuture<HttpTransportResponse> attempt, HttpTransportResponse response, Throwable error) {
+        if (error == null) {
+            if (result.complete(response)) {
+                cancelAttemptsExcept(attempt);
+            } else {
+                // Lost the race
+                try {
+                    response.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return;
+        }
+        final Throwable failure;
+        synchronized (this) {
+            if (firstError == null) {
+                firstError = error;
+            }
+            failure = --pendingAttempts == 0 ? firstError : null;
+        }
+        if (failure != null) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    private void cancelAttemptsExcept(CompletableFuture<HttpTransportResponse> winner) {
+        final List<CompletableFuture<HttpTransportResponse>> losers;
+        synchronized (this) {
+            losers = new ArrayList<>(attempts);
+        }
+        for (CompletableFuture<HttpTransportResponse> attempt : losers) {
+            if (attempt != winner) {
+                attempt.cancel(true);
+            }
+        }
+    }
+}
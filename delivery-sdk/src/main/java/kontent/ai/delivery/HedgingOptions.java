@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+/**
+ * Settings of request hedging, set via {@link DeliveryOptions#setHedging(HedgingOptions)}.
+ * <p>
+ * When a request to the Kontent.ai API takes longer than the {@link #getLatencyPercentile()} of the recent response
+ * times, the client sends a second identical request and uses whichever response arrives first, cancelling the other
+ * call.  This cuts the tail latency caused by an occasional slow response, at the cost of some extra load which is
+ * capped by the hedge budget.
+ */
+@lombok.Data
+@lombok.NoArgsConstructor
+@lombok.AllArgsConstructor
+@lombok.Builder
+public class HedgingOptions {
+
+    /**
+     * Sets the percentile (0 to 1) of the recent response times after which a hedged request is sent.  Defaults to
+     * 0.95, i.e. roughly the slowest 5% of the requests are hedged.
+     *
+     * @param latencyPercentile New value for this HedgingOptions instance.
+     * @return                  The latency percentile triggering a hedged request.
+     */
+    @Builder.Default
+    double latencyPercentile = 0.95;
+
+    /**
+     * Sets the minimum delay before a hedged request is sent, so that requests are not hedged when all responses are
+     * fast anyway.  Defaults to 20 milliseconds.
+     *
+     * @param minDelay  New value for this HedgingOptions instance.
+     * @return          The minimum delay before a hedged request.
+     */
+    @Builder.Default
+    Duration minDelay = Duration.ofMillis(20);
+
+    /**
+     * Sets the share of requests which may be hedged, measured over the last 10 seconds.  Defaults to 0.1.
+     *
+     * @param budgetRatio   New value for this HedgingOptions instance.
+     * @return              The hedge budget ratio.
+     */
+    @Builder.Default
+    double budgetRatio = 0.1;
+
+    /**
+     * Sets the number of hedged requests per second which are allowed on top of {@link #getBudgetRatio()}, so that a
+     * client with little traffic can still hedge.  Defaults to 1.
+     *
+     * @param budgetMinHedgesPerSecond  New value for this HedgingOptions instance.
+     * @return                          The minimum hedged requests per second.
+     */
+    @Builder.Default
+    int budgetMinHedgesPerSecond = 1;
+}
@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Sends HTTP requests of the {@link DeliveryClient} to the Kontent.ai Delivery API.
+ * <p>
+ * The default implementation is {@link OkHttpTransport}. On JDK 11 and newer, {@link JdkHttpTransport} can be used to
+ * send the requests with {@code java.net.http.HttpClient} instead. A custom implementation can be provided via
+ * {@link DeliveryOptions#setHttpTransport(HttpTransport)}, e.g. to instrument the requests.
+ * <p>
+ * Implementations must not block the calling thread and must not interpret the response - error statuses, retries
+ * and caching are handled by the {@link DeliveryClient}. Cancelling the returned stage (when it is a
+ * {@link java.util.concurrent.CompletableFuture}) should abort the request.
+ *
+ * @see DeliveryOptions#setHttpTransport(HttpTransport)
+ */
+public interface HttpTransport {
+
+    /**
+     * Sends the request.
+     *
+     * @param request the request to send
+     * @return stage completed with the response once its headers are received, or completed exceptionally with an
+     *         {@link java.io.IOException} when the request could not be executed
+     */
+    CompletionStage<HttpTransportResponse> send(HttpTransportRequest request);
+
+    /**
+     * Returns the number of requests waiting to be executed by this transport.
+     *
+     * @return the number of queued requests, 0 when not tracked
+     */
+    default int getQueuedRequestCount() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of requests currently being executed by this transport.
+     *
+     * @return the number of running requests, 0 when not tracked
+     */
+    default int getRunningRequestCount() {
+        return 0;
+    }
+}
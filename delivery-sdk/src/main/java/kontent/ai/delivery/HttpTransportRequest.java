@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HTTP request sent by an {@link HttpTransport}.
+ */
+@lombok.Getter
+@lombok.ToString
+public class HttpTransportRequest {
+
+    public static final String GET = "GET";
+    public static final String POST = "POST";
+
+    /**
+     * The HTTP method of the request.
+     *
+     * @return The HTTP method, e.g. {@link #GET}.
+     */
+    private final String method;
+
+    /**
+     * The absolute URL of the request.
+     *
+     * @return The URL of the request.
+     */
+    private final String url;
+
+    /**
+     * The request headers.
+     *
+     * @return Unmodifiable list of the request headers.
+     */
+    private final List<Header> headers;
+
+    /**
+     * The timeout of the whole request, from connecting to reading the response, overriding the timeouts configured
+     * for the transport.
+     *
+     * @return The timeout of the request, or null when the timeouts of the transport apply.
+     */
+    private final Duration timeout;
+
+    public HttpTransportRequest(String method, String url, List<Header> headers) {
+        this(method, url, headers, null);
+    }
+
+    public HttpTransportRequest(String method, String url, List<Header> headers, Duration timeout) {
+        this.method = method;
+        this.url = url;
+        this.headers = Collections.unmodifiableList(new ArrayList<>(headers));
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the value of the request header.
+     *
+     * @param name the case-insensitive name of the header
+     * @return the header value or null if the request does not have the header
+     */
+    public String getHeader(String name) {
+        for (Header header : headers) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a copy of this request with the header set, replacing any header of the same name.
+     *
+     * @param name  the header name
+     * @param value the header value
+     * @return a new request with the header
+     */
+    public HttpTransportRequest withHeader(String name, String value) {
+        final List<Header> newHeaders = new ArrayList<>(headers.size() + 1);
+        for (Header header : headers) {
+            if (!header.getName().equalsIgnoreCase(name)) {
+                newHeaders.add(header);
+            }
+        }
+        newHeaders.add(new Header(name, value));
+        return new HttpTransportRequest(method, url, newHeaders, timeout);
+    }
+
+    /**
+     * Returns a copy of this request with the timeout set.
+     *
+     * @param timeout the timeout of the request, or null when the timeouts of the transport apply
+     * @return a new request with the timeout
+     */
+    public HttpTransportRequest withTimeout(Duration timeout) {
+        return new HttpTransportRequest(method, url, headers, timeout);
+    }
+}
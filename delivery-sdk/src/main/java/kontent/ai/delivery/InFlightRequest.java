@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A request to Kontent.ai which is in flight and can be joined by concurrent callers asking for the same URL.
+ * <p>
+ * The response is shared with the joined callers as a {@link JsonNode}. When nobody has joined by the time the
+ * response arrives, the request can be sealed, so that the leading caller may bind the response straight from the
+ * body stream without building the tree.
+ */
+class InFlightRequest {
+
+    private static final int SEALED = -1;
+
+    private final RequestContext leaderContext;
+    private final CompletableFuture<JsonNode> response = new CompletableFuture<>();
+    private final AtomicInteger joined = new AtomicInteger(0);
+
+    InFlightRequest(RequestContext leaderContext) {
+        this.leaderContext = leaderContext;
+    }
+
+    /**
+     * Tells whether the caller can wait for this request, i.e. the deadline of the leading caller does not fail the
+     * request before the deadline of the caller passes.
+     *
+     * @param context the context of the caller
+     * @return true if the caller can join this request
+     */
+    boolean isJoinableBy(RequestContext context) {
+        return leaderContext.outlasts(context);
+    }
+
+    /**
+     * Joins this request.
+     *
+     * @return false if the request has already been sealed and cannot be joined anymore
+     */
+    boolean tryJoin() {
+        while (true) {
+            final int current = joined.get();
+            if (current == SEALED) {
+                return false;
+            }
+            if (joined.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Seals this request so that nobody can join it anymore.
+     *
+     * @return true if nobody has joined this request, false otherwise (the request is not sealed in that case)
+     */
+    boolean seal() {
+        return joined.compareAndSet(0, SEALED);
+    }
+
+    CompletableFuture<JsonNode> getResponse() {
+        return response;
+    }
+}
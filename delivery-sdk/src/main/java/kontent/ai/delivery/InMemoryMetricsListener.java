@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MetricsListener} keeping the measurements in {@link Histogram}s, which can be polled e.g. by a health check
+ * or a periodic reporter.  Durations are recorded in nanoseconds.
+ */
+public class InMemoryMetricsListener implements MetricsListener {
+
+    private final Map<String, Histogram> requestDurations = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> responseBytes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+    private final Histogram cacheHits = new Histogram();
+    private final Histogram cacheMisses = new Histogram();
+    private final Histogram cachePuts = new Histogram();
+    private final Histogram conversions = new Histogram();
+    private final Histogram richTextProcessing = new Histogram();
+
+    @Override
+    public void onRequest(String endpoint, int statusCode, long durationNanos) {
+        requestDurations.computeIfAbsent(endpoint, e -> new Histogram()).record(durationNanos);
+    }
+
+    @Override
+    public void onResponseBytes(String endpoint, long bytes) {
+        responseBytes.computeIfAbsent(endpoint, e -> new Histogram()).record(bytes);
+    }
+
+    @Override
+    public void onRetry(String endpoint, int attempt) {
+        retries.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void onCacheGet(boolean hit, long durationNanos) {
+        (hit ? cacheHits : cacheMisses).record(durationNanos);
+    }
+
+    @Override
+    public void onCachePut(long durationNanos) {
+        cachePuts.record(durationNanos);
+    }
+
+    @Override
+    public void onConversion(long durationNanos) {
+        conversions.record(durationNanos);
+    }
+
+    @Override
+    public void onRichTextProcessing(long durationNanos) {
+        richTextProcessing.record(durationNanos);
+    }
+
+    /**
+     * Returns the durations of the request attempts.
+     *
+     * @return the histograms of the durations keyed by endpoint
+     */
+    public Map<String, Histogram> getRequestDurations() {
+        return Collections.unmodifiableMap(requestDurations);
+    }
+
+    /**
+     * Returns the sizes of the response bodies.
+     *
+     * @return the histograms of the sizes in bytes keyed by endpoint
+     */
+    public Map<String, Histogram> getResponseBytes() {
+        return Collections.unmodifiableMap(responseBytes);
+    }
+
+    /**
+     * Returns the number of reattempted requests to the endpoint.
+     *
+     * @param endpoint the endpoint, e.g. {@code items}
+     * @return the number of retries
+     */
+    public long getRetryCount(String endpoint) {
+        final LongAdder count = retries.get(endpoint);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Returns the durations of the cache lookups which found a fresh entry.
+     *
+     * @return the histogram of the durations
+     */
+    public Histogram getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Returns the durations of the cache lookups which did not find a fresh entry.
+     *
+     * @return the histogram of the durations
+     */
+    public Histogram getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Returns the durations of storing the responses in the cache.
+     *
+     * @return the histogram of the durations
+     */
+    public Histogram getCachePuts() {
+        return cachePuts;
+    }
+
+    /**
+     * Returns the durations of the strongly typed conversions.
+     *
+     * @return the histogram of the durations
+     */
+    public Histogram getConversions() {
+        return conversions;
+    }
+
+    /**
+     * Returns the durations of resolving the rich text elements.
+     *
+     * @return the histogram of the durations
+     */
+    public Histogram getRichTextProcessing() {
+        return richTextProcessing;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the requests for single content items with the same query parameters into batches, which are loaded by a
+ * single request once the batch window passes or the batch is full.
+ */
+class ItemBatcher {
+
+    /**
+     * Loads the responses of a batch of content items.
+     */
+    interface BatchLoader {
+
+        /**
+         * @param params    the query parameters shared by the content items
+         * @param codenames the codenames of the content items
+         * @return the responses of the single content items keyed by codename, missing for the items not found
+         */
+        CompletionStage<Map<String, JsonNode>> load(List<NameValuePair> params, List<String> codenames);
+    }
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BatchLoader loader;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private final Map<String, Batch> pendingBatches = new HashMap<>();
+
+    ItemBatcher(ItemBatchingOptions options, BatchLoader loader, ScheduledExecutorService scheduler) {
+        this.windowNanos = options.getWindow().toNanos();
+        this.maxBatchSize = options.getMaxBatchSize();
+        this.loader = loader;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Adds the content item to the pending batch of the query parameters.
+     *
+     * @return the response of the content item, or null when the batch did not find it
+     */
+    CompletionStage<JsonNode> load(String codename, List<NameValuePair> params) {
+        final String key = params.stream()
+                .map(param -> param.getName() + "=" + param.getValue())
+                .collect(Collectors.joining("&"));
+        final CompletableFuture<JsonNode> response = new CompletableFuture<>();
+        final Batch fullBatch;
+        synchronized (this) {
+            final Batch batch = pendingBatches.computeIfAbsent(key, k -> new Batch(params));
+            batch.callers.computeIfAbsent(codename, c -> new ArrayList<>()).add(response);
+            if (batch.callers.size() >= maxBatchSize) {
+                pendingBatches.remove(key);
+                if (batch.timer != null) {
+                    batch.timer.cancel(false);
+                }
+                fullBatch = batch;
+            } else {
+                if (batch.timer == null) {
+                    batch.timer = scheduler.schedule(() -> sendWhenPending(key, batch), windowNanos, TimeUnit.NANOSECONDS);
+                }
+                fullBatch = null;
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        return response;
+    }
+
+    private void sendWhenPending(String key, Batch batch) {
+        synchronized (this) {
+            if (!pendingBatches.remove(key, batch)) {
+                return;
+            }
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        final CompletionStage<Map<String, JsonNode>> responses;
+        try {
+            responses = loader.load(batch.params, new ArrayList<>(batch.callers.keySet()));
+        } catch (RuntimeException e) {
+            batch.callers.values().forEach(callers -> callers.forEach(caller -> caller.completeExceptionally(e)));
+            return;
+        }
+        responses.whenComplete((items, error) -> batch.callers.forEach((codename, callers) -> {
+            for (CompletableFuture<JsonNode> caller : callers) {
+                if (error != null) {
+                    caller.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error);
+                } else {
+                    caller.complete(items.get(codename));
+                }
+            }
+        }));
+    }
+
+    private static class Batch {
+
+        private final List<NameValuePair> params;
+        // The callers waiting for each content item, in the order of the first request for it
+        private final Map<String, List<CompletableFuture<JsonNode>>> callers = new LinkedHashMap<>();
+        private ScheduledFuture<?> timer;
+
+        private Batch(List<NameValuePair> params) {
+            this.params = params;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+/**
+ * Settings of batching the content item requests, set via {@link DeliveryOptions#setItemBatching(ItemBatchingOptions)}.
+ * <p>
+ * Requests for single content items ({@link DeliveryClient#getItem(String, Class)} and its variants) made within the
+ * {@link #getWindow()} with the same query parameters, e.g. the language and depth, are merged into a single listing
+ * request filtering {@code system.codename[in]}.  The response is split back into the responses of the single
+ * items, which are also cached one by one.  Requests with {@link RequestOptions} are not batched.
+ */
+@lombok.Data
+@lombok.NoArgsConstructor
+@lombok.AllArgsConstructor
+@lombok.Builder
+public class ItemBatchingOptions {
+
+    /**
+     * Sets how long the first request of a batch waits for other requests to join it.  Defaults to 5 milliseconds.
+     *
+     * @param window    New value for this ItemBatchingOptions instance.
+     * @return          The time a batch is collected for.
+     */
+    @Builder.Default
+    Duration window = Duration.ofMillis(5);
+
+    /**
+     * Sets the maximum number of content items requested by a batch.  A full batch is sent right away.  Defaults
+     * to 50, which keeps the URL of the request reasonably short.
+     *
+     * @param maxBatchSize  New value for this ItemBatchingOptions instance.
+     * @return              The maximum number of content items in a batch.
+     */
+    @Builder.Default
+    int maxBatchSize = 50;
+}
@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * {@link HttpTransport} backed by {@code java.net.http.HttpClient}, which negotiates HTTP/2 and multiplexes the
+ * concurrent requests over a single connection.  Using it drops the need for OkHttp at runtime on server deployments.
+ * <p>
+ * The transport requires Java 11 or newer.  This is the Java 8 version of the class which is replaced by the actual
+ * implementation on Java 11+ (the SDK jar is a multi-release jar).  It cannot be instantiated, instead
+ * {@link #create(DeliveryOptions)} reports that the transport is not available.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    private JdkHttpTransport() {
+    }
+
+    /**
+     * Creates the transport configured by the http settings of the {@link DeliveryOptions}, when the current Java
+     * runtime supports it.
+     *
+     * @param deliveryOptions the options to configure the client from
+     * @return the transport, or empty when running on Java older than 11
+     */
+    public static Optional<HttpTransport> create(DeliveryOptions deliveryOptions) {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns whether this transport can be used on the current Java runtime.
+     *
+     * @return true on Java 11 and newer
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    @Override
+    public CompletionStage<HttpTransportResponse> send(HttpTransportRequest request) {
+        final CompletableFuture<HttpTransportResponse> unsupported = new CompletableFuture<>();
+        unsupported.completeExceptionally(new UnsupportedOperationException("JdkHttpTransport requires Java 11 or newer."));
+        return unsupported;
+    }
+}
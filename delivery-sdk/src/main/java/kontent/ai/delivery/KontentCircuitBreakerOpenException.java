@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is rejected without being sent because the circuit breaker is open, i.e. the Kontent.ai API
+ * has recently been failing or responding too slowly.
+ *
+ * @see CircuitBreakerOptions
+ */
+public class KontentCircuitBreakerOpenException extends RuntimeException implements KontentException {
+
+    private final Duration retryAfter;
+
+    KontentCircuitBreakerOpenException(Duration retryAfter) {
+        super(String.format(
+                "Circuit breaker is open, requests to Kontent.ai API are rejected for the next %dms",
+                retryAfter.toMillis()));
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns how long the circuit is going to stay open before probe requests are let through.
+     *
+     * @return the remaining time in the open state, zero when the probe requests are already being sent
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public boolean shouldRetry() {
+        return false;
+    }
+}
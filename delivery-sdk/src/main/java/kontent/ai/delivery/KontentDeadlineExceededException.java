@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.time.Instant;
+
+/**
+ * Thrown when a request does not complete before the deadline set via {@link RequestOptions#setDeadline(Instant)}.
+ */
+public class KontentDeadlineExceededException extends RuntimeException implements KontentException {
+
+    private final Instant deadline;
+
+    KontentDeadlineExceededException(Instant deadline) {
+        super(String.format("Request to Kontent.ai API did not complete before its deadline %s", deadline));
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns the deadline of the request.
+     *
+     * @return the deadline which has passed
+     */
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public boolean shouldRetry() {
+        return false;
+    }
+}
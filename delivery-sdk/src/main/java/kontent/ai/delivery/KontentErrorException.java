@@ -24,6 +24,8 @@
 
 package kontent.ai.delivery;
 
+import java.time.Duration;
+
 /**
  * Thrown to indicate failure of a Kontent.ai request.
  *
@@ -33,6 +35,7 @@ public class KontentErrorException extends RuntimeException implements KontentEx
 
     private final KontentError kontentError;
     private boolean shouldRetry;
+    private Duration retryAfter;
 
     /**
      * Thrown to indicate failure of a Kontent.ai request
@@ -55,6 +58,20 @@ public class KontentErrorException extends RuntimeException implements KontentEx
         return kontentError;
     }
 
+    /**
+     * Returns how long the Kontent.ai API asked to wait before making a new request, as sent in the
+     * {@code Retry-After} response header.
+     *
+     * @return the requested wait time or null when the response did not contain a {@code Retry-After} header
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
     @Override
     public boolean shouldRetry() {
         return this.shouldRetry;
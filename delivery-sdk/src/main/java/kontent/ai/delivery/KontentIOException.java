@@ -25,6 +25,7 @@
 package kontent.ai.delivery;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * Thrown when an {@link IOException} is thrown when executing against the Kontent.ai API.  Generally means
@@ -33,6 +34,7 @@ import java.io.IOException;
 public class KontentIOException extends RuntimeException implements KontentException {
 
     private boolean shouldRetry;
+    private Duration retryAfter;
 
     KontentIOException(String message, boolean shouldRetry) {
         super(message);
@@ -44,6 +46,20 @@ public class KontentIOException extends RuntimeException implements KontentExcep
         this.shouldRetry = shouldRetry;
     }
 
+    /**
+     * Returns how long the Kontent.ai API asked to wait before making a new request, as sent in the
+     * {@code Retry-After} response header.
+     *
+     * @return the requested wait time or null when the response did not contain a {@code Retry-After} header
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
     @Override
     public boolean shouldRetry() {
         return this.shouldRetry;
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the response times of the most recent requests and computes a percentile of them.
+ * <p>
+ * The percentile is recomputed only every {@link #RECOMPUTE_INTERVAL} samples, so that reading it stays cheap on the
+ * request path.  Until {@link #MIN_SAMPLES} samples are recorded, no percentile is available.
+ */
+class LatencyTracker {
+
+    static final int WINDOW_SIZE = 512;
+    static final int MIN_SAMPLES = 20;
+    static final int RECOMPUTE_INTERVAL = 16;
+
+    private final double percentile;
+    private final long[] samples = new long[WINDOW_SIZE];
+    private int nextSample = 0;
+    private int recordedSamples = 0;
+    private int samplesSinceRecompute = 0;
+    private long percentileNanos = -1;
+
+    /**
+     * @param percentile the percentile (0 to 1) to compute
+     */
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    synchronized void record(long nanos) {
+        samples[nextSample] = nanos;
+        nextSample = (nextSample + 1) % WINDOW_SIZE;
+        recordedSamples = Math.min(recordedSamples + 1, WINDOW_SIZE);
+        if (recordedSamples >= MIN_SAMPLES
+                && (percentileNanos < 0 || ++samplesSinceRecompute >= RECOMPUTE_INTERVAL)) {
+            samplesSinceRecompute = 0;
+            final long[] sorted = Arrays.copyOf(samples, recordedSamples);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.min(recordedSamples - 1, (int) Math.ceil(percentile * recordedSamples) - 1)];
+        }
+    }
+
+    /**
+     * Returns the percentile of the recorded response times.
+     *
+     * @return the percentile in nanoseconds, or -1 when not enough samples have been recorded yet
+     */
+    synchronized long getPercentileNanos() {
+        return percentileNanos;
+    }
+}
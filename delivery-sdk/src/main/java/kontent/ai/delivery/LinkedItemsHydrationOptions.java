@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import lombok.Builder;
+
+/**
+ * Settings of loading the linked items missing in a response, set via
+ * {@link DeliveryOptions#setLinkedItemsHydration(LinkedItemsHydrationOptions)}.
+ * <p>
+ * A response only contains the linked items up to the depth requested by
+ * {@link DeliveryParameterBuilder#linkedItemsDepth(Integer)}, the deeper references resolve to null.  With hydration
+ * enabled, the codenames of the linked items missing in a response are collected and the items are loaded by
+ * follow-up requests filtering {@code system.codename[in]}, one level of depth per round.  This lets the queries stay
+ * shallow while the deep references still resolve.
+ */
+@lombok.Data
+@lombok.NoArgsConstructor
+@lombok.AllArgsConstructor
+@lombok.Builder
+public class LinkedItemsHydrationOptions {
+
+    /**
+     * Sets how many levels of linked items are loaded beyond the depth of the response.  Defaults to 3.
+     *
+     * @param maxDepth  New value for this LinkedItemsHydrationOptions instance.
+     * @return          The maximum number of levels of linked items loaded.
+     */
+    @Builder.Default
+    int maxDepth = 3;
+
+    /**
+     * Sets the maximum number of linked items loaded by a single follow-up request.  Defaults to 50, which keeps the
+     * URL of the request reasonably short.
+     *
+     * @param maxBatchSize  New value for this LinkedItemsHydrationOptions instance.
+     * @return              The maximum number of linked items loaded by a request.
+     */
+    @Builder.Default
+    int maxBatchSize = 50;
+}
@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Loads the linked items referenced by content items, but missing in their response, level by level up to the
+ * maximum depth.
+ */
+class LinkedItemsHydrator {
+
+    private final int maxDepth;
+    private final int maxBatchSize;
+    private final int parallelism;
+    private final Function<List<String>, CompletionStage<ContentItemsListingResponse>> loader;
+
+    // Guarded by the sequential rounds, each one starts once the previous one completes
+    private final Map<String, ContentItem> linkedItems;
+    private final Set<String> requestedCodenames = new HashSet<>();
+
+    /**
+     * @param options     the hydration settings
+     * @param parallelism the maximum number of concurrent follow-up requests
+     * @param linkedItems the linked items of the response, or null
+     * @param loader      loads the content items with the given codenames, without their linked items
+     */
+    LinkedItemsHydrator(
+            LinkedItemsHydrationOptions options,
+            int parallelism,
+            Map<String, ContentItem> linkedItems,
+            Function<List<String>, CompletionStage<ContentItemsListingResponse>> loader) {
+        this.maxDepth = options.getMaxDepth();
+        this.maxBatchSize = options.getMaxBatchSize();
+        this.parallelism = parallelism;
+        this.linkedItems = linkedItems == null ? new LinkedHashMap<>() : new LinkedHashMap<>(linkedItems);
+        this.loader = loader;
+    }
+
+    /**
+     * @param items the content items of the response
+     * @return the linked items of the response together with the loaded ones
+     */
+    CompletionStage<Map<String, ContentItem>> hydrate(Collection<ContentItem> items) {
+        final List<ContentItem> referencingItems = new ArrayList<>(items);
+        referencingItems.addAll(linkedItems.values());
+        return hydrate(referencingItems, 0);
+    }
+
+    private CompletionStage<Map<String, ContentItem>> hydrate(Collection<ContentItem> referencingItems, int depth) {
+        final List<String> missingCodenames = depth < maxDepth
+                ? missingCodenames(referencingItems)
+                : new ArrayList<>();
+        if (missingCodenames.isEmpty()) {
+            return CompletableFuture.completedFuture(linkedItems);
+        }
+        requestedCodenames.addAll(missingCodenames);
+
+        final List<Supplier<CompletionStage<ContentItemsListingResponse>>> batches = new ArrayList<>();
+        for (int from = 0; from < missingCodenames.size(); from += maxBatchSize) {
+            final List<String> batch =
+                    missingCodenames.subList(from, Math.min(from + maxBatchSize, missingCodenames.size()));
+            batches.add(() -> loader.apply(batch));
+        }
+        return ParallelRequests.run(batches, parallelism)
+                .thenCompose(responses -> {
+                    final List<ContentItem> loadedItems = new ArrayList<>();
+                    for (ContentItemsListingResponse response : responses) {
+                        for (ContentItem item : response.getItems()) {
+                            if (linkedItems.putIfAbsent(item.getSystem().getCodename(), item) == null) {
+                                loadedItems.add(item);
+                            }
+                        }
+                    }
+                    return hydrate(loadedItems, depth + 1);
+                });
+    }
+
+    private List<String> missingCodenames(Collection<ContentItem> referencingItems) {
+        final Set<String> missingCodenames = new LinkedHashSet<>();
+        for (ContentItem item : referencingItems) {
+            if (item.getElements() == null) {
+                continue;
+            }
+            for (Element<?> element : item.getElements().values()) {
+                final List<String> references;
+                if (element instanceof LinkedItem) {
+                    references = ((LinkedItem) element).getValue();
+                } else if (element instanceof RichTextElement) {
+                    references = ((RichTextElement) element).getLinkedItems();
+                } else {
+                    continue;
+                }
+                if (references != null) {
+                    references.stream()
+                            .filter(codename -> !linkedItems.containsKey(codename))
+                            .filter(codename -> !requestedCodenames.contains(codename))
+                            .forEach(missingCodenames::add);
+                }
+            }
+        }
+        return new ArrayList<>(missingCodenames);
+    }
+}
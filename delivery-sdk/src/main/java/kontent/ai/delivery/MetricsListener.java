@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+/**
+ * Listener receiving the measurements of the {@link DeliveryClient}, e.g. to feed them into a metrics library.
+ * <p>
+ * The endpoints are the API paths with the codenames replaced by {@code *}, e.g. {@code items}, {@code items/*} or
+ * {@code taxonomies/*}.  The methods are called synchronously on the threads doing the measured work, so they
+ * must be thread-safe and return quickly.  All methods do nothing by default.
+ *
+ * @see DeliveryOptions#setMetricsListener(MetricsListener)
+ * @see InMemoryMetricsListener
+ */
+public interface MetricsListener {
+
+    /**
+     * Called when a response of a request attempt is received, before its body is read.
+     *
+     * @param endpoint      the endpoint of the request
+     * @param statusCode    the HTTP status code of the response
+     * @param durationNanos the time from sending the request to receiving the response
+     */
+    default void onRequest(String endpoint, int statusCode, long durationNanos) {
+    }
+
+    /**
+     * Called when the body of a response is closed.
+     *
+     * @param endpoint the endpoint of the request
+     * @param bytes    the number of bytes read from the body
+     */
+    default void onResponseBytes(String endpoint, long bytes) {
+    }
+
+    /**
+     * Called when a failed request is scheduled to be reattempted.
+     *
+     * @param endpoint the endpoint of the request
+     * @param attempt  the number of the reattempt, starting at 1
+     */
+    default void onRetry(String endpoint, int attempt) {
+    }
+
+    /**
+     * Called when a lookup in the {@link CacheManager} completes.
+     *
+     * @param hit           whether a fresh cache entry was found
+     * @param durationNanos the time the lookup took
+     */
+    default void onCacheGet(boolean hit, long durationNanos) {
+    }
+
+    /**
+     * Called when storing a response in the {@link CacheManager} completes.
+     *
+     * @param durationNanos the time the put took
+     */
+    default void onCachePut(long durationNanos) {
+    }
+
+    /**
+     * Called when a content item was converted to a strongly typed object, including its linked items.
+     *
+     * @param durationNanos the time the conversion took
+     * @see StronglyTypedContentItemConverter
+     */
+    default void onConversion(long durationNanos) {
+    }
+
+    /**
+     * Called when the rich text elements of a response were resolved.
+     *
+     * @param durationNanos the time the resolution took
+     * @see RichTextElementConverter
+     */
+    default void onRichTextProcessing(long durationNanos) {
+    }
+}
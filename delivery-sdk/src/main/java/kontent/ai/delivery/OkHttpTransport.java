@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HttpTransport} backed by OkHttp.  This is the default transport of the {@link DeliveryClient}.
+ */
+@Slf4j
+public class OkHttpTransport implements HttpTransport {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final OkHttpClient httpClient;
+
+    /**
+     * Creates the transport using the given {@link OkHttpClient}, e.g. to share its connection pool and dispatcher
+     * with the rest of the application.
+     *
+     * @param httpClient the client to send the requests with
+     */
+    public OkHttpTransport(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Creates the transport with a new {@link OkHttpClient} configured by the http settings of the
+     * {@link DeliveryOptions}, or using {@link DeliveryOptions#getHttpClient()} when set.
+     *
+     * @param deliveryOptions the options to configure the client from
+     */
+    public OkHttpTransport(DeliveryOptions deliveryOptions) {
+        this(deliveryOptions.getHttpClient() != null
+                ? deliveryOptions.getHttpClient()
+                : createHttpClient(deliveryOptions));
+    }
+
+    @Override
+    public CompletionStage<HttpTransportResponse> send(HttpTransportRequest request) {
+        final Call call = httpClient.newCall(toOkHttpRequest(request));
+        if (request.getTimeout() != null) {
+            call.timeout().timeout(Math.max(1, request.getTimeout().toMillis()), TimeUnit.MILLISECONDS);
+        }
+        final CompletableFuture<HttpTransportResponse> future = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                log.error("Request call failed with IO Exception: {}", e.getMessage());
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                log.debug("Request call succeeded with response message: {}", response.message());
+                final HttpTransportResponse transportResponse = new HttpTransportResponse(
+                        response.code(),
+                        response.headers().toMultimap(),
+                        response.body().byteStream());
+                if (!future.complete(transportResponse)) {
+                    // Cancelled in the meantime
+                    response.close();
+                }
+            }
+        });
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public int getQueuedRequestCount() {
+        return httpClient.dispatcher().queuedCallsCount();
+    }
+
+    @Override
+    public int getRunningRequestCount() {
+        return httpClient.dispatcher().runningCallsCount();
+    }
+
+    /**
+     * Returns the underlying {@link OkHttpClient}.
+     *
+     * @return the http client of this transport
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    private static Request toOkHttpRequest(HttpTransportRequest request) {
+        final Request.Builder requestBuilder = new Request.Builder().url(request.getUrl());
+        for (Header header : request.getHeaders()) {
+            requestBuilder.header(header.getName(), header.getValue());
+        }
+        if (HttpTransportRequest.GET.equals(request.getMethod())) {
+            requestBuilder.get();
+        } else {
+            requestBuilder.method(request.getMethod(), RequestBody.create(EMPTY_BODY));
+        }
+        return requestBuilder.build();
+    }
+
+    private static OkHttpClient createHttpClient(DeliveryOptions deliveryOptions) {
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(deliveryOptions.getMaxConcurrentRequests());
+        dispatcher.setMaxRequestsPerHost(deliveryOptions.getMaxConcurrentRequestsPerHost());
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(
+                        deliveryOptions.getMaxIdleConnections(),
+                        deliveryOptions.getConnectionKeepAlive().toMillis(),
+                        TimeUnit.MILLISECONDS))
+                .connectTimeout(deliveryOptions.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(deliveryOptions.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .callTimeout(deliveryOptions.getCallTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        if (deliveryOptions.getProxyServer() != null) {
+            builder.proxy(deliveryOptions.getProxyServer());
+        }
+        return builder.build();
+    }
+}
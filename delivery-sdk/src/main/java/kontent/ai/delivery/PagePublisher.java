@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the items of a content items listing, following {@link Pagination#getNextPage()}.
+ * <p>
+ * A page is requested only when the subscriber has demand for more items than the current page holds, so a slow
+ * subscriber never makes the publisher fetch and buffer more than a single page.  Each subscriber walks the pages on
+ * its own.
+ *
+ * @param <T> the type of the content items
+ */
+class PagePublisher<T> implements Publisher<T> {
+
+    private final Function<RequestContext, CompletionStage<Page<T>>> firstPageFetcher;
+    private final BiFunction<Page<T>, RequestContext, CompletionStage<Page<T>>> nextPageFetcher;
+    private final Supplier<RequestContext> contextFactory;
+
+    PagePublisher(
+            Function<RequestContext, CompletionStage<Page<T>>> firstPageFetcher,
+            BiFunction<Page<T>, RequestContext, CompletionStage<Page<T>>> nextPageFetcher,
+            Supplier<RequestContext> contextFactory) {
+        this.firstPageFetcher = firstPageFetcher;
+        this.nextPageFetcher = nextPageFetcher;
+        this.contextFactory = contextFactory;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("The subscriber must not be null.");
+        }
+        PageSubscription subscription = new PageSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * Signals to the subscriber from a single drain loop at a time, whichever thread triggers it - the subscriber
+     * requesting more items or a page arriving.
+     */
+    private class PageSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private volatile Page<T> fetchedPage;
+        private volatile RequestContext fetching;
+
+        // Accessed from the drain loop only
+        private Page<T> lastPage;
+        private Iterator<T> currentPage = Collections.emptyIterator();
+        private boolean done;
+
+        PageSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("The number of requested items must be positive, was " + n);
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            RequestContext context = fetching;
+            if (context != null) {
+                context.cancel();
+            }
+            drain();
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                drainLoop();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainLoop() {
+            while (!done) {
+                if (cancelled) {
+                    terminate();
+                    return;
+                }
+                if (error != null) {
+                    terminate();
+                    subscriber.onError(error);
+                    return;
+                }
+                long emitted = 0;
+                long demand = requested.get();
+                while (emitted != demand && currentPage.hasNext() && !cancelled) {
+                    subscriber.onNext(currentPage.next());
+                    emitted++;
+                }
+                if (emitted > 0 && demand != Long.MAX_VALUE) {
+                    demand = requested.addAndGet(-emitted);
+                }
+                if (cancelled) {
+                    continue;
+                }
+                if (currentPage.hasNext()) {
+                    // No more demand for now, the next request() drains again
+                    return;
+                }
+                Page<T> page = fetchedPage;
+                if (page != null) {
+                    fetchedPage = null;
+                    lastPage = page;
+                    currentPage = page.hasContent() ? page.getContent().iterator() : Collections.emptyIterator();
+                    continue;
+                }
+                if (lastPage != null && !lastPage.hasNext()) {
+                    terminate();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (fetching == null && demand > 0) {
+                    fetchNextPage();
+                }
+                return;
+            }
+        }
+
+        private void fetchNextPage() {
+            RequestContext context = contextFactory.get();
+            fetching = context;
+            CompletionStage<Page<T>> page = lastPage == null
+                    ? firstPageFetcher.apply(context)
+                    : nextPageFetcher.apply(lastPage, context);
+            page.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    error = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause()
+                            : throwable;
+                } else {
+                    fetchedPage = result;
+                }
+                fetching = null;
+                drain();
+            });
+            if (cancelled) {
+                context.cancel();
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            lastPage = null;
+            currentPage = Collections.emptyIterator();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs requests concurrently, at most {@code parallelism} at a time, and collects their results in the order of the
+ * requests.  A new request is started as soon as one completes.  When a request fails, no further requests are
+ * started and the result fails with its error.
+ *
+ * @param <R> the type of the results
+ */
+class ParallelRequests<R> {
+
+    private final List<Supplier<CompletionStage<R>>> requests;
+    private final Object[] results;
+    private final AtomicInteger nextRequest = new AtomicInteger();
+    private final AtomicInteger pendingRequests;
+    private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+    private ParallelRequests(List<Supplier<CompletionStage<R>>> requests) {
+        this.requests = requests;
+        this.results = new Object[requests.size()];
+        this.pendingRequests = new AtomicInteger(requests.size());
+    }
+
+    static <R> CompletionStage<List<R>> run(List<Supplier<CompletionStage<R>>> requests, int parallelism) {
+        final ParallelRequests<R> parallelRequests = new ParallelRequests<>(requests);
+        if (requests.isEmpty()) {
+            parallelRequests.complete();
+        }
+        for (int i = 0; i < Math.min(parallelism, requests.size()); i++) {
+            parallelRequests.startNext();
+        }
+        return parallelRequests.result;
+    }
+
+    private void startNext() {
+        final int index = nextRequest.getAndIncrement();
+        if (index >= requests.size() || result.isDone()) {
+            return;
+        }
+        final CompletionStage<R> request;
+        try {
+            request = requests.get(index).get();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        request.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error);
+                return;
+            }
+            results[index] = value;
+            if (pendingRequests.decrementAndGet() == 0) {
+                complete();
+            } else {
+                startNext();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete() {
+        // The decrement of the last request makes the writes of all the results visible
+        result.complete(new ArrayList<>((List<R>) Arrays.asList(results)));
+    }
+}
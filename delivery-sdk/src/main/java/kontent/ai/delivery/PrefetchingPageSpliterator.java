@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Walks the pages of a content items listing, e.g. following {@link Pagination#getNextPage()} or the continuation
+ * token of the items feed.
+ * <p>
+ * Up to {@code prefetchPages} pages are requested ahead of the page being consumed, so fetching the next pages
+ * overlaps with processing the current one.  A page is dropped as soon as its last item is handed out, so its
+ * {@code modular_content} is only retained as long as the consumer keeps its items.
+ *
+ * @param <P> the type of the pages
+ * @param <T> the type of the content items
+ */
+class PrefetchingPageSpliterator<P, T> implements Spliterator<T> {
+
+    private final Supplier<CompletionStage<P>> firstPageFetcher;
+    private final Function<P, CompletionStage<P>> nextPageFetcher;
+    private final Predicate<P> hasNextPage;
+    private final Function<P, List<T>> pageContent;
+    private final int prefetchPages;
+
+    // Requested pages which were not consumed yet, in order, guarded by this
+    private final Deque<CompletableFuture<P>> pages = new ArrayDeque<>();
+    // The last requested page, the next one is requested once it arrives, guarded by this
+    private CompletableFuture<P> lastRequestedPage;
+    private boolean started;
+    private boolean closed;
+
+    private Iterator<T> currentPage = Collections.emptyIterator();
+
+    PrefetchingPageSpliterator(
+            Supplier<CompletionStage<P>> firstPageFetcher,
+            Function<P, CompletionStage<P>> nextPageFetcher,
+            Predicate<P> hasNextPage,
+            Function<P, List<T>> pageContent,
+            int prefetchPages) {
+        this.firstPageFetcher = firstPageFetcher;
+        this.nextPageFetcher = nextPageFetcher;
+        this.hasNextPage = hasNextPage;
+        this.pageContent = pageContent;
+        this.prefetchPages = prefetchPages;
+    }
+
+    /**
+     * Creates a spliterator over the pages of a content items listing, following {@link Pagination#getNextPage()}.
+     */
+    static <T> PrefetchingPageSpliterator<Page<T>, T> ofPages(
+            Supplier<CompletionStage<Page<T>>> firstPageFetcher,
+            Function<Page<T>, CompletionStage<Page<T>>> nextPageFetcher,
+            int prefetchPages) {
+        return new PrefetchingPageSpliterator<>(
+                firstPageFetcher, nextPageFetcher, Page::hasNext, Page::getContent, prefetchPages);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (!currentPage.hasNext()) {
+            // Drop the consumed page before waiting for the next one
+            currentPage = Collections.emptyIterator();
+            CompletableFuture<P> nextPage = nextPage();
+            if (nextPage == null) {
+                return false;
+            }
+            P page = BlockingDeliveryClient.join(nextPage);
+            synchronized (this) {
+                pages.pollFirst();
+            }
+            requestPagesAhead();
+            List<T> content = page != null ? pageContent.apply(page) : null;
+            if (content != null) {
+                currentPage = content.iterator();
+            }
+        }
+        action.accept(currentPage.next());
+        return true;
+    }
+
+    private synchronized CompletableFuture<P> nextPage() {
+        if (closed) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            lastRequestedPage = firstPageFetcher.get().toCompletableFuture();
+            pages.addLast(lastRequestedPage);
+            lastRequestedPage.whenComplete((page, throwable) -> requestPagesAhead());
+        }
+        return pages.peekFirst();
+    }
+
+    private void requestPagesAhead() {
+        CompletableFuture<P> requestedPage;
+        synchronized (this) {
+            if (closed || pages.size() >= prefetchPages || !lastRequestedPage.isDone()
+                    || lastRequestedPage.isCompletedExceptionally()) {
+                return;
+            }
+            P page = lastRequestedPage.join();
+            if (page == null || !hasNextPage.test(page)) {
+                return;
+            }
+            requestedPage = nextPageFetcher.apply(page).toCompletableFuture();
+            lastRequestedPage = requestedPage;
+            pages.addLast(requestedPage);
+        }
+        // Outside of the lock, the page may already be complete and then this runs right away
+        requestedPage.whenComplete((page, throwable) -> requestPagesAhead());
+    }
+
+    /**
+     * Stops requesting further pages and cancels the pages not consumed yet.
+     */
+    synchronized void close() {
+        closed = true;
+        pages.forEach(page -> page.cancel(false));
+        pages.clear();
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, thread-safe set of query parameters, built by {@link DeliveryParameterBuilder#buildQuery()}.
+ * <p>
+ * The parameters are sorted by name (keeping the order of parameters with the same name) and URL-encoded once, when
+ * the query is created.  Queries which only differ in the order of their parameters therefore produce the same URL and
+ * share the cache entries of the {@link CacheManager}.  A query can be kept in a constant and reused by any number of
+ * requests:
+ * <pre>{@code
+ * private static final Query LATEST_ARTICLES = DeliveryParameterBuilder.params()
+ *         .filterEquals("system.type", "article")
+ *         .orderByDesc("elements.post_date")
+ *         .page(0, 10)
+ *         .buildQuery();
+ *
+ * client.getItems(ArticleItem.class, LATEST_ARTICLES);
+ * }</pre>
+ *
+ * @see DeliveryClient#getItems(Class, Query)
+ */
+public final class Query {
+
+    private static final Query EMPTY = new Query(Collections.emptyList());
+
+    static final String SYSTEM_TYPE = "system.type";
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final List<NameValuePair> parameters;
+    private final String queryString;
+
+    // The last variant with the system.type parameter added, reused by the calls of a strongly typed method
+    private volatile Query typedVariant;
+
+    private Query(List<NameValuePair> parameters) {
+        final List<NameValuePair> sorted = new ArrayList<>(parameters.size());
+        for (NameValuePair parameter : parameters) {
+            sorted.add(new NameValuePair(parameter.getName(), parameter.getValue()));
+        }
+        // The sort is stable, parameters with the same name keep their order
+        sorted.sort(Comparator.comparing(NameValuePair::getName));
+        this.parameters = sorted;
+
+        final StringBuilder query = new StringBuilder();
+        for (NameValuePair parameter : sorted) {
+            if (query.length() > 0) {
+                query.append('&');
+            }
+            encode(parameter.getName(), query);
+            if (parameter.getValue() != null) {
+                query.append('=');
+                encode(parameter.getValue(), query);
+            }
+        }
+        this.queryString = query.toString();
+    }
+
+    /**
+     * Creates a query of the parameters.
+     *
+     * @param parameters the query parameters, e.g. built by {@link DeliveryParameterBuilder#build()}
+     * @return the query
+     */
+    public static Query of(List<NameValuePair> parameters) {
+        return parameters == null || parameters.isEmpty() ? EMPTY : new Query(parameters);
+    }
+
+    /**
+     * Returns the parameters of this query in the canonical order.
+     *
+     * @return a new list with copies of the parameters
+     */
+    public List<NameValuePair> getParameters() {
+        final List<NameValuePair> copy = new ArrayList<>(parameters.size());
+        for (NameValuePair parameter : parameters) {
+            copy.add(new NameValuePair(parameter.getName(), parameter.getValue()));
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the canonical, URL-encoded query string, without the leading {@code ?}.
+     *
+     * @return the query string, empty when the query has no parameters
+     */
+    public String getQueryString() {
+        return queryString;
+    }
+
+    /**
+     * Returns whether this query has no parameters.
+     *
+     * @return true when the query has no parameters
+     */
+    public boolean isEmpty() {
+        return parameters.isEmpty();
+    }
+
+    String getParameterValue(String name) {
+        for (NameValuePair parameter : parameters) {
+            if (parameter.getName().equals(name)) {
+                return parameter.getValue();
+            }
+        }
+        return null;
+    }
+
+    Query withParameter(NameValuePair parameter) {
+        final List<NameValuePair> extended = new ArrayList<>(parameters);
+        extended.add(parameter);
+        return new Query(extended);
+    }
+
+    /**
+     * Returns this query with the {@code system.type} parameter added.  The variant is built once and reused, so that
+     * the strongly typed calls do not sort and encode the query again.
+     */
+    Query withContentType(String contentType) {
+        final Query cached = typedVariant;
+        if (cached != null && contentType.equals(cached.getParameterValue(SYSTEM_TYPE))) {
+            return cached;
+        }
+        final Query typed = withParameter(new NameValuePair(SYSTEM_TYPE, contentType));
+        typedVariant = typed;
+        return typed;
+    }
+
+    /**
+     * Percent-encodes the UTF-8 bytes of the value, except the unreserved characters of RFC 3986 and the comma
+     * separating the values of a list.
+     */
+    private static void encode(String value, StringBuilder target) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            final char c = (char) (b & 0xff);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~' || c == ',') {
+                target.append(c);
+            } else {
+                target.append('%').append(HEX_DIGITS[(c >> 4) & 0xf]).append(HEX_DIGITS[c & 0xf]);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Query && queryString.equals(((Query) o).queryString));
+    }
+
+    @Override
+    public int hashCode() {
+        return queryString.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return queryString;
+    }
+}
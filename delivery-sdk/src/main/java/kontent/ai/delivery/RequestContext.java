@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+/**
+ * {@link RequestOptions} of a request resolved against the {@link DeliveryOptions}, carried through the cache lookup,
+ * the rate limiter and all the retry attempts of the request.
+ */
+class RequestContext {
+
+    private final CacheMode cacheMode;
+    private final RequestPriority priority;
+    private final boolean waitForLoadingNewContent;
+    private final Duration timeout;
+    private final Instant deadline;
+    private final long deadlineNanos;
+
+    private final CompletableFuture<Void> cancellation = new CompletableFuture<>();
+    private volatile boolean cancelRequested;
+    private volatile BooleanSupplier abortGuard = () -> false;
+
+    private final TracingListener tracingListener;
+    private final Object traceContext;
+    private volatile TraceSpan span = TraceSpan.NOOP;
+
+    RequestContext(RequestOptions requestOptions, DeliveryOptions deliveryOptions) {
+        final RequestOptions options = requestOptions != null ? requestOptions : new RequestOptions();
+        this.waitForLoadingNewContent = options.getWaitForLoadingNewContent() != null
+                ? options.getWaitForLoadingNewContent()
+                : deliveryOptions.isWaitForLoadingNewContent();
+        if (options.getCacheMode() != null) {
+            this.cacheMode = options.getCacheMode();
+        } else {
+            // The global waitForLoadingNewContent setting has always skipped reading the cache
+            this.cacheMode = options.getWaitForLoadingNewContent() == null && deliveryOptions.isWaitForLoadingNewContent()
+                    ? CacheMode.BYPASS_BUT_WRITE
+                    : CacheMode.READ_THROUGH;
+        }
+        this.priority = options.getPriority() != null ? options.getPriority() : RequestPriority.NORMAL;
+        this.timeout = options.getTimeout();
+        this.deadline = options.getDeadline();
+        this.deadlineNanos = deadline != null
+                ? java.lang.System.nanoTime() + Duration.between(Instant.now(), deadline).toNanos()
+                : 0;
+        this.tracingListener = deliveryOptions.getTracingListener();
+        this.traceContext = options.getTraceContext();
+    }
+
+    CacheMode getCacheMode() {
+        return cacheMode;
+    }
+
+    RequestPriority getPriority() {
+        return priority;
+    }
+
+    boolean isWaitForLoadingNewContent() {
+        return waitForLoadingNewContent;
+    }
+
+    Instant getDeadline() {
+        return deadline;
+    }
+
+    boolean hasDeadline() {
+        return deadline != null;
+    }
+
+    /**
+     * Returns the time left until the deadline.
+     *
+     * @return the remaining nanoseconds, {@link Long#MAX_VALUE} when the request has no deadline
+     */
+    long remainingNanos() {
+        return deadline != null ? deadlineNanos - java.lang.System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Tells whether this request gives up no sooner than the other one.
+     *
+     * @param other the other request
+     * @return true if this request has no deadline or its deadline is not earlier than the deadline of the other one
+     */
+    boolean outlasts(RequestContext other) {
+        return deadline == null || other.deadline != null && deadlineNanos - other.deadlineNanos >= 0;
+    }
+
+    /**
+     * Returns the timeout of the next attempt - the request timeout, shortened when the deadline is closer.
+     *
+     * @return the timeout, or null when neither the timeout nor the deadline is set
+     */
+    Duration attemptTimeout() {
+        if (deadline == null) {
+            return timeout;
+        }
+        final Duration remaining = Duration.ofNanos(Math.max(1, remainingNanos()));
+        return timeout == null || remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+
+    /**
+     * Starts the span of the call, unless it has been started already.
+     *
+     * @return the started span, which the caller ends, or {@link TraceSpan#NOOP} when tracing is disabled or the
+     * span has been started already
+     */
+    TraceSpan startSpan(String name) {
+        if (tracingListener == null || span != TraceSpan.NOOP) {
+            return TraceSpan.NOOP;
+        }
+        final TraceSpan startedSpan = tracingListener.startSpan(name, traceContext);
+        if (startedSpan == null) {
+            return TraceSpan.NOOP;
+        }
+        span = startedSpan;
+        return startedSpan;
+    }
+
+    /**
+     * Starts a child span of the span of the call.
+     *
+     * @return the started span, or {@link TraceSpan#NOOP} when the span of the call has not been started
+     */
+    TraceSpan startChildSpan(String name) {
+        return span.startChild(name);
+    }
+
+    /**
+     * Cancels the request - aborts the HTTP call in flight and skips further attempts.  The call is only aborted
+     * once the abort guard allows it, i.e. once the request leads its own call which nobody else has joined.
+     */
+    void cancel() {
+        cancelRequested = true;
+        abortIfAllowed();
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    boolean isCancelled() {
+        return cancellation.isDone();
+    }
+
+    /**
+     * Runs the action when the request is cancelled, right away when it is cancelled already.
+     */
+    void whenCancelled(Runnable action) {
+        cancellation.thenRun(action);
+    }
+
+    /**
+     * Sets the check of whether the call of the request may be aborted, e.g. only when no concurrent caller has
+     * joined it.  A cancellation requested before is applied now.
+     */
+    void setAbortGuard(BooleanSupplier abortGuard) {
+        this.abortGuard = abortGuard;
+        abortIfAllowed();
+    }
+
+    private void abortIfAllowed() {
+        if (cancelRequested && !cancellation.isDone() && abortGuard.getAsBoolean()) {
+            cancellation.complete(null);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Options of a single request, overriding the settings of the {@link DeliveryOptions} for the request.  E.g. an
+ * interactive web request may set a short deadline and a high priority, while a background job refreshing the cache
+ * may use {@link CacheMode#BYPASS_BUT_WRITE} with a low priority.
+ *
+ * @see DeliveryClient#getItems(java.util.List, RequestOptions)
+ */
+@lombok.Data
+@lombok.NoArgsConstructor
+@lombok.AllArgsConstructor
+@lombok.Builder
+public class RequestOptions {
+
+    /**
+     * Sets the absolute deadline of the request, covering the rate limiting, all the retry attempts and the delays
+     * between them.  Attempts are not sent and retries are not scheduled once the deadline would be exceeded, and the
+     * request fails with {@link KontentDeadlineExceededException}.  Defaults to null, i.e. no deadline.
+     *
+     * @param deadline  New value for this RequestOptions instance.
+     * @return          The deadline of the request, or null.
+     */
+    @Builder.Default
+    Instant deadline = null;
+
+    /**
+     * Sets the timeout of each attempt of the request, overriding {@link DeliveryOptions#getCallTimeout()}.  The
+     * timeout is shortened when the {@link #getDeadline()} is closer.  Defaults to null, i.e. the timeouts of the
+     * {@link HttpTransport} apply.
+     *
+     * @param timeout   New value for this RequestOptions instance.
+     * @return          The timeout of each attempt, or null.
+     */
+    @Builder.Default
+    Duration timeout = null;
+
+    /**
+     * Sets how the request uses the cache.  Defaults to null, i.e. {@link CacheMode#READ_THROUGH}, or
+     * {@link CacheMode#BYPASS_BUT_WRITE} when {@link DeliveryOptions#isWaitForLoadingNewContent()} is set and not
+     * overridden by {@link #getWaitForLoadingNewContent()}.
+     *
+     * @param cacheMode New value for this RequestOptions instance.
+     * @return          The cache mode of the request, or null.
+     */
+    @Builder.Default
+    CacheMode cacheMode = null;
+
+    /**
+     * Sets the priority of the request when requests are queued by the rate limiter.  Defaults to
+     * {@link RequestPriority#NORMAL}.
+     *
+     * @param priority  New value for this RequestOptions instance.
+     * @return          The priority of the request.
+     */
+    @Builder.Default
+    RequestPriority priority = RequestPriority.NORMAL;
+
+    /**
+     * Overrides {@link DeliveryOptions#isWaitForLoadingNewContent()} for the request.  Unlike the global setting, it
+     * does not change how the request uses the cache - combine it with {@link CacheMode#BYPASS_BUT_WRITE} to skip the
+     * cached response.  Defaults to null, i.e. the global setting applies.
+     *
+     * @param waitForLoadingNewContent  New value for this RequestOptions instance.
+     * @return                          Whether the request waits for new content, or null.
+     */
+    @Builder.Default
+    Boolean waitForLoadingNewContent = null;
+
+    /**
+     * Sets the context passed to {@link TracingListener#startSpan(String, Object)} when the span of the request is
+     * started, e.g. the current span of the application.  Defaults to null.
+     *
+     * @param traceContext  New value for this RequestOptions instance.
+     * @return              The trace context of the request, or null.
+     */
+    @Builder.Default
+    Object traceContext = null;
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+/**
+ * Limits the share of traffic which may be retries, so that retries cannot amplify an outage of the Kontent.ai API.
+ * <p>
+ * Requests and retries are counted in a sliding window of {@link #WINDOW_SECONDS} one-second buckets. A retry is
+ * allowed while the number of retries in the window stays below {@code ratio} times the number of requests in the
+ * window, plus a small reserve of {@code minRetriesPerSecond} so that a client with little traffic can still retry.
+ */
+class RetryBudget {
+
+    static final int WINDOW_SECONDS = 10;
+
+    private final double ratio;
+    private final int minRetriesPerSecond;
+
+    private final long[] bucketSeconds = new long[WINDOW_SECONDS];
+    private final long[] requests = new long[WINDOW_SECONDS];
+    private final long[] retries = new long[WINDOW_SECONDS];
+
+    RetryBudget(double ratio, int minRetriesPerSecond) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    /**
+     * Records an original (non-retry) request.
+     */
+    synchronized void recordRequest() {
+        requests[bucket(currentSecond())]++;
+    }
+
+    /**
+     * Withdraws a retry from the budget.
+     *
+     * @return true if the retry may be performed, false if the budget is exhausted
+     */
+    synchronized boolean tryAcquire() {
+        final long now = currentSecond();
+        long requestsInWindow = 0;
+        long retriesInWindow = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (now - bucketSeconds[i] < WINDOW_SECONDS) {
+                requestsInWindow += requests[i];
+                retriesInWindow += retries[i];
+            }
+        }
+        final double allowed = (double) minRetriesPerSecond * WINDOW_SECONDS + ratio * requestsInWindow;
+        if (retriesInWindow + 1 > allowed) {
+            return false;
+        }
+        retries[bucket(now)]++;
+        return true;
+    }
+
+    private int bucket(long second) {
+        // System.nanoTime() may be negative, the index must not be
+        final int index = (int) Math.floorMod(second, (long) WINDOW_SECONDS);
+        if (bucketSeconds[index] != second) {
+            bucketSeconds[index] = second;
+            requests[index] = 0;
+            retries[index] = 0;
+        }
+        return index;
+    }
+
+    long currentSecond() {
+        return java.lang.System.nanoTime() / 1_000_000_000L;
+    }
+}
@@ -29,6 +29,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -38,7 +39,11 @@ import java.util.stream.Collectors;
  * It also allows cache to be invalidated based on both the codename and language of content items.
  * This makes it easy to invalidate the cache for incoming webhooks.
  * <p>
- * This implementation mainly serves as an example.
+ * This implementation mainly serves as an example, it keeps every response until it is invalidated.  Use
+ * {@link BoundedInMemoryCacheManager} to limit the memory used by the cache.
+ * <p>
+ * Optionally, the cached responses expire after a time to live, see
+ * {@link #SimpleInMemoryCacheManager(Duration, Duration)}.
  * Do not use this cache manager when your application is deployed as multiple replicas!
  * In that case a centralized cache (e.g. Redis) is advisable.
  */
@@ -47,66 +52,142 @@ public class SimpleInMemoryCacheManager implements CacheManager {
 
     final protected Map<String, JsonNode> cache = Collections.synchronizedMap(new HashMap<>());
 
+    // The validators of the cached responses, kept next to the cache so that it keeps holding plain JsonNodes.
+    // Guarded by the lock of the cache, so that the cache and its validators change together.
+    private final Map<String, CacheEntry> entriesWithValidators = new HashMap<>();
+
     final protected Map<String, Set<String>> tagsForUrls = Collections.synchronizedMap(new HashMap<>());
 
     final protected AtomicInteger queries = new AtomicInteger(0);
     final protected AtomicInteger hits = new AtomicInteger(0);
     final protected AtomicInteger puts = new AtomicInteger(0);
 
+    private final Duration timeToLive;
+    private final Duration staleWhileRevalidate;
+
+    // The System.nanoTime() when the responses were cached, only kept with a time to live.  Guarded by the lock of
+    // the cache.  Responses put directly into the cache by a subclass have no time and never expire.
+    private final Map<String, Long> cachedAtNanos = new HashMap<>();
+
+    public SimpleInMemoryCacheManager() {
+        this(null, null);
+    }
+
+    /**
+     * Creates a cache manager whose responses expire.  Within the stale-while-revalidate window after the time to
+     * live, a response is still served as {@link CacheFreshness#STALE}, while the {@link DeliveryClient} refreshes it
+     * in the background.  Expired responses are kept until they are replaced or invalidated, the client revalidates
+     * them with a conditional request.
+     *
+     * @param timeToLive           the time a cached response is fresh, or null when it never expires
+     * @param staleWhileRevalidate the time after the time to live when a cached response is still served while it is
+     *                             refreshed in the background, or null for none
+     * @throws IllegalArgumentException when the durations are not positive
+     */
+    public SimpleInMemoryCacheManager(Duration timeToLive, Duration staleWhileRevalidate) {
+        CacheFreshness.checkExpiration(timeToLive, staleWhileRevalidate);
+        this.timeToLive = timeToLive;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
     @Override
     public JsonNode get(final String url) {
         log.debug("Cache get");
         queries.incrementAndGet();
 
-
-        JsonNode jsonNode = cache.computeIfPresent(url, (key, val) -> {
+        JsonNode jsonNode = cache.get(url);
+        if (jsonNode != null) {
             log.debug("Cache hit");
             hits.incrementAndGet();
-            return val;
-        });
-
+        }
         return jsonNode;
     }
 
+    @Override
+    public CacheEntry getEntry(final String url) {
+        final CacheEntry cacheEntry;
+        final Long cachedAt;
+        synchronized (cache) {
+            JsonNode jsonNode = get(url);
+            if (jsonNode == null) {
+                return null;
+            }
+            CacheEntry entryWithValidators = entriesWithValidators.get(url);
+            // The validators only apply while the cache holds the response they were stored with
+            cacheEntry = entryWithValidators != null && entryWithValidators.getJsonNode() == jsonNode
+                    ? entryWithValidators
+                    : new CacheEntry(jsonNode);
+            cachedAt = cachedAtNanos.get(url);
+        }
+        if (timeToLive == null || cachedAt == null) {
+            return cacheEntry;
+        }
+        final Duration age = Duration.ofNanos(java.lang.System.nanoTime() - cachedAt);
+        return cacheEntry.withFreshness(CacheFreshness.of(age, timeToLive, staleWhileRevalidate), age);
+    }
+
     @Override
     public void put(final String url, final JsonNode jsonNode, final List<ContentItem> containedContentItems) {
         puts.incrementAndGet();
-        cache.put(url, jsonNode);
+        synchronized (cache) {
+            cache.put(url, jsonNode);
+            entriesWithValidators.remove(url);
+            if (timeToLive != null) {
+                cachedAtNanos.put(url, java.lang.System.nanoTime());
+            }
+        }
 
         // Store tags that point to the given url.
         // Tags are created for every code_name+language combination that can be determined from the given containedContentItems
         Optional.ofNullable(containedContentItems)
-                .map(this::createCacheTags)
+                .map(SimpleInMemoryCacheManager::createCacheTags)
                 .orElse(Collections.emptySet())
                 .forEach(cacheTag -> getUrlsForTag(cacheTag).add(url));
     }
 
+    @Override
+    public void put(final String url, final CacheEntry cacheEntry, final List<ContentItem> containedContentItems) {
+        synchronized (cache) {
+            put(url, cacheEntry.getJsonNode(), containedContentItems);
+            if (cacheEntry.hasValidators()) {
+                entriesWithValidators.put(url, cacheEntry);
+            }
+        }
+    }
+
     public void invalidate(final String url) {
-        cache.remove(url);
+        synchronized (cache) {
+            cache.remove(url);
+            entriesWithValidators.remove(url);
+            cachedAtNanos.remove(url);
+        }
     }
 
     public void invalidate(final CacheTag cacheTag) {
-        // Possible race condition
-        Set<String> urls = getUrlsForTag(cacheTag);
-        urls.forEach(url -> {
-            invalidate(url);
-            urls.remove(url);
-        });
+        // Detach the tag first, urls put concurrently are then tracked under a fresh set
+        Set<String> urls = tagsForUrls.remove(cacheTag.toString());
+        if (urls != null) {
+            // Copied, so that the lock of the set is not held while taking the lock of the cache
+            final List<String> detachedUrls;
+            synchronized (urls) {
+                detachedUrls = new ArrayList<>(urls);
+            }
+            detachedUrls.forEach(this::invalidate);
+        }
     }
 
     private Set<String> getUrlsForTag(final CacheTag cacheTag) {
-        tagsForUrls.putIfAbsent(cacheTag.toString(), Collections.synchronizedSet(new HashSet<>()));
-        return tagsForUrls.get(cacheTag.toString());
+        return tagsForUrls.computeIfAbsent(cacheTag.toString(), tag -> Collections.synchronizedSet(new HashSet<>()));
     }
 
-    private Set<CacheTag> createCacheTags(final List<ContentItem> containedContentItems) {
+    static Set<CacheTag> createCacheTags(final List<ContentItem> containedContentItems) {
         return containedContentItems.stream()
-                .map(this::createCacheTags)
+                .map(SimpleInMemoryCacheManager::createCacheTags)
                 .flatMap(Set::stream)
                 .collect(Collectors.toSet());
     }
 
-    private Set<CacheTag> createCacheTags(final ContentItem contentItem) {
+    private static Set<CacheTag> createCacheTags(final ContentItem contentItem) {
         Set<CacheTag> tags = new HashSet<>();
         tags.add(new CacheTag(contentItem));
 
@@ -119,6 +200,14 @@ public class SimpleInMemoryCacheManager implements CacheManager {
         return tags;
     }
 
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
     @Data
     @AllArgsConstructor
     public static class CacheTag {
@@ -42,6 +42,7 @@ public class StronglyTypedContentItemConverter {
     private HashMap<String, String> contentTypeToClassNameMapping = new HashMap<>();
     private HashMap<String, String> classNameToContentTypeMapping = new HashMap<>();
     private HashMap<String, InlineContentItemsResolver> typeNameToInlineResolverMapping = new HashMap<>();
+    private MetricsListener metricsListener;
 
     protected StronglyTypedContentItemConverter() {
         //protected constructor
@@ -134,7 +135,51 @@ public class StronglyTypedContentItemConverter {
         return convert(item, linkedItems, mappingClass);
     }
 
+    void setMetricsListener(MetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
     <T> T convert(ContentItem item, Map<String, ContentItem> linkedItems, Class<T> tClass) {
+        final FlightRecorderEvents.Conversion event = new FlightRecorderEvents.Conversion();
+        event.begin();
+        final T converted = convertMeasured(item, linkedItems, tClass);
+        commitConversionEvent(event, tClass, 1);
+        return converted;
+    }
+
+    <T> List<T> convert(List<ContentItem> items, Map<String, ContentItem> linkedItems, Class<T> tClass) {
+        final FlightRecorderEvents.Conversion event = new FlightRecorderEvents.Conversion();
+        event.begin();
+        final List<T> converted = new ArrayList<>(items.size());
+        for (ContentItem item : items) {
+            converted.add(convertMeasured(item, linkedItems, tClass));
+        }
+        commitConversionEvent(event, tClass, items.size());
+        return converted;
+    }
+
+    private static void commitConversionEvent(FlightRecorderEvents.Conversion event, Class<?> tClass, int itemCount) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.targetClass = tClass;
+            event.itemCount = itemCount;
+            event.commit();
+        }
+    }
+
+    private <T> T convertMeasured(ContentItem item, Map<String, ContentItem> linkedItems, Class<T> tClass) {
+        if (metricsListener == null) {
+            return convertItem(item, linkedItems, tClass);
+        }
+        final long start = java.lang.System.nanoTime();
+        try {
+            return convertItem(item, linkedItems, tClass);
+        } finally {
+            metricsListener.onConversion(java.lang.System.nanoTime() - start);
+        }
+    }
+
+    private <T> T convertItem(ContentItem item, Map<String, ContentItem> linkedItems, Class<T> tClass) {
         if (tClass == Object.class) {
             String className = contentTypeToClassNameMapping.get(item.getSystem().getType());
             if (className == null) {
@@ -149,7 +194,7 @@ public class StronglyTypedContentItemConverter {
             if (mappingClass == null) {
                 return (T) item;
             }
-            return (T) convert(item, linkedItems, mappingClass);
+            return (T) convertItem(item, linkedItems, mappingClass);
         }
         if (tClass == ContentItem.class) {
             return (T) item;
@@ -235,7 +280,7 @@ public class StronglyTypedContentItemConverter {
         }
         Map<String, ContentItem> linkedItemsForRecursion =
                 copyLinkedItemsWithExclusion(linkedItems, codename);
-        return convert(linkedItemsItem, linkedItemsForRecursion, clazz);
+        return convertItem(linkedItemsItem, linkedItemsForRecursion, clazz);
     }
 
     private Object getCastedLinkedItemsForListOrMap(
@@ -265,7 +310,7 @@ public class StronglyTypedContentItemConverter {
                     Map<String, ContentItem> linkedItemsForRecursion =
                             copyLinkedItemsWithExclusion(linkedItems, entry.getKey());
                     convertedLinkedItems.put(entry.getKey(),
-                            convert(entry.getValue(), linkedItemsForRecursion, listClass));
+                            convertItem(entry.getValue(), linkedItemsForRecursion, listClass));
                 }
             }
             return castCollection(field.getType(), convertedLinkedItems);
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A change of a content item returned by the Sync API.
+ *
+ * @see DeliveryClient#sync(ContinuationTokenStore, SyncListener)
+ * @see <a href="https://kontent.ai/learn/reference/delivery-api#tag/Sync">Kontent.ai API reference - Sync</a>
+ */
+@lombok.Data
+@lombok.NoArgsConstructor
+@lombok.AllArgsConstructor
+@lombok.Builder
+public class SyncItem {
+
+    /**
+     * The content item as of the change - the system attributes and the elements.  The linked items of the content
+     * item are not included.
+     *
+     * @param data  Sets the data of this.
+     * @return      The changed {@link ContentItem}.
+     */
+    @JsonProperty("data")
+    ContentItem data;
+
+    /**
+     * Whether the content item was changed or deleted.
+     *
+     * @param changeType    Sets the change type of this.
+     * @return              The {@link SyncChangeType} of the change.
+     */
+    @JsonProperty("change_type")
+    SyncChangeType changeType;
+
+    /**
+     * When the change happened.
+     *
+     * @param timestamp Sets the timestamp of this.
+     * @return          The time of the change.
+     */
+    @JsonProperty("timestamp")
+    ZonedDateTime timestamp;
+
+    /**
+     * Convenience method returning the codename of the changed content item.
+     *
+     * @return the codename of the content item
+     */
+    public String getCodename() {
+        return data.getSystem().getCodename();
+    }
+
+    /**
+     * Convenience method returning the language of the changed content item.
+     *
+     * @return the codename of the language variant
+     */
+    public String getLanguage() {
+        return data.getSystem().getLanguage();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+/**
+ * Span of a call of the {@link DeliveryClient} or of one of its stages, started by a {@link TracingListener}.
+ */
+public interface TraceSpan {
+
+    /**
+     * Span doing nothing, used when tracing is disabled.
+     */
+    TraceSpan NOOP = new TraceSpan() {
+        @Override
+        public TraceSpan startChild(String name) {
+            return this;
+        }
+
+        @Override
+        public void end(Throwable error) {
+        }
+    };
+
+    /**
+     * Starts a child span of this span.
+     *
+     * @param name the name of the child span
+     * @return the started child span
+     */
+    TraceSpan startChild(String name);
+
+    /**
+     * Sets an attribute of this span.  Does nothing by default.
+     *
+     * @param key   the name of the attribute
+     * @param value the value of the attribute
+     */
+    default void setAttribute(String key, Object value) {
+    }
+
+    /**
+     * Ends this span.
+     *
+     * @param error the error the traced work failed with, or null when it succeeded
+     */
+    void end(Throwable error);
+}
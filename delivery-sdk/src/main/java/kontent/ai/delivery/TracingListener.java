@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+/**
+ * Listener starting the spans of the calls of the {@link DeliveryClient}, e.g. to bridge them to the tracer of the
+ * application.
+ * <p>
+ * A span is started per logical call, e.g. {@code kontent.getItem}, or per API request made outside of such a call,
+ * with child spans for the stages of the call:
+ * <ul>
+ * <li>{@code kontent.cache.get} - the lookup in the {@link CacheManager}</li>
+ * <li>{@code kontent.http} - each attempt of the HTTP request, with the {@code attempt} attribute</li>
+ * <li>{@code kontent.retry.backoff} - the delay before a retry</li>
+ * <li>{@code kontent.bind} - binding the JSON of the response</li>
+ * <li>{@code kontent.cache.put} - storing the response in the {@link CacheManager}</li>
+ * <li>{@code kontent.rich_text} - resolving the rich text elements, including the inline content item templates</li>
+ * </ul>
+ * The spans are started and ended on the threads doing the work, so the implementations must be thread-safe.  When
+ * no listener is set, tracing is skipped altogether.
+ *
+ * @see DeliveryOptions#setTracingListener(TracingListener)
+ * @see RequestOptions#setTraceContext(Object)
+ */
+@FunctionalInterface
+public interface TracingListener {
+
+    /**
+     * Starts the span of a call.
+     *
+     * @param name          the name of the span
+     * @param parentContext the context supplied by the caller with {@link RequestOptions#getTraceContext()}, e.g. the
+     *                      span of the application the call belongs to, or null
+     * @return the started span, or null to skip tracing of the call
+     */
+    TraceSpan startSpan(String name, Object parentContext);
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder events of the {@link DeliveryClient}, recorded in the {@code Kontent.ai} category.  The events
+ * are enabled with no threshold by default, a threshold can be set per event in the settings of the recording.
+ */
+final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Returns whether the events are recorded by the JDK Flight Recorder on the current Java runtime.
+     *
+     * @return true on Java 11 and newer
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    @Name("kontent.delivery.HttpRequest")
+    @Label("HTTP Request")
+    @Category({"Kontent.ai", "Delivery SDK"})
+    @Description("An attempt of a request to the Delivery API, until its response body is read")
+    static class HttpRequest extends Event {
+
+        @Label("Method")
+        String method;
+
+        @Label("Endpoint")
+        @Description("The API path with the codenames replaced by *")
+        String endpoint;
+
+        @Label("Status")
+        @Description("The HTTP status code, 0 when no response was received")
+        int status;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("kontent.delivery.CacheGet")
+    @Label("Cache Get")
+    @Category({"Kontent.ai", "Delivery SDK"})
+    static class CacheGet extends Event {
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Hit")
+        @Description("Whether a fresh cache entry was found")
+        boolean hit;
+    }
+
+    @Name("kontent.delivery.CachePut")
+    @Label("Cache Put")
+    @Category({"Kontent.ai", "Delivery SDK"})
+    static class CachePut extends Event {
+
+        @Label("Endpoint")
+        String endpoint;
+    }
+
+    @Name("kontent.delivery.Retry")
+    @Label("Retry")
+    @Category({"Kontent.ai", "Delivery SDK"})
+    @Description("The delay before a failed request is reattempted")
+    static class Retry extends Event {
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Attempt")
+        int attempt;
+
+        @Label("Reason")
+        String reason;
+    }
+
+    @Name("kontent.delivery.Conversion")
+    @Label("Strongly Typed Conversion")
+    @Category({"Kontent.ai", "Delivery SDK"})
+    static class Conversion extends Event {
+
+        @Label("Target Class")
+        Class<?> targetClass;
+
+        @Label("Item Count")
+        int itemCount;
+    }
+}
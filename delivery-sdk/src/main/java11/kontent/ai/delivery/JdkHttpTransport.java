@@ -0,0 +1,271 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * {@link HttpTransport} backed by {@code java.net.http.HttpClient}, which negotiates HTTP/2 and multiplexes the
+ * concurrent requests over a single connection.  Using it drops the need for OkHttp at runtime on server deployments.
+ * <p>
+ * The client is configured by the proxy, connect timeout, read/call timeout and max concurrent requests of the
+ * {@link DeliveryOptions}.  The connection pool settings do not apply, the JDK client manages its connections itself.
+ * Create it with {@link #create(DeliveryOptions)}.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxConcurrentRequests;
+
+    // A queued call returns false when it was cancelled while queued, and so did not start
+    private final Queue<BooleanSupplier> queuedRequests = new ArrayDeque<>();
+    private int runningRequests = 0;
+
+    private JdkHttpTransport(DeliveryOptions deliveryOptions) {
+        final HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (!deliveryOptions.getConnectTimeout().isZero()) {
+            builder.connectTimeout(deliveryOptions.getConnectTimeout());
+        }
+        if (deliveryOptions.getProxyServer() != null) {
+            final Proxy proxy = deliveryOptions.getProxyServer();
+            builder.proxy(new ProxySelector() {
+                @Override
+                public List<Proxy> select(URI uri) {
+                    return Collections.singletonList(proxy);
+                }
+
+                @Override
+                public void connectFailed(URI uri, SocketAddress address, IOException e) {
+                }
+            });
+        }
+        this.httpClient = builder.build();
+        // The JDK client has no read timeout, the request timeout covers the time until the response headers arrive
+        this.requestTimeout = !deliveryOptions.getCallTimeout().isZero()
+                ? deliveryOptions.getCallTimeout()
+                : deliveryOptions.getReadTimeout();
+        this.maxConcurrentRequests = deliveryOptions.getMaxConcurrentRequests();
+    }
+
+    /**
+     * Creates the transport configured by the http settings of the {@link DeliveryOptions}, when the current Java
+     * runtime supports it.
+     *
+     * @param deliveryOptions the options to configure the client from
+     * @return the transport, or empty when running on Java older than 11
+     */
+    public static Optional<HttpTransport> create(DeliveryOptions deliveryOptions) {
+        return Optional.of(new JdkHttpTransport(deliveryOptions));
+    }
+
+    /**
+     * Returns whether this transport can be used on the current Java runtime.
+     *
+     * @return true on Java 11 and newer
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    @Override
+    public CompletionStage<HttpTransportResponse> send(HttpTransportRequest request) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl()))
+                .method(request.getMethod(), HttpRequest.BodyPublishers.noBody())
+                .header(HEADER_ACCEPT_ENCODING, "gzip");
+        if (request.getTimeout() != null) {
+            builder.timeout(request.getTimeout());
+        } else if (!requestTimeout.isZero()) {
+            builder.timeout(requestTimeout);
+        }
+        for (Header header : request.getHeaders()) {
+            builder.setHeader(header.getName(), header.getValue());
+        }
+        final HttpRequest httpRequest = builder.build();
+
+        final CompletableFuture<HttpTransportResponse> future = new CompletableFuture<>();
+        enqueue(() -> {
+            if (future.isCancelled()) {
+                return false;
+            }
+            final CompletableFuture<HttpResponse<InputStream>> call =
+                    httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+            future.whenComplete((response, error) -> {
+                if (future.isCancelled()) {
+                    call.cancel(true);
+                }
+            });
+            call.whenComplete((response, error) -> {
+                finished();
+                if (error != null) {
+                    future.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error);
+                } else if (!future.complete(toTransportResponse(response))) {
+                    // Cancelled in the meantime
+                    closeQuietly(response.body());
+                }
+            });
+            return true;
+        });
+        return future;
+    }
+
+    @Override
+    public synchronized int getQueuedRequestCount() {
+        return queuedRequests.size();
+    }
+
+    @Override
+    public synchronized int getRunningRequestCount() {
+        return runningRequests;
+    }
+
+    /**
+     * Returns the underlying {@code java.net.http.HttpClient}.
+     *
+     * @return the http client of this transport
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    private void enqueue(BooleanSupplier call) {
+        synchronized (this) {
+            if (runningRequests >= maxConcurrentRequests) {
+                queuedRequests.add(call);
+                return;
+            }
+            runningRequests++;
+        }
+        if (!call.getAsBoolean()) {
+            finished();
+        }
+    }
+
+    /**
+     * Hands the slot of a finished call to the next queued call.  The calls cancelled while queued are skipped in a
+     * loop, so that a long run of them does not grow the stack.
+     */
+    private void finished() {
+        while (true) {
+            final BooleanSupplier next;
+            synchronized (this) {
+                next = queuedRequests.poll();
+                if (next == null) {
+                    runningRequests--;
+                    return;
+                }
+            }
+            if (next.getAsBoolean()) {
+                return;
+            }
+        }
+    }
+
+    private static HttpTransportResponse toTransportResponse(HttpResponse<InputStream> response) {
+        final InputStream body =
+                "gzip".equalsIgnoreCase(response.headers().firstValue(HEADER_CONTENT_ENCODING).orElse(null))
+                        ? new GzipBody(response.body())
+                        : response.body();
+        return new HttpTransportResponse(response.statusCode(), response.headers().map(), body);
+    }
+
+    private static void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Decompresses the body lazily, so that reading the gzip header does not block the thread completing the response.
+     */
+    private static final class GzipBody extends FilterInputStream {
+
+        private boolean started = false;
+
+        GzipBody(InputStream body) {
+            super(body);
+        }
+
+        private void start() throws IOException {
+            if (!started) {
+                started = true;
+                in = new GZIPInputStream(in);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            start();
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            start();
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            start();
+            return in.skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            start();
+            return in.available();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Default executors of the {@link DeliveryClient}, using virtual threads on Java 21+.
+ */
+final class DefaultExecutors {
+
+    /**
+     * Virtual threads are cheap to create and park instead of blocking a platform thread, e.g. when a
+     * {@link CacheManager} waits for a remote cache.  The executor holds no idle threads, so it is never shut down.
+     */
+    private static final ExecutorService VIRTUAL_THREAD_EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("kontent-delivery-", 0).factory());
+
+    private DefaultExecutors() {
+    }
+
+    /**
+     * Returns the executor used when {@link DeliveryOptions#getExecutor()} is not set.
+     *
+     * @return an executor starting a new virtual thread per task
+     */
+    static Executor responseExecutor() {
+        return VIRTUAL_THREAD_EXECUTOR;
+    }
+
+    /**
+     * Returns the executor used when {@link DeliveryOptions#getBlockingExecutor()} is not set.
+     *
+     * @return an executor starting a new virtual thread per task
+     */
+    static Executor blockingExecutor() {
+        return VIRTUAL_THREAD_EXECUTOR;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncRateLimiterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void shutdownScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testUnlimitedRateNeverQueues() {
+        AsyncRateLimiter rateLimiter = new AsyncRateLimiter(0, scheduler);
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(rateLimiter.acquire().toCompletableFuture().isDone());
+        }
+    }
+
+    @Test
+    public void testBurstIsLimitedAndQueuedCallersAreReleasedLater() throws Exception {
+        AsyncRateLimiter rateLimiter = new AsyncRateLimiter(20, scheduler);
+
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(rateLimiter.acquire().toCompletableFuture().isDone());
+        }
+        CompletableFuture<Void> queued = rateLimiter.acquire().toCompletableFuture();
+        Assert.assertFalse(queued.isDone());
+
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testQueuedCallersAreReleasedByPriority() throws Exception {
+        AsyncRateLimiter rateLimiter = new AsyncRateLimiter(20, scheduler);
+        for (int i = 0; i < 20; i++) {
+            rateLimiter.acquire();
+        }
+
+        List<RequestPriority> released = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<?>[] permits = new CompletableFuture<?>[3];
+        RequestPriority[] priorities = {RequestPriority.LOW, RequestPriority.NORMAL, RequestPriority.HIGH};
+        for (int i = 0; i < priorities.length; i++) {
+            RequestPriority priority = priorities[i];
+            permits[i] = rateLimiter.acquire(priority).thenRun(() -> released.add(priority)).toCompletableFuture();
+        }
+        CompletableFuture.allOf(permits).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(
+                Arrays.asList(RequestPriority.HIGH, RequestPriority.NORMAL, RequestPriority.LOW), released);
+    }
+
+    @Test
+    public void testPauseHoldsBackCallers() throws Exception {
+        AsyncRateLimiter rateLimiter = new AsyncRateLimiter(0, scheduler);
+
+        rateLimiter.pause(200);
+        long start = java.lang.System.nanoTime();
+        rateLimiter.acquire().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        Assert.assertTrue(java.lang.System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+}
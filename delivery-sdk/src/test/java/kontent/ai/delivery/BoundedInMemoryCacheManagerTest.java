@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+
+public class BoundedInMemoryCacheManagerTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testKeepsFrequentlyUsedResponses() throws Exception {
+        JsonNode response = objectMapper.readTree("{\"item\": {\"system\": {\"codename\": \"on_roasts\"}}}");
+        long entryWeight = BoundedInMemoryCacheManager.weigh("https://example.com/items/item_000", new CacheEntry(response));
+        BoundedInMemoryCacheManager cache = new BoundedInMemoryCacheManager(10 * entryWeight);
+
+        cache.put("https://example.com/items/hot_item", response, null);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNotNull(cache.get("https://example.com/items/hot_item"));
+        }
+        // A scan of responses requested only once does not flush the frequently requested one
+        for (int i = 0; i < 100; i++) {
+            cache.put(String.format("https://example.com/items/item_%03d", i), response, null);
+        }
+
+        Assert.assertNotNull(cache.get("https://example.com/items/hot_item"));
+        Assert.assertTrue(cache.getWeightedSize() <= cache.getMaximumWeight());
+        Assert.assertTrue(cache.size() <= 10);
+        Assert.assertEquals(101 - cache.size(), cache.getEvictionCount());
+        Assert.assertEquals(11, cache.getHitCount());
+
+        // A response larger than the whole cache is not cached
+        cache.put("https://example.com/items", objectMapper.readTree(
+                String.format("{\"items\": \"%s\"}", String.join("", Collections.nCopies((int) entryWeight * 10, "x")))),
+                null);
+        Assert.assertNull(cache.get("https://example.com/items"));
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testKeepsFrequentlyUsedResponsesWhileGrowing() throws Exception {
+        JsonNode response = objectMapper.readTree("{\"item\": {\"system\": {\"codename\": \"on_roasts\"}}}");
+        long entryWeight = BoundedInMemoryCacheManager.weigh("https://example.com/items/item_000", new CacheEntry(response));
+        BoundedInMemoryCacheManager cache = new BoundedInMemoryCacheManager(200 * entryWeight);
+
+        cache.put("https://example.com/items/hot_item", response, null);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNotNull(cache.get("https://example.com/items/hot_item"));
+        }
+        // The frequency of the hot response is kept while the cache grows past the initial size of the sketch
+        for (int i = 0; i < 1000; i++) {
+            cache.put(String.format("https://example.com/items/item_%03d", i), response, null);
+        }
+
+        Assert.assertNotNull(cache.get("https://example.com/items/hot_item"));
+        Assert.assertTrue(cache.size() > 100);
+    }
+
+    @Test
+    public void testWeightedSizeStaysWithinMaximumWeight() throws Exception {
+        JsonNode response = objectMapper.readTree("{\"item\": {\"system\": {\"codename\": \"on_roasts\"}}}");
+        JsonNode largeResponse = objectMapper.readTree(
+                String.format("{\"items\": \"%s\"}", String.join("", Collections.nCopies(2000, "x"))));
+        long entryWeight = BoundedInMemoryCacheManager.weigh("https://example.com/items/item_000", new CacheEntry(response));
+        long largeWeight = BoundedInMemoryCacheManager.weigh("https://example.com/items", new CacheEntry(largeResponse));
+        Assert.assertTrue(largeWeight > 5 * entryWeight);
+        BoundedInMemoryCacheManager cache = new BoundedInMemoryCacheManager(largeWeight + 20 * entryWeight);
+
+        cache.put("https://example.com/items", largeResponse, null);
+        Assert.assertEquals(largeWeight, cache.getWeightedSize());
+        for (int i = 0; i < 100; i++) {
+            cache.put(String.format("https://example.com/items/item_%03d", i), response, null);
+            Assert.assertTrue(cache.getWeightedSize() <= cache.getMaximumWeight());
+        }
+        Assert.assertTrue(cache.getEvictionCount() > 0);
+
+        // Replacing a response replaces its weight
+        cache.put("https://example.com/items/item_099", response, null);
+        long weightedSize = cache.getWeightedSize();
+        cache.put("https://example.com/items/item_099", response, null);
+        Assert.assertEquals(weightedSize, cache.getWeightedSize());
+
+        cache.invalidate("https://example.com/items/item_099");
+        Assert.assertNull(cache.get("https://example.com/items/item_099"));
+        Assert.assertEquals(weightedSize - entryWeight, cache.getWeightedSize());
+    }
+
+    @Test
+    public void testResponsesExpireAfterTimeToLive() throws Exception {
+        JsonNode response = objectMapper.readTree("{\"item\": {\"system\": {\"codename\": \"on_roasts\"}}}");
+        BoundedInMemoryCacheManager fresh = new BoundedInMemoryCacheManager(1_000_000, Duration.ofHours(1), null);
+        BoundedInMemoryCacheManager stale =
+                new BoundedInMemoryCacheManager(1_000_000, Duration.ofNanos(1), Duration.ofHours(1));
+        BoundedInMemoryCacheManager expired = new BoundedInMemoryCacheManager(1_000_000, Duration.ofNanos(1), null);
+        BoundedInMemoryCacheManager neverExpiring = new BoundedInMemoryCacheManager(1_000_000);
+        for (BoundedInMemoryCacheManager cache : new BoundedInMemoryCacheManager[]{fresh, stale, expired, neverExpiring}) {
+            cache.put("https://example.com/items/on_roasts", response, null);
+        }
+        Thread.sleep(5);
+
+        Assert.assertEquals(CacheFreshness.FRESH, fresh.getEntry("https://example.com/items/on_roasts").getFreshness());
+        Assert.assertEquals(CacheFreshness.STALE, stale.getEntry("https://example.com/items/on_roasts").getFreshness());
+        Assert.assertEquals(CacheFreshness.EXPIRED,
+                expired.getEntry("https://example.com/items/on_roasts").getFreshness());
+        Assert.assertEquals(CacheFreshness.FRESH,
+                neverExpiring.getEntry("https://example.com/items/on_roasts").getFreshness());
+        Assert.assertNull(neverExpiring.getEntry("https://example.com/items/on_roasts").getAge());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaximumWeightMustBePositive() {
+        new BoundedInMemoryCacheManager(0);
+    }
+}
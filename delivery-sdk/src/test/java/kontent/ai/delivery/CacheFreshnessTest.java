@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class CacheFreshnessTest {
+
+    @Test
+    public void testFreshnessByAge() {
+        Duration timeToLive = Duration.ofMinutes(5);
+        Duration staleWhileRevalidate = Duration.ofMinutes(1);
+
+        Assert.assertEquals(CacheFreshness.FRESH,
+                CacheFreshness.of(Duration.ofMinutes(4), timeToLive, staleWhileRevalidate));
+        Assert.assertEquals(CacheFreshness.STALE,
+                CacheFreshness.of(Duration.ofMinutes(5), timeToLive, staleWhileRevalidate));
+        Assert.assertEquals(CacheFreshness.STALE,
+                CacheFreshness.of(Duration.ofSeconds(359), timeToLive, staleWhileRevalidate));
+        Assert.assertEquals(CacheFreshness.EXPIRED,
+                CacheFreshness.of(Duration.ofMinutes(6), timeToLive, staleWhileRevalidate));
+    }
+
+    @Test
+    public void testWithoutStaleWhileRevalidateEntriesExpireAfterTimeToLive() {
+        Assert.assertEquals(CacheFreshness.EXPIRED,
+                CacheFreshness.of(Duration.ofMinutes(5), Duration.ofMinutes(5), null));
+    }
+
+    @Test
+    public void testWithoutTimeToLiveEntriesNeverExpire() {
+        Assert.assertEquals(CacheFreshness.FRESH, CacheFreshness.of(Duration.ofDays(365), null, null));
+    }
+
+    @Test
+    public void testExpirationSettingsAreChecked() {
+        CacheFreshness.checkExpiration(null, null);
+        CacheFreshness.checkExpiration(Duration.ofMinutes(5), Duration.ZERO);
+
+        assertRejected(Duration.ZERO, null);
+        assertRejected(Duration.ofMinutes(-5), null);
+        assertRejected(Duration.ofMinutes(5), Duration.ofMinutes(-1));
+        assertRejected(null, Duration.ofMinutes(1));
+    }
+
+    private static void assertRejected(Duration timeToLive, Duration staleWhileRevalidate) {
+        try {
+            CacheFreshness.checkExpiration(timeToLive, staleWhileRevalidate);
+            Assert.fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    public void testOpensWhenFailureRateReachesThreshold() {
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options().build());
+
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, false);
+        }
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, true);
+        }
+        Assert.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, true);
+        Assert.assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+
+        circuitBreaker.nanos += TimeUnit.SECONDS.toNanos(10);
+        try {
+            circuitBreaker.acquirePermission();
+            Assert.fail("Expected KontentCircuitBreakerOpenException");
+        } catch (KontentCircuitBreakerOpenException e) {
+            Assert.assertEquals(Duration.ofSeconds(20), e.getRetryAfter());
+        }
+    }
+
+    @Test
+    public void testNotOpenedBeforeMinimumNumberOfCalls() {
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options().build());
+
+        for (int i = 0; i < 9; i++) {
+            circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, true);
+        }
+        Assert.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOpensWhenSlowCallRateReachesThreshold() {
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options().slowCallRateThreshold(0.5).build());
+
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, false);
+            circuitBreaker.record(circuitBreaker.acquirePermission(), SLOW, false);
+        }
+        Assert.assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOutcomesLeaveSlidingWindow() {
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options().build());
+
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, true);
+        }
+        for (int i = 0; i < 20; i++) {
+            circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, false);
+        }
+        // The window holds the last 20 calls, only one of them failed
+        circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, true);
+        Assert.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testClosesAfterSuccessfulProbes() {
+        List<String> transitions = new ArrayList<>();
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options()
+                .listener((previousState, newState) -> transitions.add(previousState + "->" + newState))
+                .build());
+        open(circuitBreaker);
+
+        circuitBreaker.nanos += TimeUnit.SECONDS.toNanos(30);
+        long first = circuitBreaker.acquirePermission();
+        long second = circuitBreaker.acquirePermission();
+        Assert.assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.getState());
+        try {
+            circuitBreaker.acquirePermission();
+            Assert.fail("Expected KontentCircuitBreakerOpenException");
+        } catch (KontentCircuitBreakerOpenException e) {
+            Assert.assertEquals(Duration.ZERO, e.getRetryAfter());
+        }
+
+        circuitBreaker.record(first, FAST, false);
+        circuitBreaker.record(second, FAST, false);
+        Assert.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+        Assert.assertEquals(3, transitions.size());
+        Assert.assertEquals("OPEN->HALF_OPEN", transitions.get(1));
+        Assert.assertEquals("HALF_OPEN->CLOSED", transitions.get(2));
+    }
+
+    @Test
+    public void testReopensAfterFailedProbe() {
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options().build());
+        open(circuitBreaker);
+
+        circuitBreaker.nanos += TimeUnit.SECONDS.toNanos(30);
+        circuitBreaker.record(circuitBreaker.acquirePermission(), SLOW, false);
+
+        Assert.assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testReleasedProbeLetsAnotherProbeThrough() {
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options().permittedCallsInHalfOpenState(1).build());
+        open(circuitBreaker);
+
+        circuitBreaker.nanos += TimeUnit.SECONDS.toNanos(30);
+        circuitBreaker.release(circuitBreaker.acquirePermission());
+        circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, false);
+
+        Assert.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testOutcomesOfOlderGenerationAreIgnored() {
+        TestCircuitBreaker circuitBreaker = new TestCircuitBreaker(options().build());
+        long beforeOpening = circuitBreaker.acquirePermission();
+        open(circuitBreaker);
+
+        circuitBreaker.nanos += TimeUnit.SECONDS.toNanos(30);
+        long probe = circuitBreaker.acquirePermission();
+        // The slow call started before the circuit opened does not fail the probing
+        circuitBreaker.record(beforeOpening, SLOW, true);
+        Assert.assertEquals(CircuitBreakerState.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.record(probe, FAST, false);
+        circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, false);
+        Assert.assertEquals(CircuitBreakerState.CLOSED, circuitBreaker.getState());
+    }
+
+    private static CircuitBreakerOptions.CircuitBreakerOptionsBuilder options() {
+        return CircuitBreakerOptions.builder()
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .failureRateThreshold(0.5)
+                .slowCallDuration(Duration.ofSeconds(1))
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .permittedCallsInHalfOpenState(2);
+    }
+
+    private static void open(CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.record(circuitBreaker.acquirePermission(), FAST, true);
+        }
+        Assert.assertEquals(CircuitBreakerState.OPEN, circuitBreaker.getState());
+    }
+
+    static class TestCircuitBreaker extends CircuitBreaker {
+
+        long nanos = 1_000_000_000L;
+
+        TestCircuitBreaker(CircuitBreakerOptions options) {
+            super(options);
+        }
+
+        @Override
+        long currentNanos() {
+            return nanos;
+        }
+    }
+}
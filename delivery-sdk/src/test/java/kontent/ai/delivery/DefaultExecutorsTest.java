@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+public class DefaultExecutorsTest {
+
+    @Test
+    public void testBlockingExecutorRunsDaemonThreadsOutsideCommonPool() throws Exception {
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, DefaultExecutors.blockingExecutor())
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertNotSame(Thread.currentThread(), thread);
+        Assert.assertFalse(thread instanceof ForkJoinWorkerThread);
+        Assert.assertTrue(thread.isDaemon());
+        Assert.assertTrue(thread.getName().startsWith("kontent-delivery-"));
+    }
+
+    @Test
+    public void testExecutorsUseVirtualThreadsOnJava21() throws Exception {
+        // The Java 21 version of the class is only on the classpath of the tests run on JDK 21
+        Assume.assumeTrue(isVirtualThreadSupported());
+
+        Thread responseThread = CompletableFuture.supplyAsync(Thread::currentThread, DefaultExecutors.responseExecutor())
+                .get(5, TimeUnit.SECONDS);
+        Thread blockingThread = CompletableFuture.supplyAsync(Thread::currentThread, DefaultExecutors.blockingExecutor())
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertTrue(isVirtual(responseThread));
+        Assert.assertTrue(isVirtual(blockingThread));
+    }
+
+    private static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("isVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
@@ -29,6 +29,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.OkHttpClient;
 import org.apache.http.HttpHost;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URLEncodedUtils;
@@ -36,19 +40,42 @@ import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.localserver.LocalServerTestBase;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DeliveryClientTest extends LocalServerTestBase {
 
@@ -285,204 +312,1041 @@ public class DeliveryClientTest extends LocalServerTestBase {
     }
 
     @Test
-    public void testGetItems() throws Exception {
+    public void testRetryStopsWhenRetryBudgetIsExhausted() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentErrorCount = new AtomicInteger(0);
 
         this.serverBootstrap.registerHandler(
-                String.format("/%s/%s", projectId, "items"),
+                String.format("/%s/%s", projectId, "items/error"),
                 (request, response, context) -> {
-                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
-
-                    List<NameValuePair> nameValuePairs =
-                            URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset());
-                    Map<String, String> params = convertNameValuePairsToMap(nameValuePairs);
-                    Assert.assertEquals(1, params.size());
-                    Assert.assertEquals("/path1/path2/test-article", params.get("elements.url_pattern"));
-                    response.setEntity(
-                            new InputStreamEntity(
-                                    this.getClass().getResourceAsStream("SampleContentItemList.json")
-                            )
-                    );
+                    response.setStatusCode(503);
+                    sentErrorCount.incrementAndGet();
                 });
         HttpHost httpHost = this.start();
         String testServerUri = httpHost.toURI();
-        DeliveryOptions deliveryOptions = new DeliveryOptions();
-        deliveryOptions.setProjectId(projectId);
-        deliveryOptions.setProductionEndpoint(testServerUri);
-
-        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
-        client.setContentLinkUrlResolver(Link::getUrlSlug);
-        client.setBrokenLinkUrlResolver(() -> "/404");
-        client.addRichTextElementResolver(content -> String.format("%s%s", "<p>test</p>", content));
-
-        List<kontent.ai.delivery.NameValuePair> urlPattern = DeliveryParameterBuilder.params().filterEquals("elements.url_pattern", "/path1/path2/test-article").build();
-        ContentItemsListingResponse items = client.getItems(urlPattern)
-                .toCompletableFuture()
-                .get();
+        DeliveryOptions deliveryOptions = DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(testServerUri)
+                .retryAttempts(3)
+                .retryBudgetRatio(0)
+                .retryBudgetMinRetriesPerSecond(0)
+                .build();
 
-        Assert.assertNotNull(items);
-        Assert.assertTrue(((RichTextElement) items.getItems().get(1).getElements().get("description")).getValue().contains("href=\"/on roasts\""));
-        Assert.assertTrue(((RichTextElement) items.getItems().get(1).getElements().get("description")).getValue().contains("<p>test</p>"));
+        try {
+            DeliveryClient client = new DeliveryClient(deliveryOptions);
+            client.getItem("error")
+                    .toCompletableFuture()
+                    .get();
+            Assert.fail("Expected KontentIOException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentIOException);
+        }
+        Assert.assertEquals(1, sentErrorCount.get());
     }
 
     @Test
-    public void testGetAllItems() throws Exception {
+    public void testMetricsListenerRecordsRequestsRetriesCacheAndConversion() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentRequestCount = new AtomicInteger(0);
 
         this.serverBootstrap.registerHandler(
-                String.format("/%s/%s", projectId, "items"),
-                (request, response, context) -> response.setEntity(
-                        new InputStreamEntity(
-                                this.getClass().getResourceAsStream("SampleContentItemList.json")
-                        )
-                ));
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    if (sentRequestCount.incrementAndGet() == 1) {
+                        response.setStatusCode(503);
+                    } else {
+                        response.setEntity(
+                                new InputStreamEntity(
+                                        this.getClass().getResourceAsStream("SampleContentItem.json")
+                                ));
+                    }
+                });
         HttpHost httpHost = this.start();
+        InMemoryMetricsListener metrics = new InMemoryMetricsListener();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .retryAttempts(1)
+                .retryInitialDelay(Duration.ofMillis(10))
+                .metricsListener(metrics)
+                .build(), null);
+        client.setCacheManager(new SimpleInMemoryCacheManager());
+
+        ArticleItem item = client.getItem("on_roasts", ArticleItem.class).toCompletableFuture().get();
+        Assert.assertNotNull(item);
+        client.getItem("on_roasts", ArticleItem.class).toCompletableFuture().get();
+
+        Assert.assertEquals(2, sentRequestCount.get());
+        Assert.assertEquals(Collections.singleton("items/*"), metrics.getRequestDurations().keySet());
+        Assert.assertEquals(2, metrics.getRequestDurations().get("items/*").getCount());
+        Assert.assertEquals(1, metrics.getRetryCount("items/*"));
+        Histogram responseBytes = metrics.getResponseBytes().get("items/*");
+        Assert.assertNotNull(responseBytes);
+        Assert.assertTrue(responseBytes.getMax() > 1000);
+        Assert.assertEquals(1, metrics.getCacheMisses().getCount());
+        Assert.assertEquals(1, metrics.getCacheHits().getCount());
+        Assert.assertEquals(1, metrics.getCachePuts().getCount());
+        Assert.assertEquals(2, metrics.getConversions().getCount());
+        Assert.assertEquals(2, metrics.getRichTextProcessing().getCount());
+    }
 
-        DeliveryOptions deliveryOptions = new DeliveryOptions();
-        deliveryOptions.setProductionEndpoint(httpHost.toURI());
-        deliveryOptions.setProjectId(projectId);
-        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
+    @Test
+    public void testTracingListenerRecordsSpansOfCallStages() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentRequestCount = new AtomicInteger(0);
 
-        ContentItemsListingResponse items = client.getItems()
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    if (sentRequestCount.incrementAndGet() == 1) {
+                        response.setStatusCode(503);
+                    } else {
+                        response.setEntity(
+                                new InputStreamEntity(
+                                        this.getClass().getResourceAsStream("SampleContentItem.json")
+                                ));
+                    }
+                });
+        HttpHost httpHost = this.start();
+        List<Object> parentContexts = Collections.synchronizedList(new ArrayList<>());
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .retryAttempts(1)
+                .retryInitialDelay(Duration.ofMillis(10))
+                .tracingListener((name, parentContext) -> {
+                    parentContexts.add(parentContext);
+                    return recordingSpan(name, events);
+                })
+                .build(), null);
+        client.setCacheManager(new SimpleInMemoryCacheManager());
+
+        ContentItemResponse response = client
+                .getItem("on_roasts", Collections.emptyList(), RequestOptions.builder().traceContext("app-span").build())
                 .toCompletableFuture()
                 .get();
-        Assert.assertNotNull(items);
-
+        Assert.assertNotNull(response.getItem());
+
+        Assert.assertEquals(Collections.singletonList("app-span"), parentContexts);
+        Assert.assertEquals("start kontent.getItem", events.get(0));
+        Assert.assertEquals("end kontent.getItem", events.get(events.size() - 1));
+        Assert.assertTrue(events.contains("end kontent.getItem > kontent.cache.get"));
+        Assert.assertTrue(events.contains("kontent.getItem > kontent.cache.get hit=false"));
+        Assert.assertTrue(events.contains("kontent.getItem > kontent.http attempt=1"));
+        Assert.assertTrue(events.contains("end kontent.getItem > kontent.http failed"));
+        Assert.assertTrue(events.contains("end kontent.getItem > kontent.retry.backoff"));
+        Assert.assertTrue(events.contains("kontent.getItem > kontent.http attempt=2"));
+        Assert.assertTrue(events.contains("kontent.getItem > kontent.http status=200"));
+        Assert.assertTrue(events.contains("end kontent.getItem > kontent.bind"));
+        Assert.assertTrue(events.contains("end kontent.getItem > kontent.cache.put"));
+        Assert.assertTrue(events.contains("end kontent.getItem > kontent.rich_text"));
+        Assert.assertEquals(
+                events.stream().filter(event -> event.startsWith("start ")).count(),
+                events.stream().filter(event -> event.startsWith("end ")).count());
     }
 
+    private static TraceSpan recordingSpan(String name, List<String> events) {
+        events.add("start " + name);
+        return new TraceSpan() {
+            @Override
+            public TraceSpan startChild(String childName) {
+                return recordingSpan(name + " > " + childName, events);
+            }
+
+            @Override
+            public void setAttribute(String key, Object value) {
+                events.add(name + " " + key + "=" + value);
+            }
+
+            @Override
+            public void end(Throwable error) {
+                events.add("end " + name + (error != null ? " failed" : ""));
+            }
+        };
+    }
 
     @Test
-    @SuppressWarnings("all")
-    public void testGetItemsAsPage() throws Exception {
+    public void testFlightRecorderEvents() throws Exception {
+        Assume.assumeTrue(FlightRecorderEvents.isSupported());
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentRequestCount = new AtomicInteger(0);
 
         this.serverBootstrap.registerHandler(
                 String.format("/%s/%s", projectId, "items"),
                 (request, response, context) -> {
-                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+                    if (sentRequestCount.incrementAndGet() == 1) {
+                        response.setStatusCode(503);
+                    } else {
+                        response.setEntity(
+                                new InputStreamEntity(
+                                        this.getClass().getResourceAsStream("SampleContentItemList.json")
+                                ));
+                    }
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .retryAttempts(1)
+                .retryInitialDelay(Duration.ofMillis(10))
+                .build(), null);
+        client.setCacheManager(new SimpleInMemoryCacheManager());
+
+        Path recordingFile = Files.createTempFile("delivery-sdk", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("kontent.delivery.HttpRequest");
+            recording.enable("kontent.delivery.CacheGet");
+            recording.enable("kontent.delivery.CachePut");
+            recording.enable("kontent.delivery.Retry");
+            recording.enable("kontent.delivery.Conversion");
+            recording.start();
+            List<ContentItem> items = client.getItems(ContentItem.class, Collections.emptyList())
+                    .toCompletableFuture()
+                    .get();
+            Assert.assertEquals(3, items.size());
+            recording.stop();
+            recording.dump(recordingFile);
+            events = RecordingFile.readAllEvents(recordingFile);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
 
-                    List<NameValuePair> nameValuePairs =
-                            URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset());
-                    Map<String, String> params = convertNameValuePairsToMap(nameValuePairs);
+        List<RecordedEvent> httpRequests = events.stream()
+                .filter(event -> event.getEventType().getName().equals("kontent.delivery.HttpRequest"))
+                .collect(Collectors.toList());
+        Assert.assertEquals(2, httpRequests.size());
+        Assert.assertTrue(httpRequests.stream().allMatch(event -> "items".equals(event.getString("endpoint"))));
+        Assert.assertTrue(httpRequests.stream().anyMatch(event -> event.getInt("status") == 503));
+        Assert.assertTrue(httpRequests.stream()
+                .anyMatch(event -> event.getInt("status") == 200 && event.getLong("bytes") > 1000));
+
+        RecordedEvent cacheGet = events.stream()
+                .filter(event -> event.getEventType().getName().equals("kontent.delivery.CacheGet"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        Assert.assertFalse(cacheGet.getBoolean("hit"));
+        Assert.assertTrue(events.stream()
+                .anyMatch(event -> event.getEventType().getName().equals("kontent.delivery.CachePut")));
+
+        RecordedEvent retry = events.stream()
+                .filter(event -> event.getEventType().getName().equals("kontent.delivery.Retry"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        Assert.assertEquals(1, retry.getInt("attempt"));
+        Assert.assertTrue(retry.getString("reason").contains("KontentIOException"));
+
+        RecordedEvent conversion = events.stream()
+                .filter(event -> event.getEventType().getName().equals("kontent.delivery.Conversion"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        Assert.assertEquals(ContentItem.class.getName(), conversion.getClass("targetClass").getName());
+        Assert.assertEquals(3, conversion.getInt("itemCount"));
+    }
 
-                    BufferedReader bufferedReader =
-                            new BufferedReader(
-                                    new InputStreamReader(
-                                            this.getClass().getResourceAsStream("SampleContentItemList.json")
-                                    )
-                            );
-                    String line;
-                    StringBuilder responseString = new StringBuilder();
-                    while ((line = bufferedReader.readLine()) != null) {
-                        if (line.contains("next_page")) {
-                            responseString.append("\"next_page\": \"");
-                            responseString.append((new HttpHost("localhost", this.server.getLocalPort(), this.scheme.name())).toURI());
-                            responseString.append("/nextPage\"\r\n");
-                        } else {
-                            responseString.append(line).append("\r\n");
-                        }
+    @Test
+    public void testCircuitBreakerOpensAndClosesAfterSuccessfulProbe() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentRequestCount = new AtomicInteger(0);
+        final AtomicBoolean failing = new AtomicBoolean(true);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    sentRequestCount.incrementAndGet();
+                    if (failing.get()) {
+                        response.setStatusCode(503);
+                    } else {
+                        response.setEntity(
+                                new InputStreamEntity(
+                                        this.getClass().getResourceAsStream("SampleContentItem.json")
+                                ));
                     }
-                    bufferedReader.close();
-                    response.setEntity(new StringEntity(responseString.toString()));
                 });
-        this.serverBootstrap.registerHandler("/nextPage",
-                (request, response, context) -> response.setEntity(
-                        new StringEntity(
-                                "{\n" +
-                                        "  \"items\": [],\n" +
-                                        "  \"modular_content\": {},\n" +
-                                        "  \"pagination\": {\n" +
-                                        "    \"skip\": 50,\n" +
-                                        "    \"limit\": 2,\n" +
-                                        "    \"count\": 0,\n" +
-                                        "    \"next_page\": \"\"\n" +
-                                        "  }\n" +
-                                        "}"
-                        )
-                ));
         HttpHost httpHost = this.start();
-        DeliveryOptions deliveryOptions = new DeliveryOptions();
-        deliveryOptions.setProductionEndpoint(httpHost.toURI());
-        deliveryOptions.setProjectId(projectId);
-        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
+        List<String> stateChanges = new ArrayList<>();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .retryAttempts(0)
+                .circuitBreaker(CircuitBreakerOptions.builder()
+                        .slidingWindowSize(4)
+                        .minimumNumberOfCalls(2)
+                        .waitDurationInOpenState(Duration.ofMillis(200))
+                        .permittedCallsInHalfOpenState(1)
+                        .listener((previousState, newState) -> stateChanges.add(previousState + "->" + newState))
+                        .build())
+                .build());
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.getItem("on_roasts").toCompletableFuture().get();
+                Assert.fail("Expected KontentRetryException");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof KontentRetryException);
+            }
+        }
+        Assert.assertEquals(CircuitBreakerState.OPEN, client.getCircuitBreakerState());
 
-        Page<ContentItem> pageOfItems =
-                client.getPageOfItems(ContentItem.class, DeliveryParameterBuilder.params().page(0, 3).build())
-                        .toCompletableFuture()
-                        .get();
-        Assert.assertEquals(3, pageOfItems.getSize());
-        Assert.assertEquals(3, pageOfItems.getContent().size());
-        Assert.assertTrue(pageOfItems.hasContent());
-        Assert.assertTrue(pageOfItems.isFirst());
-        Assert.assertFalse(pageOfItems.isLast());
-        Assert.assertTrue(pageOfItems.hasNext());
-        Assert.assertFalse(pageOfItems.hasPrevious());
+        try {
+            client.getItem("on_roasts").toCompletableFuture().get();
+            Assert.fail("Expected KontentCircuitBreakerOpenException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentCircuitBreakerOpenException);
+        }
+        Assert.assertEquals(2, sentRequestCount.get());
 
-        Page<ContentItem> nextPage = client.getNextPage(pageOfItems)
-                .toCompletableFuture()
-                .get();
-        Assert.assertEquals(0, nextPage.getSize());
-        Assert.assertFalse(nextPage.hasContent());
-        Assert.assertFalse(nextPage.isFirst());
-        Assert.assertTrue(nextPage.isLast());
-        Assert.assertFalse(nextPage.hasNext());
-        Assert.assertTrue(nextPage.hasPrevious());
+        failing.set(false);
+        Thread.sleep(250);
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertEquals(CircuitBreakerState.CLOSED, client.getCircuitBreakerState());
+        Assert.assertEquals(3, sentRequestCount.get());
+        Assert.assertEquals(Arrays.asList("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), stateChanges);
+    }
 
-        Assert.assertNull(client.getNextPage(nextPage).toCompletableFuture().get());
+    @Test
+    public void testCircuitBreakerReopensWhenProbeFails() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentRequestCount = new AtomicInteger(0);
 
-    }
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/error"),
+                (request, response, context) -> {
+                    sentRequestCount.incrementAndGet();
+                    response.setStatusCode(500);
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .retryAttempts(5)
+                .retryInitialDelay(Duration.ofMillis(1))
+                .retryMaxDelay(Duration.ofMillis(1))
+                .circuitBreaker(CircuitBreakerOptions.builder()
+                        .slidingWindowSize(2)
+                        .minimumNumberOfCalls(2)
+                        .waitDurationInOpenState(Duration.ofMillis(100))
+                        .permittedCallsInHalfOpenState(1)
+                        .build())
+                .build());
+
+        try {
+            client.getItem("error").toCompletableFuture().get();
+            Assert.fail("Expected KontentCircuitBreakerOpenException");
+        } catch (ExecutionException e) {
+            // The retry schedule is cut short once the circuit opens
+            Assert.assertTrue(e.getCause() instanceof KontentCircuitBreakerOpenException);
+        }
+        Assert.assertEquals(2, sentRequestCount.get());
 
+        Thread.sleep(150);
+        try {
+            client.getItem("error").toCompletableFuture().get();
+            Assert.fail("Expected KontentCircuitBreakerOpenException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentCircuitBreakerOpenException);
+        }
+        Assert.assertEquals(3, sentRequestCount.get());
+        Assert.assertEquals(CircuitBreakerState.OPEN, client.getCircuitBreakerState());
+    }
 
     @Test
-    @SuppressWarnings("Duplicates")
-    public void testStronglyTypedGetItemsAsPage() throws Exception {
+    public void testCircuitBreakerRecoversAfterCancelledAndThrowingProbes() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicReference<String> mode = new AtomicReference<>("fail");
 
         this.serverBootstrap.registerHandler(
-                String.format("/%s/%s", projectId, "items"),
+                String.format("/%s/%s", projectId, "items/on_roasts"),
                 (request, response, context) -> {
-                    BufferedReader bufferedReader =
-                            new BufferedReader(
-                                    new InputStreamReader(
-                                            this.getClass().getResourceAsStream("SampleContentItemList.json")
-                                    )
-                            );
-                    String line;
-                    StringBuilder responseString = new StringBuilder();
-                    while ((line = bufferedReader.readLine()) != null) {
-                        if (line.contains("next_page")) {
-                            responseString.append("\"next_page\": \"");
-                            responseString.append((new HttpHost("localhost", this.server.getLocalPort(), this.scheme.name())).toURI());
-                            responseString.append("/nextPage\"\r\n");
-                        } else {
-                            responseString.append(line).append("\r\n");
-                        }
+                    if ("fail".equals(mode.get())) {
+                        response.setStatusCode(503);
+                    } else {
+                        response.setEntity(
+                                new InputStreamEntity(
+                                        this.getClass().getResourceAsStream("SampleContentItem.json")
+                                ));
                     }
-                    bufferedReader.close();
-                    response.setEntity(new StringEntity(responseString.toString()));
                 });
-        this.serverBootstrap.registerHandler("/nextPage",
-                (request, response, context) -> response.setEntity(
-                        new StringEntity(
-                                "{\n" +
-                                        "  \"items\": [],\n" +
-                                        "  \"modular_content\": {},\n" +
-                                        "  \"pagination\": {\n" +
-                                        "    \"skip\": 50,\n" +
-                                        "    \"limit\": 2,\n" +
-                                        "    \"count\": 0,\n" +
-                                        "    \"next_page\": \"\"\n" +
-                                        "  }\n" +
-                                        "}"
-                        )
-                ));
         HttpHost httpHost = this.start();
-        DeliveryOptions deliveryOptions = new DeliveryOptions();
-        deliveryOptions.setProductionEndpoint(httpHost.toURI());
-        deliveryOptions.setProjectId(projectId);
-        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
+        OkHttpTransport okHttpTransport = new OkHttpTransport(new OkHttpClient());
+        HttpTransport instrumentedTransport = request -> {
+            if ("cancel".equals(mode.get())) {
+                CompletableFuture<HttpTransportResponse> cancelled = new CompletableFuture<>();
+                cancelled.cancel(true);
+                return cancelled;
+            }
+            if ("throw".equals(mode.get())) {
+                throw new IllegalStateException("Transport shut down");
+            }
+            return okHttpTransport.send(request);
+        };
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .httpTransport(instrumentedTransport)
+                .retryAttempts(0)
+                .circuitBreaker(CircuitBreakerOptions.builder()
+                        .slidingWindowSize(2)
+                        .minimumNumberOfCalls(2)
+                        .waitDurationInOpenState(Duration.ofMillis(100))
+                        .permittedCallsInHalfOpenState(1)
+                        .build())
+                .build());
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.getItem("on_roasts").toCompletableFuture().get();
+                Assert.fail("Expected KontentRetryException");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof KontentRetryException);
+            }
+        }
+        Assert.assertEquals(CircuitBreakerState.OPEN, client.getCircuitBreakerState());
 
-        Page<ArticleItem> pageOfItems =
+        // A cancelled probe gives its permit back without closing or reopening the circuit
+        Thread.sleep(150);
+        mode.set("cancel");
+        try {
+            client.getItem("on_roasts").toCompletableFuture().get();
+            Assert.fail("Expected CancellationException");
+        } catch (ExecutionException | CancellationException e) {
+            Assert.assertFalse(e.getCause() instanceof KontentCircuitBreakerOpenException);
+        }
+        Assert.assertEquals(CircuitBreakerState.HALF_OPEN, client.getCircuitBreakerState());
+
+        // A probe the transport fails to send counts as a failure
+        mode.set("throw");
+        try {
+            client.getItem("on_roasts").toCompletableFuture().get();
+            Assert.fail("Expected IllegalStateException");
+        } catch (ExecutionException e) {
+            Assert.assertFalse(e.getCause() instanceof KontentCircuitBreakerOpenException);
+        }
+        Assert.assertEquals(CircuitBreakerState.OPEN, client.getCircuitBreakerState());
+
+        Thread.sleep(150);
+        mode.set("ok");
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertEquals(CircuitBreakerState.CLOSED, client.getCircuitBreakerState());
+    }
+
+    @Test
+    public void testSlowRequestIsHedged() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger slowRequestCount = new AtomicInteger(0);
+        final CountDownLatch releaseSlowResponse = new CountDownLatch(1);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/*"),
+                (request, response, context) -> {
+                    if (request.getRequestLine().getUri().endsWith("slow") && slowRequestCount.incrementAndGet() == 1) {
+                        try {
+                            releaseSlowResponse.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .hedging(HedgingOptions.builder()
+                        .latencyPercentile(0.9)
+                        .minDelay(Duration.ofMillis(50))
+                        .build())
+                .build());
+
+        for (int i = 0; i < 20; i++) {
+            client.getItem("fast").toCompletableFuture().get();
+        }
+        Assert.assertEquals(0, client.getHedgedRequestCount());
+
+        long start = java.lang.System.nanoTime();
+        Assert.assertNotNull(client.getItem("slow").toCompletableFuture().get());
+        long elapsedMillis = (java.lang.System.nanoTime() - start) / 1_000_000;
+        releaseSlowResponse.countDown();
+
+        Assert.assertEquals(1, client.getHedgedRequestCount());
+        Assert.assertEquals(2, slowRequestCount.get());
+        Assert.assertTrue("Hedged request took " + elapsedMillis + "ms", elapsedMillis < 2000);
+    }
+
+    @Test
+    public void testHedgingIsCappedByHedgeBudget() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentRequestCount = new AtomicInteger(0);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/*"),
+                (request, response, context) -> {
+                    if (sentRequestCount.incrementAndGet() > 20) {
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .hedging(HedgingOptions.builder()
+                        .minDelay(Duration.ofMillis(1))
+                        .budgetRatio(0)
+                        .budgetMinHedgesPerSecond(0)
+                        .build())
+                .build());
+
+        for (int i = 0; i < 25; i++) {
+            client.getItem("on_roasts").toCompletableFuture().get();
+        }
+        Assert.assertEquals(0, client.getHedgedRequestCount());
+        Assert.assertEquals(25, sentRequestCount.get());
+    }
+
+    @Test
+    public void testRetryDelaysAreBoundedByMaxDelay() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentErrorCount = new AtomicInteger(0);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/error"),
+                (request, response, context) -> {
+                    response.setStatusCode(503);
+                    sentErrorCount.incrementAndGet();
+                });
+        HttpHost httpHost = this.start();
+        String testServerUri = httpHost.toURI();
+        DeliveryOptions deliveryOptions = DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(testServerUri)
+                .retryAttempts(5)
+                .retryInitialDelay(Duration.ofMillis(10))
+                .retryMaxDelay(Duration.ofMillis(20))
+                .build();
+
+        long start = java.lang.System.nanoTime();
+        try {
+            DeliveryClient client = new DeliveryClient(deliveryOptions);
+            client.getItem("error")
+                    .toCompletableFuture()
+                    .get();
+            Assert.fail("Expected KontentRetryException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentRetryException);
+        }
+        Assert.assertEquals(6, sentErrorCount.get());
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(java.lang.System.nanoTime() - start) < 5000);
+    }
+
+    @Test
+    public void testRetryHonorsRetryAfterHeader() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicBoolean sentError = new AtomicBoolean(false);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    if (sentError.get()) {
+                        response.setEntity(
+                                new InputStreamEntity(
+                                        this.getClass().getResourceAsStream("SampleContentItem.json")
+                                )
+                        );
+                    } else {
+                        response.setStatusCode(429);
+                        response.setHeader("Retry-After", "1");
+                        sentError.set(true);
+                    }
+                });
+        HttpHost httpHost = this.start();
+        DeliveryOptions deliveryOptions = DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .retryInitialDelay(Duration.ofMillis(10))
+                .retryMaxDelay(Duration.ofSeconds(5))
+                .build();
+
+        DeliveryClient client = new DeliveryClient(deliveryOptions);
+
+        long start = java.lang.System.nanoTime();
+        ContentItemResponse item = client.getItem("on_roasts").toCompletableFuture().get();
+        Assert.assertNotNull(item);
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(java.lang.System.nanoTime() - start) >= 1000);
+    }
+
+    @Test
+    public void testRetryAfterLongerThanMaxDelayIsNotRetried() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentErrorCount = new AtomicInteger(0);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/error"),
+                (request, response, context) -> {
+                    response.setStatusCode(429);
+                    response.setHeader("Retry-After", "120");
+                    sentErrorCount.incrementAndGet();
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build());
+
+        try {
+            client.getItem("error").toCompletableFuture().get();
+            Assert.fail("Expected KontentIOException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentIOException);
+            Assert.assertEquals(Duration.ofSeconds(120), ((KontentIOException) e.getCause()).getRetryAfter());
+        }
+        Assert.assertEquals(1, sentErrorCount.get());
+    }
+
+    @Test
+    public void testRequestsAreRateLimited() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/*"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .maxRequestsPerSecond(5)
+                .build());
+
+        long start = java.lang.System.nanoTime();
+        List<CompletableFuture<ContentItemResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(client.getItem("on_roasts", DeliveryParameterBuilder.params()
+                    .language("lang-" + i)
+                    .build()).toCompletableFuture());
+        }
+        for (CompletableFuture<ContentItemResponse> response : responses) {
+            Assert.assertNotNull(response.get());
+        }
+
+        Assert.assertEquals(10, kontentGets.get());
+        // The first 5 requests use the initial burst, the other 5 are spread over the next second
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(java.lang.System.nanoTime() - start) >= 800);
+    }
+
+    @Test
+    public void testInjectedHttpClientIsUsed() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    Assert.assertEquals("intercepted", request.getFirstHeader("X-Test-Interceptor").getValue());
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .header("X-Test-Interceptor", "intercepted")
+                        .build()))
+                .build();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .httpClient(httpClient)
+                .build());
+
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+    }
+
+    @Test
+    public void testCustomHttpTransportIsUsed() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleContentItem.json")
+                        )));
+        HttpHost httpHost = this.start();
+        List<HttpTransportRequest> sentRequests = new ArrayList<>();
+        OkHttpTransport okHttpTransport = new OkHttpTransport(new OkHttpClient());
+        HttpTransport instrumentedTransport = request -> {
+            sentRequests.add(request);
+            return okHttpTransport.send(request);
+        };
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .httpTransport(instrumentedTransport)
+                .build());
+
+        ContentItemResponse item = client.getItem("on_roasts").toCompletableFuture().get();
+        Assert.assertNotNull(item);
+        Assert.assertEquals(1, sentRequests.size());
+        Assert.assertEquals(HttpTransportRequest.GET, sentRequests.get(0).getMethod());
+        Assert.assertEquals(
+                String.format("%s/%s/items/on_roasts", httpHost.toURI(), projectId), sentRequests.get(0).getUrl());
+        Assert.assertEquals("application/json", sentRequests.get(0).getHeader(DeliveryClient.HEADER_ACCEPT));
+    }
+
+    @Test
+    public void testJdkHttpTransport() throws Exception {
+        Assume.assumeTrue(JdkHttpTransport.isSupported());
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    Assert.assertEquals("Bearer preview_api_key", request.getFirstHeader("Authorization").getValue());
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/error"),
+                (request, response, context) -> {
+                    response.setStatusCode(404);
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleKontentError.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryOptions deliveryOptions = DeliveryOptions.builder()
+                .projectId(projectId)
+                .previewEndpoint(httpHost.toURI())
+                .usePreviewApi(true)
+                .previewApiKey("preview_api_key")
+                .build();
+        deliveryOptions.setHttpTransport(JdkHttpTransport.create(deliveryOptions).get());
+        DeliveryClient client = new DeliveryClient(deliveryOptions);
+
+        ContentItemResponse item = client.getItem("on_roasts").toCompletableFuture().get();
+        Assert.assertNotNull(item);
+        Assert.assertEquals("on_roasts", item.getItem().getSystem().getCodename());
+
+        try {
+            client.getItem("error").toCompletableFuture().get();
+            Assert.fail("Expected KontentErrorException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentErrorException);
+        }
+    }
+
+    @Test
+    public void testJdkHttpTransportSkipsCallsCancelledWhileQueued() throws Exception {
+        Assume.assumeTrue(JdkHttpTransport.isSupported());
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final CountDownLatch releaseResponse = new CountDownLatch(1);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    try {
+                        releaseResponse.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryOptions deliveryOptions = DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .maxConcurrentRequests(1)
+                .build();
+        HttpTransport transport = JdkHttpTransport.create(deliveryOptions).get();
+        HttpTransportRequest request = new HttpTransportRequest(
+                HttpTransportRequest.GET,
+                String.format("%s/%s/items/on_roasts", httpHost.toURI(), projectId),
+                Collections.emptyList());
+
+        CompletableFuture<HttpTransportResponse> running = transport.send(request).toCompletableFuture();
+        // A long run of calls cancelled while queued is skipped without recursion
+        final int cancelledCalls = 100_000;
+        for (int i = 0; i < cancelledCalls; i++) {
+            transport.send(request).toCompletableFuture().cancel(false);
+        }
+        CompletableFuture<HttpTransportResponse> queued = transport.send(request).toCompletableFuture();
+        Assert.assertEquals(cancelledCalls + 1, transport.getQueuedRequestCount());
+        releaseResponse.countDown();
+
+        HttpTransportResponse runningResponse = running.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(200, runningResponse.getStatusCode());
+        runningResponse.getBody().close();
+        HttpTransportResponse queuedResponse = queued.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(200, queuedResponse.getStatusCode());
+        queuedResponse.getBody().close();
+        Assert.assertEquals(0, transport.getQueuedRequestCount());
+        waitUntil(() -> transport.getRunningRequestCount() == 0);
+    }
+
+    @Test
+    public void testConcurrentRequestsPerHostAreLimited() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final CountDownLatch releaseResponses = new CountDownLatch(1);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/*"),
+                (request, response, context) -> {
+                    try {
+                        releaseResponses.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .maxConcurrentRequestsPerHost(1)
+                .build());
+
+        List<CompletableFuture<ContentItemResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(client.getItem("on_roasts", DeliveryParameterBuilder.params()
+                    .language("lang-" + i)
+                    .build()).toCompletableFuture());
+        }
+        Assert.assertEquals(1, client.getRunningRequestCount());
+        Assert.assertEquals(2, client.getQueuedRequestCount());
+
+        releaseResponses.countDown();
+        for (CompletableFuture<ContentItemResponse> response : responses) {
+            Assert.assertNotNull(response.get());
+        }
+        Assert.assertEquals(0, client.getQueuedRequestCount());
+    }
+
+    @Test
+    public void testGetItems() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+
+                    List<NameValuePair> nameValuePairs =
+                            URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset());
+                    Map<String, String> params = convertNameValuePairsToMap(nameValuePairs);
+                    Assert.assertEquals(1, params.size());
+                    Assert.assertEquals("/path1/path2/test-article", params.get("elements.url_pattern"));
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItemList.json")
+                            )
+                    );
+                });
+        HttpHost httpHost = this.start();
+        String testServerUri = httpHost.toURI();
+        DeliveryOptions deliveryOptions = new DeliveryOptions();
+        deliveryOptions.setProjectId(projectId);
+        deliveryOptions.setProductionEndpoint(testServerUri);
+
+        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
+        client.setContentLinkUrlResolver(Link::getUrlSlug);
+        client.setBrokenLinkUrlResolver(() -> "/404");
+        client.addRichTextElementResolver(content -> String.format("%s%s", "<p>test</p>", content));
+
+        List<kontent.ai.delivery.NameValuePair> urlPattern = DeliveryParameterBuilder.params().filterEquals("elements.url_pattern", "/path1/path2/test-article").build();
+        ContentItemsListingResponse items = client.getItems(urlPattern)
+                .toCompletableFuture()
+                .get();
+
+        Assert.assertNotNull(items);
+        Assert.assertTrue(((RichTextElement) items.getItems().get(1).getElements().get("description")).getValue().contains("href=\"/on roasts\""));
+        Assert.assertTrue(((RichTextElement) items.getItems().get(1).getElements().get("description")).getValue().contains("<p>test</p>"));
+    }
+
+    @Test
+    public void testGetAllItems() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleContentItemList.json")
+                        )
+                ));
+        HttpHost httpHost = this.start();
+
+        DeliveryOptions deliveryOptions = new DeliveryOptions();
+        deliveryOptions.setProductionEndpoint(httpHost.toURI());
+        deliveryOptions.setProjectId(projectId);
+        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
+
+        ContentItemsListingResponse items = client.getItems()
+                .toCompletableFuture()
+                .get();
+        Assert.assertNotNull(items);
+
+    }
+
+
+    @Test
+    @SuppressWarnings("all")
+    public void testGetItemsAsPage() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+
+                    List<NameValuePair> nameValuePairs =
+                            URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset());
+                    Map<String, String> params = convertNameValuePairsToMap(nameValuePairs);
+
+                    BufferedReader bufferedReader =
+                            new BufferedReader(
+                                    new InputStreamReader(
+                                            this.getClass().getResourceAsStream("SampleContentItemList.json")
+                                    )
+                            );
+                    String line;
+                    StringBuilder responseString = new StringBuilder();
+                    while ((line = bufferedReader.readLine()) != null) {
+                        if (line.contains("next_page")) {
+                            responseString.append("\"next_page\": \"");
+                            responseString.append((new HttpHost("localhost", this.server.getLocalPort(), this.scheme.name())).toURI());
+                            responseString.append("/nextPage\"\r\n");
+                        } else {
+                            responseString.append(line).append("\r\n");
+                        }
+                    }
+                    bufferedReader.close();
+                    response.setEntity(new StringEntity(responseString.toString()));
+                });
+        this.serverBootstrap.registerHandler("/nextPage",
+                (request, response, context) -> response.setEntity(
+                        new StringEntity(
+                                "{\n" +
+                                        "  \"items\": [],\n" +
+                                        "  \"modular_content\": {},\n" +
+                                        "  \"pagination\": {\n" +
+                                        "    \"skip\": 50,\n" +
+                                        "    \"limit\": 2,\n" +
+                                        "    \"count\": 0,\n" +
+                                        "    \"next_page\": \"\"\n" +
+                                        "  }\n" +
+                                        "}"
+                        )
+                ));
+        HttpHost httpHost = this.start();
+        DeliveryOptions deliveryOptions = new DeliveryOptions();
+        deliveryOptions.setProductionEndpoint(httpHost.toURI());
+        deliveryOptions.setProjectId(projectId);
+        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
+
+        Page<ContentItem> pageOfItems =
+                client.getPageOfItems(ContentItem.class, DeliveryParameterBuilder.params().page(0, 3).build())
+                        .toCompletableFuture()
+                        .get();
+        Assert.assertEquals(3, pageOfItems.getSize());
+        Assert.assertEquals(3, pageOfItems.getContent().size());
+        Assert.assertTrue(pageOfItems.hasContent());
+        Assert.assertTrue(pageOfItems.isFirst());
+        Assert.assertFalse(pageOfItems.isLast());
+        Assert.assertTrue(pageOfItems.hasNext());
+        Assert.assertFalse(pageOfItems.hasPrevious());
+
+        Page<ContentItem> nextPage = client.getNextPage(pageOfItems)
+                .toCompletableFuture()
+                .get();
+        Assert.assertEquals(0, nextPage.getSize());
+        Assert.assertFalse(nextPage.hasContent());
+        Assert.assertFalse(nextPage.isFirst());
+        Assert.assertTrue(nextPage.isLast());
+        Assert.assertFalse(nextPage.hasNext());
+        Assert.assertTrue(nextPage.hasPrevious());
+
+        Assert.assertNull(client.getNextPage(nextPage).toCompletableFuture().get());
+
+    }
+
+
+    @Test
+    @SuppressWarnings("Duplicates")
+    public void testStronglyTypedGetItemsAsPage() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    BufferedReader bufferedReader =
+                            new BufferedReader(
+                                    new InputStreamReader(
+                                            this.getClass().getResourceAsStream("SampleContentItemList.json")
+                                    )
+                            );
+                    String line;
+                    StringBuilder responseString = new StringBuilder();
+                    while ((line = bufferedReader.readLine()) != null) {
+                        if (line.contains("next_page")) {
+                            responseString.append("\"next_page\": \"");
+                            responseString.append((new HttpHost("localhost", this.server.getLocalPort(), this.scheme.name())).toURI());
+                            responseString.append("/nextPage\"\r\n");
+                        } else {
+                            responseString.append(line).append("\r\n");
+                        }
+                    }
+                    bufferedReader.close();
+                    response.setEntity(new StringEntity(responseString.toString()));
+                });
+        this.serverBootstrap.registerHandler("/nextPage",
+                (request, response, context) -> response.setEntity(
+                        new StringEntity(
+                                "{\n" +
+                                        "  \"items\": [],\n" +
+                                        "  \"modular_content\": {},\n" +
+                                        "  \"pagination\": {\n" +
+                                        "    \"skip\": 50,\n" +
+                                        "    \"limit\": 2,\n" +
+                                        "    \"count\": 0,\n" +
+                                        "    \"next_page\": \"\"\n" +
+                                        "  }\n" +
+                                        "}"
+                        )
+                ));
+        HttpHost httpHost = this.start();
+        DeliveryOptions deliveryOptions = new DeliveryOptions();
+        deliveryOptions.setProductionEndpoint(httpHost.toURI());
+        deliveryOptions.setProjectId(projectId);
+        DeliveryClient client = new DeliveryClient(deliveryOptions, null);
+
+        Page<ArticleItem> pageOfItems =
                 client.getPageOfItems(ArticleItem.class, DeliveryParameterBuilder.params().page(0, 3).build())
                         .toCompletableFuture()
                         .get();
@@ -494,156 +1358,1354 @@ public class DeliveryClientTest extends LocalServerTestBase {
         Assert.assertTrue(pageOfItems.hasNext());
         Assert.assertFalse(pageOfItems.hasPrevious());
 
-        Page<ArticleItem> nextPage = client.getNextPage(pageOfItems)
+        Page<ArticleItem> nextPage = client.getNextPage(pageOfItems)
+                .toCompletableFuture()
+                .get();
+        Assert.assertEquals(0, nextPage.getSize());
+        Assert.assertFalse(nextPage.hasContent());
+        Assert.assertFalse(nextPage.isFirst());
+        Assert.assertTrue(nextPage.isLast());
+        Assert.assertFalse(nextPage.hasNext());
+        Assert.assertTrue(nextPage.hasPrevious());
+
+        Assert.assertNull(client.getNextPage(nextPage).toCompletableFuture().get());
+    }
+
+    @Test
+    public void testStreamItemsFeedFollowsContinuationTokens() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        List<String> receivedTokens = Collections.synchronizedList(new ArrayList<>());
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items-feed"),
+                (request, response, context) -> {
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+                    Map<String, String> params =
+                            convertNameValuePairsToMap(URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset()));
+                    Assert.assertEquals("title,summary", params.get("elements"));
+                    Assert.assertFalse(params.containsKey("skip"));
+
+                    String continuation = request.containsHeader("X-Continuation")
+                            ? request.getFirstHeader("X-Continuation").getValue()
+                            : null;
+                    receivedTokens.add(continuation);
+                    if (continuation == null) {
+                        response.setHeader("X-Continuation", "token_1");
+                    } else if ("token_1".equals(continuation)) {
+                        response.setHeader("X-Continuation", "token_2");
+                    }
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItemList.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build(), null);
+
+        try (Stream<ContentItem> items = client.streamItemsFeed(
+                ContentItem.class, DeliveryParameterBuilder.params().projection("title", "summary").build())) {
+            Assert.assertEquals(9, items.count());
+        }
+        Assert.assertEquals(Arrays.asList(null, "token_1", "token_2"), receivedTokens);
+    }
+
+    @Test
+    public void testGetItemBatchesConcurrentRequests() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        List<String> batchedCodenames = Collections.synchronizedList(new ArrayList<>());
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+                    Map<String, String> params =
+                            convertNameValuePairsToMap(URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset()));
+                    Assert.assertEquals("es-ES", params.get("language"));
+                    batchedCodenames.add(params.get("system.codename[in]"));
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItemList.json")
+                            ));
+                });
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/missing_item"),
+                (request, response, context) -> {
+                    response.setStatusCode(404);
+                    response.setEntity(new StringEntity("{\"message\": \"The requested content item 'missing_item' was not found.\", " +
+                            "\"request_id\": \"\", \"error_code\": 100, \"specific_code\": 0}"));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .itemBatching(ItemBatchingOptions.builder().window(Duration.ofMillis(200)).build())
+                .build(), null);
+        SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        CompletableFuture<ContentItemResponse> donate = client
+                .getItem("donate_with_us", DeliveryParameterBuilder.params().language("es-ES").build())
+                .toCompletableFuture();
+        CompletableFuture<ContentItemResponse> arabica = client
+                .getItem("origins_of_arabica_bourbon", DeliveryParameterBuilder.params().language("es-ES").build())
+                .toCompletableFuture();
+        CompletableFuture<ContentItemResponse> missing = client
+                .getItem("missing_item", DeliveryParameterBuilder.params().language("es-ES").build())
+                .toCompletableFuture();
+
+        ContentItemResponse donateResponse = donate.get();
+        Assert.assertEquals("donate_with_us", donateResponse.getItem().getSystem().getCodename());
+        Assert.assertEquals(
+                Collections.singleton("coffee_processing_techniques"),
+                donateResponse.getLinkedItems().keySet());
+        Assert.assertEquals("origins_of_arabica_bourbon", arabica.get().getItem().getSystem().getCodename());
+        try {
+            missing.get();
+            Assert.fail("Expected KontentErrorException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentErrorException);
+        }
+        Assert.assertEquals(1, batchedCodenames.size());
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList("donate_with_us", "origins_of_arabica_bourbon", "missing_item")),
+                new HashSet<>(Arrays.asList(batchedCodenames.get(0).split(","))));
+        Assert.assertTrue(testCache.cache.containsKey(
+                String.format("%s/%s/items/donate_with_us?language=es-ES", httpHost.toURI(), projectId)));
+
+        // Served by the cache without another batch
+        Assert.assertEquals("donate_with_us", client
+                .getItem("donate_with_us", DeliveryParameterBuilder.params().language("es-ES").build())
+                .toCompletableFuture()
+                .get()
+                .getItem()
+                .getSystem()
+                .getCodename());
+        Assert.assertEquals(1, batchedCodenames.size());
+    }
+
+    @Test
+    public void testGetItemBatchingRevalidatesExpiredCacheEntryOnItsOwn() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger batchGets = new AtomicInteger(0);
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    batchGets.incrementAndGet();
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItemList.json")
+                            ));
+                });
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    Assert.assertEquals("\"on_roasts_v1\"", request.getFirstHeader("If-None-Match").getValue());
+                    response.setStatusCode(304);
+                    response.setHeader("ETag", "\"on_roasts_v1\"");
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .itemBatching(ItemBatchingOptions.builder().window(Duration.ofMillis(10)).build())
+                .build(), null);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        final JsonNode jsonNode = objectMapper.readValue(this.getClass().getResourceAsStream("SampleContentItem.json"), JsonNode.class);
+        final Map<String, CacheEntry> puts = new HashMap<>();
+        client.setCacheManager(new AsyncCacheManager() {
+            @Override
+            public CompletionStage<JsonNode> get(String url) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletionStage<CacheEntry> getEntry(String url) {
+                return CompletableFuture.completedFuture(
+                        new CacheEntry(jsonNode, "\"on_roasts_v1\"", null).asExpired());
+            }
+
+            @Override
+            public CompletionStage put(String url, JsonNode jsonNode, List<ContentItem> containedContentItems) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletionStage<?> put(String url, CacheEntry cacheEntry, List<ContentItem> containedContentItems) {
+                puts.put(url, cacheEntry);
+                return CompletableFuture.completedFuture(null);
+            }
+        });
+
+        ContentItemResponse item = client.getItem("on_roasts").toCompletableFuture().get();
+        Assert.assertEquals("on_roasts", item.getItem().getSystem().getCodename());
+        Assert.assertEquals(1, kontentGets.get());
+        Assert.assertEquals(0, batchGets.get());
+
+        CacheEntry refreshedEntry = puts.get(String.format("%s/%s/items/on_roasts", httpHost.toURI(), projectId));
+        Assert.assertNotNull(refreshedEntry);
+        Assert.assertFalse(refreshedEntry.isExpired());
+        Assert.assertSame(jsonNode, refreshedEntry.getJsonNode());
+    }
+
+    @Test
+    public void testGetItemBatchingLimitsLinkedItemsToRequestedDepth() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> response.setEntity(new StringEntity("{\"items\": [" +
+                        linkingItemJson("article", "related") + ", " + linkingItemJson("other_article", "author") +
+                        "], \"modular_content\": {" +
+                        "\"related\": " + linkingItemJson("related", "author") + ", " +
+                        "\"author\": " + linkingItemJson("author") + "}, " +
+                        "\"pagination\": {\"skip\": 0, \"limit\": 0, \"count\": 2, \"next_page\": \"\"}}")));
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .itemBatching(ItemBatchingOptions.builder().window(Duration.ofMillis(200)).build())
+                .build(), null);
+
+        CompletableFuture<ContentItemResponse> article = client.getItem("article").toCompletableFuture();
+        CompletableFuture<ContentItemResponse> otherArticle = client.getItem("other_article").toCompletableFuture();
+        Assert.assertEquals(Collections.singleton("related"), article.get().getLinkedItems().keySet());
+        Assert.assertEquals(Collections.singleton("author"), otherArticle.get().getLinkedItems().keySet());
+
+        CompletableFuture<ContentItemResponse> deepArticle = client
+                .getItem("article", DeliveryParameterBuilder.params().linkedItemsDepth(2).build())
+                .toCompletableFuture();
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList("related", "author")),
+                deepArticle.get().getLinkedItems().keySet());
+    }
+
+    private static String linkingItemJson(String codename, String... linkedCodenames) {
+        return "{\"system\": {\"id\": \"" + UUID.randomUUID() + "\", \"name\": \"" + codename + "\", " +
+                "\"codename\": \"" + codename + "\", \"language\": \"default\", \"type\": \"article\", " +
+                "\"last_modified\": \"2017-04-04T13:40:00.1102334Z\"}, " +
+                "\"elements\": {\"related\": {\"type\": \"modular_content\", \"name\": \"Related\", " +
+                "\"value\": [" + Arrays.stream(linkedCodenames).map(c -> "\"" + c + "\"").collect(Collectors.joining(", ")) +
+                "]}}}";
+    }
+
+    @Test
+    public void testQueryAndParametersShareCacheEntries() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        AtomicInteger requests = new AtomicInteger();
+        List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    requests.incrementAndGet();
+                    queries.add(URI.create(request.getRequestLine().getUri()).getRawQuery());
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItemList.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build(), null);
+        client.setCacheManager(new SimpleInMemoryCacheManager());
+
+        Query query = DeliveryParameterBuilder.params()
+                .language("es-ES")
+                .filterEquals("elements.title", "Coffee & Tea")
+                .page(0, 10)
+                .buildQuery();
+        List<kontent.ai.delivery.NameValuePair> reordered = DeliveryParameterBuilder.params()
+                .page(0, 10)
+                .filterEquals("elements.title", "Coffee & Tea")
+                .language("es-ES")
+                .build();
+
+        ContentItemsListingResponse response = client.getItems(query).toCompletableFuture().get();
+        Assert.assertEquals(3, response.getItems().size());
+        client.getItems(reordered).toCompletableFuture().get();
+        client.getItems(Query.of(reordered)).toCompletableFuture().get();
+
+        Assert.assertEquals(1, requests.get());
+        Assert.assertEquals(query.getQueryString(), queries.get(0));
+        Map<String, String> params = convertNameValuePairsToMap(URLEncodedUtils.parse(
+                URI.create(String.format("http://testserver/items?%s", queries.get(0))), Charset.defaultCharset()));
+        Assert.assertEquals("Coffee & Tea", params.get("elements.title"));
+    }
+
+    @Test
+    public void testLinkedItemsHydrationLoadsMissingLinkedItems() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> response.setEntity(new StringEntity(String.format(
+                        "{\"item\": %s, \"modular_content\": {}}", linkedItemJson("on_roasts", "coffee_beverages_explained")))));
+        List<String> hydratedCodenames = Collections.synchronizedList(new ArrayList<>());
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+                    Map<String, String> params =
+                            convertNameValuePairsToMap(URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset()));
+                    Assert.assertEquals("es-ES", params.get("language"));
+                    Assert.assertEquals("0", params.get("depth"));
+                    String codename = params.get("system.codename[in]");
+                    hydratedCodenames.add(codename);
+                    String item = "coffee_beverages_explained".equals(codename)
+                            ? linkedItemJson(codename, "origins_of_arabica_bourbon")
+                            : linkedItemJson(codename);
+                    response.setEntity(new StringEntity(String.format(
+                            "{\"items\": [%s], \"modular_content\": {}, " +
+                                    "\"pagination\": {\"skip\": 0, \"limit\": 0, \"count\": 1, \"next_page\": \"\"}}",
+                            item)));
+                });
+        HttpHost httpHost = this.start();
+
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .linkedItemsHydration(new LinkedItemsHydrationOptions())
+                .build(), null);
+        ContentItem item = client.getItem("on_roasts", DeliveryParameterBuilder.params().language("es-ES").build())
+                .toCompletableFuture()
+                .get()
+                .getItem();
+        ContentItem linkedItem = item.getLinkedItem("coffee_beverages_explained");
+        Assert.assertNotNull(linkedItem);
+        Assert.assertNotNull(linkedItem.getLinkedItem("origins_of_arabica_bourbon"));
+        Assert.assertEquals(
+                Arrays.asList("coffee_beverages_explained", "origins_of_arabica_bourbon"), hydratedCodenames);
+
+        // The depth cap stops the hydration after the first level
+        hydratedCodenames.clear();
+        DeliveryClient cappedClient = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .linkedItemsHydration(LinkedItemsHydrationOptions.builder().maxDepth(1).build())
+                .build(), null);
+        ContentItem cappedItem = cappedClient
+                .getItem("on_roasts", DeliveryParameterBuilder.params().language("es-ES").build())
+                .toCompletableFuture()
+                .get()
+                .getItem();
+        Assert.assertNotNull(cappedItem.getLinkedItem("coffee_beverages_explained"));
+        Assert.assertNull(cappedItem.getLinkedItem("origins_of_arabica_bourbon"));
+        Assert.assertEquals(Collections.singletonList("coffee_beverages_explained"), hydratedCodenames);
+    }
+
+    private static String linkedItemJson(String codename, String... linkedItems) {
+        return String.format("{\"system\": {\"id\": \"f4b3fc05-e988-4dae-9ac1-a94aba566474\", " +
+                "\"name\": \"%1$s\", \"codename\": \"%1$s\", \"language\": \"es-ES\", \"type\": \"article\", " +
+                "\"collection\": \"default\", \"sitemap_locations\": [], " +
+                "\"last_modified\": \"2019-03-27T13:10:01.791Z\", \"workflow_step\": \"published\"}, " +
+                "\"elements\": {\"related_articles\": {\"type\": \"modular_content\", \"name\": \"Related articles\", " +
+                "\"value\": [%2$s]}}}",
+                codename,
+                Arrays.stream(linkedItems).map(linkedItem -> "\"" + linkedItem + "\"").collect(Collectors.joining(",")));
+    }
+
+    @Test
+    public void testSyncDeliversChangesAndStoresContinuationToken() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "sync/init"),
+                (request, response, context) -> {
+                    Assert.assertEquals("POST", request.getRequestLine().getMethod());
+                    Assert.assertTrue(request.getRequestLine().getUri().contains("system.type=article"));
+                    response.setHeader("X-Continuation", "token_0");
+                    response.setEntity(new StringEntity("{\"items\": []}"));
+                });
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "sync"),
+                (request, response, context) -> {
+                    String continuation = request.getFirstHeader("X-Continuation").getValue();
+                    String items;
+                    if ("token_0".equals(continuation)) {
+                        response.setHeader("X-Continuation", "token_1");
+                        items = syncItemJson("on_roasts", "changed") + "," + syncItemJson("coffee_processing_techniques", "deleted");
+                    } else if ("token_1".equals(continuation)) {
+                        response.setHeader("X-Continuation", "token_2");
+                        items = syncItemJson("on_roasts", "changed");
+                    } else {
+                        response.setHeader("X-Continuation", continuation);
+                        items = "";
+                    }
+                    response.setEntity(new StringEntity(String.format("{\"items\": [%s]}", items)));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build(), null);
+
+        ContinuationTokenStore tokenStore = new FileContinuationTokenStore(
+                Files.createTempDirectory("sync").resolve("continuation-token"));
+        try {
+            client.sync(tokenStore, item -> { }).toCompletableFuture().get();
+            Assert.fail("Expected IllegalStateException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        client.initializeSync(DeliveryParameterBuilder.params().filterEquals("system.type", "article").build(), tokenStore)
+                .toCompletableFuture()
+                .get();
+        Assert.assertEquals("token_0", tokenStore.load());
+
+        List<SyncItem> changes = new ArrayList<>();
+        int syncedChanges = client.sync(tokenStore, changes::add).toCompletableFuture().get();
+        Assert.assertEquals(3, syncedChanges);
+        Assert.assertEquals(3, changes.size());
+        Assert.assertEquals("on_roasts", changes.get(0).getCodename());
+        Assert.assertEquals("en-US", changes.get(0).getLanguage());
+        Assert.assertEquals(SyncChangeType.CHANGED, changes.get(0).getChangeType());
+        Assert.assertEquals(SyncChangeType.DELETED, changes.get(1).getChangeType());
+        Assert.assertEquals("token_2", tokenStore.load());
+
+        // Nothing changed since
+        Assert.assertEquals(0, (int) client.sync(tokenStore, changes::add).toCompletableFuture().get());
+    }
+
+    private static String syncItemJson(String codename, String changeType) {
+        return String.format("{\"data\": {\"system\": {\"id\": \"f4b3fc05-e988-4dae-9ac1-a94aba566474\", " +
+                "\"name\": \"%1$s\", \"codename\": \"%1$s\", \"language\": \"en-US\", \"type\": \"article\", " +
+                "\"collection\": \"default\", \"sitemap_locations\": [], " +
+                "\"last_modified\": \"2019-03-27T13:10:01.791Z\", \"workflow_step\": \"published\"}, " +
+                "\"elements\": {}}, \"change_type\": \"%2$s\", \"timestamp\": \"2019-03-27T13:10:01.791Z\"}",
+                codename, changeType);
+    }
+
+    @Test
+    public void testPublishItemsFetchesPagesOnDemand() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        AtomicInteger requestedPages = new AtomicInteger(0);
+        CountDownLatch releaseSecondPage = new CountDownLatch(1);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    requestedPages.incrementAndGet();
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+                    Map<String, String> params =
+                            convertNameValuePairsToMap(URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset()));
+                    int page = params.containsKey("page") ? Integer.parseInt(params.get("page")) : 0;
+                    if (page == 1 && params.containsKey("slow")) {
+                        try {
+                            releaseSecondPage.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    BufferedReader bufferedReader =
+                            new BufferedReader(
+                                    new InputStreamReader(
+                                            this.getClass().getResourceAsStream("SampleContentItemList.json")
+                                    )
+                            );
+                    String line;
+                    StringBuilder responseString = new StringBuilder();
+                    while ((line = bufferedReader.readLine()) != null) {
+                        if (line.contains("next_page")) {
+                            responseString.append("\"next_page\": \"");
+                            if (page < 3) {
+                                responseString.append((new HttpHost("localhost", this.server.getLocalPort(), this.scheme.name())).toURI());
+                                responseString.append(String.format("/%s/items?page=%d", projectId, page + 1));
+                                if (params.containsKey("slow")) {
+                                    responseString.append("&slow=true");
+                                }
+                            }
+                            responseString.append("\"\r\n");
+                        } else {
+                            responseString.append(line).append("\r\n");
+                        }
+                    }
+                    bufferedReader.close();
+                    response.setEntity(new StringEntity(responseString.toString()));
+                });
+        HttpHost httpHost = this.start();
+        AtomicBoolean callCancelled = new AtomicBoolean(false);
+        OkHttpTransport okHttpTransport = new OkHttpTransport(new OkHttpClient());
+        HttpTransport instrumentedTransport = request -> {
+            CompletionStage<HttpTransportResponse> stage = okHttpTransport.send(request);
+            stage.whenComplete((response, error) -> {
+                if (error instanceof CancellationException) {
+                    callCancelled.set(true);
+                }
+            });
+            return stage;
+        };
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .httpTransport(instrumentedTransport)
+                .build(), null);
+
+        // All pages are published when the demand is unbounded
+        List<ContentItem> allItems = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(1);
+        client.publishItems(ContentItem.class, DeliveryParameterBuilder.params().page(0, 3).build())
+                .subscribe(new Subscriber<ContentItem>() {
+                    @Override
+                    public void onSubscribe(Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(ContentItem contentItem) {
+                        allItems.add(contentItem);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        completed.countDown();
+                    }
+                });
+        Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(12, allItems.size());
+        Assert.assertEquals(4, requestedPages.get());
+
+        // The next page is only requested on demand, cancelling aborts the call in flight
+        requestedPages.set(0);
+        List<ContentItem> items = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean terminated = new AtomicBoolean(false);
+        Subscription[] subscription = new Subscription[1];
+        client.publishItems(ContentItem.class, DeliveryParameterBuilder.params().page(0, 3).filterEquals("slow", "true").build())
+                .subscribe(new Subscriber<ContentItem>() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        subscription[0] = s;
+                        s.request(1);
+                    }
+
+                    @Override
+                    public void onNext(ContentItem contentItem) {
+                        items.add(contentItem);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        terminated.set(true);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        terminated.set(true);
+                    }
+                });
+        waitUntil(() -> items.size() == 1);
+        Thread.sleep(200);
+        Assert.assertEquals(1, requestedPages.get());
+
+        subscription[0].request(3);
+        waitUntil(() -> items.size() == 3 && requestedPages.get() == 2);
+        subscription[0].cancel();
+        waitUntil(callCancelled::get);
+        releaseSecondPage.countDown();
+        Thread.sleep(200);
+        Assert.assertEquals(3, items.size());
+        Assert.assertFalse(terminated.get());
+    }
+
+    @Test
+    public void testGetAllItemsFetchesPagesConcurrently() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        List<Map<String, String>> receivedParams = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger runningRequests = new AtomicInteger(0);
+        AtomicInteger maxRunningRequests = new AtomicInteger(0);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    maxRunningRequests.accumulateAndGet(runningRequests.incrementAndGet(), Math::max);
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+                    Map<String, String> params =
+                            convertNameValuePairsToMap(URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset()));
+                    receivedParams.add(params);
+                    int skip = Integer.parseInt(params.get("skip"));
+                    try {
+                        // Earlier pages respond later, the items must still come in order
+                        Thread.sleep(skip == 0 ? 0 : 300 - skip * 20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    BufferedReader bufferedReader =
+                            new BufferedReader(
+                                    new InputStreamReader(
+                                            this.getClass().getResourceAsStream("SampleContentItemList.json")
+                                    )
+                            );
+                    String line;
+                    StringBuilder responseString = new StringBuilder();
+                    while ((line = bufferedReader.readLine()) != null) {
+                        if (line.contains("\"skip\"")) {
+                            responseString.append(String.format("\"skip\": %d,\r\n", skip));
+                        } else if (line.contains("\"total_count\"")) {
+                            responseString.append("\"total_count\": 12,\r\n");
+                        } else if (line.contains("next_page")) {
+                            responseString.append(skip < 9 ? "\"next_page\": \"next\"\r\n" : "\"next_page\": \"\"\r\n");
+                        } else {
+                            responseString.append(line.replace("coffee_beverages_explained", "coffee_beverages_explained_" + skip))
+                                    .append("\r\n");
+                        }
+                    }
+                    bufferedReader.close();
+                    runningRequests.decrementAndGet();
+                    response.setEntity(new StringEntity(responseString.toString()));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .maxParallelPageRequests(2)
+                .build(), null);
+
+        List<ContentItem> items = client.getAllItems(ContentItem.class, DeliveryParameterBuilder.params().page(0, 3).build())
+                .toCompletableFuture()
+                .get();
+
+        Assert.assertEquals(12, items.size());
+        for (int skip = 0; skip < 12; skip += 3) {
+            Assert.assertEquals("coffee_beverages_explained_" + skip, items.get(skip).getSystem().getCodename());
+        }
+        Assert.assertEquals(4, receivedParams.size());
+        Assert.assertEquals("true", receivedParams.get(0).get("includeTotalCount"));
+        Assert.assertEquals(2, maxRunningRequests.get());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = java.lang.System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue(java.lang.System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testStreamItemsFollowsPagesWithBoundedPrefetch() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        AtomicInteger requestedPages = new AtomicInteger(0);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items"),
+                (request, response, context) -> {
+                    requestedPages.incrementAndGet();
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+                    Map<String, String> params =
+                            convertNameValuePairsToMap(URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset()));
+                    int page = params.containsKey("page") ? Integer.parseInt(params.get("page")) : 0;
+
+                    BufferedReader bufferedReader =
+                            new BufferedReader(
+                                    new InputStreamReader(
+                                            this.getClass().getResourceAsStream("SampleContentItemList.json")
+                                    )
+                            );
+                    String line;
+                    StringBuilder responseString = new StringBuilder();
+                    while ((line = bufferedReader.readLine()) != null) {
+                        if (line.contains("next_page")) {
+                            responseString.append("\"next_page\": \"");
+                            if (page < 3) {
+                                responseString.append((new HttpHost("localhost", this.server.getLocalPort(), this.scheme.name())).toURI());
+                                responseString.append(String.format("/%s/items?page=%d", projectId, page + 1));
+                            }
+                            responseString.append("\"\r\n");
+                        } else {
+                            responseString.append(line).append("\r\n");
+                        }
+                    }
+                    bufferedReader.close();
+                    response.setEntity(new StringEntity(responseString.toString()));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build(), null);
+
+        try (Stream<ContentItem> items = client.streamItems(
+                ContentItem.class, DeliveryParameterBuilder.params().page(0, 3).build())) {
+            Assert.assertEquals(12, items.count());
+        }
+        Assert.assertEquals(4, requestedPages.get());
+
+        // Only one page is fetched ahead of the consumed one
+        requestedPages.set(0);
+        try (Stream<ContentItem> items = client.streamItems(
+                ContentItem.class, DeliveryParameterBuilder.params().page(0, 3).build(), 1)) {
+            Assert.assertEquals("coffee_beverages_explained", items.iterator().next().getSystem().getCodename());
+            Thread.sleep(300);
+            Assert.assertEquals(2, requestedPages.get());
+        }
+    }
+
+
+    @Test
+    public void testGetItemWithParams() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
+
+                    List<NameValuePair> nameValuePairs =
+                            URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset());
+                    Map<String, String> params = convertNameValuePairsToMap(nameValuePairs);
+                    Assert.assertEquals(1, params.size());
+                    Assert.assertEquals("/path1/path2/test-article", params.get("elements.url_pattern"));
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            )
+                    );
+                });
+        HttpHost httpHost = this.start();
+        String testServerUri = httpHost.toURI();
+        DeliveryOptions deliveryOptions = new DeliveryOptions();
+        deliveryOptions.setProjectId(projectId);
+        deliveryOptions.setProductionEndpoint(testServerUri);
+
+        DeliveryClient client = new DeliveryClient(deliveryOptions);
+        client.setContentLinkUrlResolver(Link::getUrlSlug);
+
+        List<kontent.ai.delivery.NameValuePair> urlPattern = DeliveryParameterBuilder.params().filterEquals("elements.url_pattern", "/path1/path2/test-article").build();
+        ContentItemResponse item = client.getItem("on_roasts", urlPattern)
+                .toCompletableFuture()
+                .get();
+
+        Assert.assertNotNull(item);
+
+    }
+
+    @Test
+    public void testGetItem() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleContentItem.json")
+                        )
+                ));
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+        client.getDeliveryOptions().retryAttempts = -1;
+
+        ContentItemResponse item = client.getItem("on_roasts")
+                .toCompletableFuture()
+                .get();
+        Assert.assertNotNull(item);
+    }
+
+    @Test
+    public void testBlockingDeliveryClient() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleContentItem.json")
+                        )
+                ));
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/error"),
+                (request, response, context) -> {
+                    response.setStatusCode(404);
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleKontentError.json")
+                            )
+                    );
+                });
+        HttpHost httpHost = this.start();
+        BlockingDeliveryClient client = new BlockingDeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build());
+
+        ContentItemResponse item = client.getItem("on_roasts");
+        Assert.assertNotNull(item);
+        Assert.assertEquals("on_roasts", item.getItem().getSystem().getCodename());
+
+        try {
+            client.getItem("error");
+            Assert.fail("Expected KontentErrorException");
+        } catch (KontentErrorException e) {
+            Assert.assertEquals("The requested content item 'error' was not found.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGetTaxonomyList() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "taxonomies"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleTaxonomyGroupListingResponse.json")
+                        )
+                ));
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+
+        TaxonomyGroupListingResponse response = client.getTaxonomyGroups()
+                .toCompletableFuture()
+                .get();
+        Assert.assertNotNull(response);
+
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    public void testGetTaxonomyGroup() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "taxonomies/personas"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleTaxonomyGroup.json")
+                        )
+                ));
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+
+        TaxonomyGroup taxonomyGroup = client.getTaxonomyGroup("personas")
+                .toCompletableFuture()
+                .get();
+        Assert.assertNotNull(taxonomyGroup);
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JSR310Module());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        final JsonNode jsonNode = objectMapper.readValue(this.getClass().getResourceAsStream("SampleContentItem.json"), JsonNode.class);
+
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        testCache.put("https://deliver.kontent.ai/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts", jsonNode, null);
+
+        ContentItemResponse item = client.getItem("on_roasts")
+                .toCompletableFuture()
+                .get();
+        Assert.assertNotNull(item);
+        Assert.assertEquals(1, testCache.queries.get());
+        Assert.assertEquals(1, testCache.hits.get());
+
+    }
+
+    @Test
+    public void testPutInCacheAfterNotFoundInCache() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleContentItem.json")
+                        )
+                ));
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+
+        ContentItemResponse item = client.getItem("on_roasts")
                 .toCompletableFuture()
                 .get();
-        Assert.assertEquals(0, nextPage.getSize());
-        Assert.assertFalse(nextPage.hasContent());
-        Assert.assertFalse(nextPage.isFirst());
-        Assert.assertTrue(nextPage.isLast());
-        Assert.assertFalse(nextPage.hasNext());
-        Assert.assertTrue(nextPage.hasPrevious());
+        Assert.assertNotNull(item);
+        Assert.assertEquals(1, testCache.queries.get());
+        Assert.assertEquals(0, testCache.hits.get());
+        Assert.assertEquals(1, testCache.puts.get());
+    }
 
-        Assert.assertNull(client.getNextPage(nextPage).toCompletableFuture().get());
+
+    @Test
+    public void testExplicitlySkipCache() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> response.setEntity(
+                        new InputStreamEntity(
+                                this.getClass().getResourceAsStream("SampleContentItem.json")
+                        )
+                ));
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+        client.getDeliveryOptions().setWaitForLoadingNewContent(true);
+
+        ContentItemResponse item = client.getItem("on_roasts")
+                .toCompletableFuture()
+                .get();
+        Assert.assertNotNull(item);
+
+        Assert.assertEquals(0, testCache.queries.get());
+        Assert.assertEquals(1, testCache.puts.get());
+    }
+
+    @Test
+    public void testExplicitCacheModeOverridesGlobalWaitForLoadingNewContent() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        client.getDeliveryOptions().setProductionEndpoint(httpHost.toURI());
+        client.getDeliveryOptions().setWaitForLoadingNewContent(true);
+
+        client.getItem("on_roasts").toCompletableFuture().get();
+        Assert.assertEquals(0, testCache.queries.get());
+        Assert.assertEquals(1, kontentGets.get());
+
+        ContentItemResponse item = client.getItem("on_roasts", Collections.emptyList(),
+                        RequestOptions.builder().cacheMode(CacheMode.READ_THROUGH).build())
+                .toCompletableFuture()
+                .get();
+        Assert.assertNotNull(item);
+        Assert.assertEquals(1, testCache.hits.get());
+        Assert.assertEquals(1, kontentGets.get());
+    }
+
+    @Test
+    public void testCacheWriteOnceReadMany() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        final String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        final int nrOfTimesToRetrieveItem = 10;
+        for (int i = 0; i < nrOfTimesToRetrieveItem; i++) {
+            Assert.assertNotNull(client.getItem("on_roasts")
+                    .toCompletableFuture()
+                    .get());
+        }
+
+        Assert.assertEquals(1, kontentGets.get());
+        Assert.assertEquals(1, testCache.puts.get());
+        Assert.assertEquals(nrOfTimesToRetrieveItem, testCache.queries.get());
+        Assert.assertEquals(nrOfTimesToRetrieveItem - 1, testCache.hits.get());
+        Assert.assertTrue(testCache.cache.containsKey(testServerUri + "/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts"));
+    }
+
+
+    @Test
+    public void testCacheRepopulationAfterInvalidation() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        final String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+
+        testCache.invalidate(new SimpleInMemoryCacheManager.CacheTag("origins_of_arabica_bourbon", "en-US"));
+
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertEquals(2, kontentGets.get());
+        Assert.assertEquals(2, testCache.puts.get());
+        Assert.assertEquals(3, testCache.queries.get());
+    }
+
+    @Test
+    public void testBoundedCacheRepopulationAfterInvalidation() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        final String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+
+        final BoundedInMemoryCacheManager testCache = new BoundedInMemoryCacheManager(10 * 1024 * 1024);
+        client.setCacheManager(testCache);
+
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertEquals(1, testCache.size());
+        Assert.assertTrue(testCache.getWeightedSize() > 0);
+
+        testCache.invalidate(new SimpleInMemoryCacheManager.CacheTag("origins_of_arabica_bourbon", "en-US"));
+        Assert.assertEquals(0, testCache.size());
+        Assert.assertEquals(0, testCache.getWeightedSize());
+
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertEquals(2, kontentGets.get());
+        Assert.assertEquals(1, testCache.getHitCount());
+        Assert.assertEquals(2, testCache.getMissCount());
+        Assert.assertEquals(0, testCache.getEvictionCount());
+    }
+
+    @Test
+    public void testConcurrentRequestsForSameUrlAreCoalesced() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+        final CountDownLatch releaseResponse = new CountDownLatch(1);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    try {
+                        releaseResponse.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+
+        final String testServerUri = httpHost.toURI();
+        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
+
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        final int concurrentCallers = 10;
+        List<CompletableFuture<ContentItemResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < concurrentCallers; i++) {
+            responses.add(client.getItem("on_roasts").toCompletableFuture());
+        }
+        releaseResponse.countDown();
+
+        for (CompletableFuture<ContentItemResponse> response : responses) {
+            ContentItemResponse item = response.get();
+            Assert.assertNotNull(item);
+            Assert.assertEquals("on_roasts", item.getItem().getSystem().getCodename());
+        }
+        Assert.assertNotSame(responses.get(0).get(), responses.get(1).get());
+
+        Assert.assertEquals(1, kontentGets.get());
+        Assert.assertEquals(1, testCache.puts.get());
+        Assert.assertEquals(1, client.getOriginRequestCount());
+        Assert.assertEquals(concurrentCallers - 1, client.getCoalescedRequestCount());
+
+        // Once completed, a new request is not joined to the finished one
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        Assert.assertEquals(1, kontentGets.get());
+        Assert.assertEquals(concurrentCallers - 1, client.getCoalescedRequestCount());
+    }
+
+    @Test
+    public void testRequestWaitingForNewContentIsNotJoinedToRequestWithoutWaiting() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+        final AtomicInteger waitingGets = new AtomicInteger(0);
+        final CountDownLatch releaseResponse = new CountDownLatch(1);
+
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    if (request.getFirstHeader(DeliveryClient.HEADER_X_KC_WAIT_FOR_LOADING_NEW_CONTENT) != null) {
+                        waitingGets.incrementAndGet();
+                    }
+                    try {
+                        releaseResponse.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(projectId);
+        client.getDeliveryOptions().setProductionEndpoint(httpHost.toURI());
+
+        RequestOptions waiting = RequestOptions.builder().waitForLoadingNewContent(true).build();
+        List<CompletableFuture<ContentItemResponse>> responses = new ArrayList<>();
+        responses.add(client.getItem("on_roasts").toCompletableFuture());
+        waitUntil(() -> kontentGets.get() == 1);
+        responses.add(client.getItem("on_roasts", Collections.emptyList(), waiting).toCompletableFuture());
+        responses.add(client.getItem("on_roasts", Collections.emptyList(), waiting).toCompletableFuture());
+        waitUntil(() -> kontentGets.get() == 2);
+        releaseResponse.countDown();
+
+        for (CompletableFuture<ContentItemResponse> response : responses) {
+            Assert.assertEquals("on_roasts", response.get().getItem().getSystem().getCodename());
+        }
+        Assert.assertEquals(2, kontentGets.get());
+        Assert.assertEquals(1, waitingGets.get());
+        Assert.assertEquals(2, client.getOriginRequestCount());
+        Assert.assertEquals(1, client.getCoalescedRequestCount());
     }
 
-
     @Test
-    public void testGetItemWithParams() throws Exception {
+    public void testRequestIsNotJoinedToRequestWithEarlierDeadline() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
 
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+        final CountDownLatch releaseResponse = new CountDownLatch(1);
+
         this.serverBootstrap.registerHandler(
                 String.format("/%s/%s", projectId, "items/on_roasts"),
                 (request, response, context) -> {
-                    String uri = String.format("http://testserver%s", request.getRequestLine().getUri());
-
-                    List<NameValuePair> nameValuePairs =
-                            URLEncodedUtils.parse(URI.create(uri), Charset.defaultCharset());
-                    Map<String, String> params = convertNameValuePairsToMap(nameValuePairs);
-                    Assert.assertEquals(1, params.size());
-                    Assert.assertEquals("/path1/path2/test-article", params.get("elements.url_pattern"));
+                    kontentGets.incrementAndGet();
+                    try {
+                        releaseResponse.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
                     response.setEntity(
                             new InputStreamEntity(
                                     this.getClass().getResourceAsStream("SampleContentItem.json")
-                            )
-                    );
+                            ));
                 });
         HttpHost httpHost = this.start();
-        String testServerUri = httpHost.toURI();
-        DeliveryOptions deliveryOptions = new DeliveryOptions();
-        deliveryOptions.setProjectId(projectId);
-        deliveryOptions.setProductionEndpoint(testServerUri);
-
-        DeliveryClient client = new DeliveryClient(deliveryOptions);
-        client.setContentLinkUrlResolver(Link::getUrlSlug);
+        DeliveryClient client = new DeliveryClient(projectId);
+        client.getDeliveryOptions().setProductionEndpoint(httpHost.toURI());
 
-        List<kontent.ai.delivery.NameValuePair> urlPattern = DeliveryParameterBuilder.params().filterEquals("elements.url_pattern", "/path1/path2/test-article").build();
-        ContentItemResponse item = client.getItem("on_roasts", urlPattern)
-                .toCompletableFuture()
-                .get();
+        CompletableFuture<ContentItemResponse> hurried = client.getItem("on_roasts", Collections.emptyList(),
+                RequestOptions.builder().deadline(Instant.now().plusSeconds(1)).build()).toCompletableFuture();
+        waitUntil(() -> kontentGets.get() == 1);
+        CompletableFuture<ContentItemResponse> patient = client.getItem("on_roasts", Collections.emptyList(),
+                RequestOptions.builder().deadline(Instant.now().plusSeconds(10)).build()).toCompletableFuture();
+        waitUntil(() -> kontentGets.get() == 2);
 
-        Assert.assertNotNull(item);
+        try {
+            hurried.get();
+            Assert.fail("Expected KontentDeadlineExceededException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentDeadlineExceededException);
+        }
+        releaseResponse.countDown();
 
+        Assert.assertEquals("on_roasts", patient.get().getItem().getSystem().getCodename());
+        Assert.assertEquals(2, client.getOriginRequestCount());
+        Assert.assertEquals(0, client.getCoalescedRequestCount());
     }
 
     @Test
-    public void testGetItem() throws Exception {
+    public void testCacheStoresResponseValidators() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
 
         this.serverBootstrap.registerHandler(
                 String.format("/%s/%s", projectId, "items/on_roasts"),
-                (request, response, context) -> response.setEntity(
-                        new InputStreamEntity(
-                                this.getClass().getResourceAsStream("SampleContentItem.json")
-                        )
-                ));
+                (request, response, context) -> {
+                    response.setHeader("ETag", "\"on_roasts_v1\"");
+                    response.setHeader("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT");
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
         HttpHost httpHost = this.start();
         DeliveryClient client = new DeliveryClient(projectId);
 
-        String testServerUri = httpHost.toURI();
+        final String testServerUri = httpHost.toURI();
         client.getDeliveryOptions().setProductionEndpoint(testServerUri);
-        client.getDeliveryOptions().retryAttempts = -1;
 
-        ContentItemResponse item = client.getItem("on_roasts")
-                .toCompletableFuture()
-                .get();
-        Assert.assertNotNull(item);
+        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        client.setCacheManager(testCache);
+
+        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+
+        CacheEntry cacheEntry = testCache.getEntry(testServerUri + "/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts");
+        Assert.assertNotNull(cacheEntry);
+        Assert.assertSame(
+                cacheEntry.getJsonNode(),
+                testCache.cache.get(testServerUri + "/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts"));
+        Assert.assertEquals("\"on_roasts_v1\"", cacheEntry.getEtag());
+        Assert.assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", cacheEntry.getLastModified());
+        Assert.assertFalse(cacheEntry.isExpired());
     }
 
     @Test
-    public void testGetTaxonomyList() throws Exception {
+    public void testResponseIsProcessedOnConfiguredExecutor() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
 
         this.serverBootstrap.registerHandler(
-                String.format("/%s/%s", projectId, "taxonomies"),
+                String.format("/%s/%s", projectId, "items"),
                 (request, response, context) -> response.setEntity(
                         new InputStreamEntity(
-                                this.getClass().getResourceAsStream("SampleTaxonomyGroupListingResponse.json")
-                        )
-                ));
+                                this.getClass().getResourceAsStream("SampleContentItemList.json")
+                        )));
         HttpHost httpHost = this.start();
-        DeliveryClient client = new DeliveryClient(projectId);
-
-        String testServerUri = httpHost.toURI();
-        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
-
-        TaxonomyGroupListingResponse response = client.getTaxonomyGroups()
-                .toCompletableFuture()
-                .get();
-        Assert.assertNotNull(response);
-
+        ExecutorService pool = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "test-executor"));
+        AtomicInteger executedTasks = new AtomicInteger(0);
+        try {
+            DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                    .projectId(projectId)
+                    .productionEndpoint(httpHost.toURI())
+                    .executor(runnable -> {
+                        executedTasks.incrementAndGet();
+                        pool.execute(runnable);
+                    })
+                    .build(), null);
+            List<String> resolverThreads = Collections.synchronizedList(new ArrayList<>());
+            client.addRichTextElementResolver(content -> {
+                resolverThreads.add(Thread.currentThread().getName());
+                return content;
+            });
+            client.setCacheManager(new SimpleInMemoryCacheManager());
+
+            ContentItemsListingResponse items = client.getItems().toCompletableFuture().get();
+            Assert.assertFalse(items.getItems().isEmpty());
+            Assert.assertFalse(resolverThreads.isEmpty());
+            Assert.assertTrue(resolverThreads.stream().allMatch("test-executor"::equals));
+
+            // The cached response is bound on the executor as well
+            int tasksBeforeCacheHit = executedTasks.get();
+            client.getItems().toCompletableFuture().get();
+            Assert.assertTrue(executedTasks.get() > tasksBeforeCacheHit);
+        } finally {
+            pool.shutdown();
+        }
     }
 
     @Test
-    @SuppressWarnings("all")
-    public void testGetTaxonomyGroup() throws Exception {
+    public void testBlockingCacheManagerRunsOffCommonPoolByDefault() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
 
         this.serverBootstrap.registerHandler(
-                String.format("/%s/%s", projectId, "taxonomies/personas"),
+                String.format("/%s/%s", projectId, "items/on_roasts"),
                 (request, response, context) -> response.setEntity(
                         new InputStreamEntity(
-                                this.getClass().getResourceAsStream("SampleTaxonomyGroup.json")
-                        )
-                ));
+                                this.getClass().getResourceAsStream("SampleContentItem.json")
+                        )));
         HttpHost httpHost = this.start();
-        DeliveryClient client = new DeliveryClient(projectId);
-
-        String testServerUri = httpHost.toURI();
-        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
-
-        TaxonomyGroup taxonomyGroup = client.getTaxonomyGroup("personas")
-                .toCompletableFuture()
-                .get();
-        Assert.assertNotNull(taxonomyGroup);
-    }
-
-    @Test
-    public void testCache() throws Exception {
-        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
-        DeliveryClient client = new DeliveryClient(projectId);
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JSR310Module());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        final JsonNode jsonNode = objectMapper.readValue(this.getClass().getResourceAsStream("SampleContentItem.json"), JsonNode.class);
-
-        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
-        client.setCacheManager(testCache);
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build(), null);
+        List<Thread> cacheThreads = Collections.synchronizedList(new ArrayList<>());
+        client.setCacheManager(new SimpleInMemoryCacheManager() {
+            @Override
+            public CacheEntry getEntry(String url) {
+                cacheThreads.add(Thread.currentThread());
+                return super.getEntry(url);
+            }
 
-        testCache.put("https://deliver.kontent.ai/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts", jsonNode, null);
+            @Override
+            public void put(String url, CacheEntry cacheEntry, List<ContentItem> containedContentItems) {
+                cacheThreads.add(Thread.currentThread());
+                super.put(url, cacheEntry, containedContentItems);
+            }
+        });
 
-        ContentItemResponse item = client.getItem("on_roasts")
-                .toCompletableFuture()
-                .get();
-        Assert.assertNotNull(item);
-        Assert.assertEquals(1, testCache.queries.get());
-        Assert.assertEquals(1, testCache.hits.get());
+        client.getItem("on_roasts").toCompletableFuture().get();
+        client.getItem("on_roasts").toCompletableFuture().get();
 
+        Assert.assertEquals(3, cacheThreads.size());
+        for (Thread thread : cacheThreads) {
+            Assert.assertFalse(thread instanceof ForkJoinWorkerThread);
+            Assert.assertTrue(thread.isDaemon());
+        }
     }
 
     @Test
-    public void testPutInCacheAfterNotFoundInCache() throws Exception {
+    public void testBlockingCacheManagerRunsOnConfiguredBlockingExecutor() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
 
         this.serverBootstrap.registerHandler(
@@ -651,106 +2713,222 @@ public class DeliveryClientTest extends LocalServerTestBase {
                 (request, response, context) -> response.setEntity(
                         new InputStreamEntity(
                                 this.getClass().getResourceAsStream("SampleContentItem.json")
-                        )
-                ));
+                        )));
         HttpHost httpHost = this.start();
-        DeliveryClient client = new DeliveryClient(projectId);
-
-        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
-        client.setCacheManager(testCache);
-
-        String testServerUri = httpHost.toURI();
-        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
-
-        ContentItemResponse item = client.getItem("on_roasts")
-                .toCompletableFuture()
-                .get();
-        Assert.assertNotNull(item);
-        Assert.assertEquals(1, testCache.queries.get());
-        Assert.assertEquals(0, testCache.hits.get());
-        Assert.assertEquals(1, testCache.puts.get());
+        ExecutorService pool = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "test-blocking"));
+        try {
+            DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                    .projectId(projectId)
+                    .productionEndpoint(httpHost.toURI())
+                    .blockingExecutor(pool)
+                    .build(), null);
+            List<String> cacheThreads = Collections.synchronizedList(new ArrayList<>());
+            client.setCacheManager(new SimpleInMemoryCacheManager() {
+                @Override
+                public CacheEntry getEntry(String url) {
+                    cacheThreads.add(Thread.currentThread().getName());
+                    return super.getEntry(url);
+                }
+            });
+
+            client.getItem("on_roasts").toCompletableFuture().get();
+            client.getItem("on_roasts").toCompletableFuture().get();
+
+            Assert.assertEquals(Arrays.asList("test-blocking", "test-blocking"), cacheThreads);
+        } finally {
+            pool.shutdown();
+        }
     }
 
-
     @Test
-    public void testExplicitlySkipCache() throws Exception {
+    public void testRequestCacheModes() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
 
+        final AtomicInteger kontentGets = new AtomicInteger(0);
         this.serverBootstrap.registerHandler(
                 String.format("/%s/%s", projectId, "items/on_roasts"),
-                (request, response, context) -> response.setEntity(
-                        new InputStreamEntity(
-                                this.getClass().getResourceAsStream("SampleContentItem.json")
-                        )
-                ));
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    response.setEntity(
+                            new InputStreamEntity(
+                                    this.getClass().getResourceAsStream("SampleContentItem.json")
+                            ));
+                });
         HttpHost httpHost = this.start();
         DeliveryClient client = new DeliveryClient(projectId);
+        client.getDeliveryOptions().setProductionEndpoint(httpHost.toURI());
+        client.setCacheManager(new SimpleInMemoryCacheManager());
 
-        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
-        client.setCacheManager(testCache);
+        RequestOptions cacheOnly = RequestOptions.builder().cacheMode(CacheMode.CACHE_ONLY).build();
+        RequestOptions bypassButWrite = RequestOptions.builder().cacheMode(CacheMode.BYPASS_BUT_WRITE).build();
 
-        String testServerUri = httpHost.toURI();
-        client.getDeliveryOptions().setProductionEndpoint(testServerUri);
-        client.getDeliveryOptions().setWaitForLoadingNewContent(true);
+        try {
+            client.getItem("on_roasts", Collections.emptyList(), cacheOnly).toCompletableFuture().get();
+            Assert.fail("Expected KontentCacheMissException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentCacheMissException);
+        }
+        Assert.assertEquals(0, kontentGets.get());
 
-        ContentItemResponse item = client.getItem("on_roasts")
-                .toCompletableFuture()
-                .get();
-        Assert.assertNotNull(item);
+        client.getItem("on_roasts", Collections.emptyList(), bypassButWrite).toCompletableFuture().get();
+        Assert.assertEquals(1, kontentGets.get());
 
-        Assert.assertEquals(0, testCache.queries.get());
-        Assert.assertEquals(1, testCache.puts.get());
+        ContentItemResponse cached =
+                client.getItem("on_roasts", Collections.emptyList(), cacheOnly).toCompletableFuture().get();
+        Assert.assertEquals("on_roasts", cached.getItem().getSystem().getCodename());
+        client.getItem("on_roasts").toCompletableFuture().get();
+        Assert.assertEquals(1, kontentGets.get());
+
+        client.getItem("on_roasts", Collections.emptyList(), bypassButWrite).toCompletableFuture().get();
+        Assert.assertEquals(2, kontentGets.get());
     }
 
     @Test
-    public void testCacheWriteOnceReadMany() throws Exception {
+    public void testRequestDeadlineCutsRetriesShort() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final AtomicInteger sentErrorCount = new AtomicInteger(0);
 
-        final AtomicInteger kontentGets = new AtomicInteger(0);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/error"),
+                (request, response, context) -> {
+                    response.setStatusCode(503);
+                    sentErrorCount.incrementAndGet();
+                });
+        HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .retryAttempts(5)
+                .retryInitialDelay(Duration.ofMillis(500))
+                .retryMaxDelay(Duration.ofMillis(500))
+                .build());
+
+        RequestOptions requestOptions = RequestOptions.builder()
+                .deadline(Instant.now().plusMillis(300))
+                .build();
+        long start = java.lang.System.nanoTime();
+        try {
+            client.getItem("error", Collections.emptyList(), requestOptions).toCompletableFuture().get();
+            Assert.fail("Expected KontentIOException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentIOException);
+        }
+        long elapsedMillis = (java.lang.System.nanoTime() - start) / 1_000_000;
+        Assert.assertEquals(1, sentErrorCount.get());
+        Assert.assertTrue("Request took " + elapsedMillis + "ms", elapsedMillis < 500);
+    }
+
+    @Test
+    public void testRequestDeadlineFailsSlowRequest() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+        final CountDownLatch releaseResponse = new CountDownLatch(1);
 
         this.serverBootstrap.registerHandler(
                 String.format("/%s/%s", projectId, "items/on_roasts"),
                 (request, response, context) -> {
-                    kontentGets.incrementAndGet();
+                    try {
+                        releaseResponse.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
                     response.setEntity(
                             new InputStreamEntity(
                                     this.getClass().getResourceAsStream("SampleContentItem.json")
                             ));
                 });
         HttpHost httpHost = this.start();
+        DeliveryClient client = new DeliveryClient(DeliveryOptions.builder()
+                .projectId(projectId)
+                .productionEndpoint(httpHost.toURI())
+                .build());
+
+        Instant deadline = Instant.now().plusMillis(200);
+        try {
+            client.getItem("on_roasts", Collections.emptyList(), RequestOptions.builder().deadline(deadline).build())
+                    .toCompletableFuture()
+                    .get();
+            Assert.fail("Expected KontentDeadlineExceededException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof KontentDeadlineExceededException
+                    || e.getCause() instanceof java.io.InterruptedIOException);
+        } finally {
+            releaseResponse.countDown();
+        }
+    }
+
+    @Test
+    public void testExpiredCacheEntryIsRevalidated() throws Exception {
+        String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
+
+        final AtomicInteger kontentGets = new AtomicInteger(0);
+        this.serverBootstrap.registerHandler(
+                String.format("/%s/%s", projectId, "items/on_roasts"),
+                (request, response, context) -> {
+                    kontentGets.incrementAndGet();
+                    Assert.assertEquals("\"on_roasts_v1\"", request.getFirstHeader("If-None-Match").getValue());
+                    response.setStatusCode(304);
+                    response.setHeader("ETag", "\"on_roasts_v1\"");
+                });
+        HttpHost httpHost = this.start();
         DeliveryClient client = new DeliveryClient(projectId);
 
         final String testServerUri = httpHost.toURI();
         client.getDeliveryOptions().setProductionEndpoint(testServerUri);
 
-        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
-        client.setCacheManager(testCache);
+        ObjectMapper objectMapper = new ObjectMapper();
+        final JsonNode jsonNode = objectMapper.readValue(this.getClass().getResourceAsStream("SampleContentItem.json"), JsonNode.class);
+        final Map<String, CacheEntry> puts = new HashMap<>();
+        client.setCacheManager(new AsyncCacheManager() {
+            @Override
+            public CompletionStage<JsonNode> get(String url) {
+                return CompletableFuture.completedFuture(null);
+            }
 
-        final int nrOfTimesToRetrieveItem = 10;
-        for (int i = 0; i < nrOfTimesToRetrieveItem; i++) {
-            Assert.assertNotNull(client.getItem("on_roasts")
-                    .toCompletableFuture()
-                    .get());
-        }
+            @Override
+            public CompletionStage<CacheEntry> getEntry(String url) {
+                return CompletableFuture.completedFuture(
+                        new CacheEntry(jsonNode, "\"on_roasts_v1\"", null).asExpired());
+            }
+
+            @Override
+            public CompletionStage put(String url, JsonNode jsonNode, List<ContentItem> containedContentItems) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletionStage<?> put(String url, CacheEntry cacheEntry, List<ContentItem> containedContentItems) {
+                puts.put(url, cacheEntry);
+                return CompletableFuture.completedFuture(null);
+            }
+        });
 
+        ContentItemResponse item = client.getItem("on_roasts").toCompletableFuture().get();
+        Assert.assertNotNull(item);
+        Assert.assertEquals("on_roasts", item.getItem().getSystem().getCodename());
         Assert.assertEquals(1, kontentGets.get());
-        Assert.assertEquals(1, testCache.puts.get());
-        Assert.assertEquals(nrOfTimesToRetrieveItem, testCache.queries.get());
-        Assert.assertEquals(nrOfTimesToRetrieveItem - 1, testCache.hits.get());
-        Assert.assertTrue(testCache.cache.containsKey(testServerUri + "/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts"));
-    }
 
+        CacheEntry refreshedEntry = puts.get(testServerUri + "/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts");
+        Assert.assertNotNull(refreshedEntry);
+        Assert.assertFalse(refreshedEntry.isExpired());
+        Assert.assertSame(jsonNode, refreshedEntry.getJsonNode());
+    }
 
     @Test
-    public void testCacheRepopulationAfterInvalidation() throws Exception {
+    public void testStaleCacheEntryIsServedAndRefreshedInBackground() throws Exception {
         String projectId = "02a70003-e864-464e-b62c-e0ede97deb8c";
 
         final AtomicInteger kontentGets = new AtomicInteger(0);
-
+        final CountDownLatch releaseRefresh = new CountDownLatch(1);
         this.serverBootstrap.registerHandler(
                 String.format("/%s/%s", projectId, "items/on_roasts"),
                 (request, response, context) -> {
-                    kontentGets.incrementAndGet();
+                    if (kontentGets.incrementAndGet() > 1) {
+                        try {
+                            releaseRefresh.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
                     response.setEntity(
                             new InputStreamEntity(
                                     this.getClass().getResourceAsStream("SampleContentItem.json")
@@ -762,18 +2940,32 @@ public class DeliveryClientTest extends LocalServerTestBase {
         final String testServerUri = httpHost.toURI();
         client.getDeliveryOptions().setProductionEndpoint(testServerUri);
 
-        final SimpleInMemoryCacheManager testCache = new SimpleInMemoryCacheManager();
+        final BoundedInMemoryCacheManager testCache = new BoundedInMemoryCacheManager(
+                10 * 1024 * 1024, Duration.ofMillis(500), Duration.ofMinutes(1));
         client.setCacheManager(testCache);
+        final String url = String.format("%s/%s/items/on_roasts", testServerUri, projectId);
 
         Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
-        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
-
-        testCache.invalidate(new SimpleInMemoryCacheManager.CacheTag("origins_of_arabica_bourbon", "en-US"));
+        Assert.assertEquals(CacheFreshness.FRESH, testCache.getEntry(url).getFreshness());
+        Thread.sleep(600);
+        Assert.assertEquals(CacheFreshness.STALE, testCache.getEntry(url).getFreshness());
+        Assert.assertTrue(testCache.getEntry(url).getAge().compareTo(Duration.ofMillis(500)) >= 0);
+
+        // Served from the cache without waiting for the refresh, which is sent only once
+        for (int i = 0; i < 3; i++) {
+            ContentItemResponse item = client.getItem("on_roasts").toCompletableFuture().get(1, TimeUnit.SECONDS);
+            Assert.assertEquals("on_roasts", item.getItem().getSystem().getCodename());
+        }
+        waitUntil(() -> kontentGets.get() == 2);
+        releaseRefresh.countDown();
 
-        Assert.assertNotNull(client.getItem("on_roasts").toCompletableFuture().get());
+        waitUntil(() -> testCache.getEntry(url).getFreshness() == CacheFreshness.FRESH);
         Assert.assertEquals(2, kontentGets.get());
-        Assert.assertEquals(2, testCache.puts.get());
-        Assert.assertEquals(3, testCache.queries.get());
+
+        Assert.assertEquals(CacheFreshness.EXPIRED,
+                CacheFreshness.of(Duration.ofSeconds(3), Duration.ofSeconds(1), Duration.ofSeconds(1)));
+        Assert.assertEquals(CacheFreshness.EXPIRED, CacheFreshness.of(Duration.ofSeconds(3), Duration.ofSeconds(1), null));
+        Assert.assertEquals(CacheFreshness.FRESH, CacheFreshness.of(Duration.ofSeconds(3), null, null));
     }
 
     @Test
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void testFrequencyIsCountedUpToMaximum() {
+        FrequencySketch sketch = new FrequencySketch();
+        sketch.ensureCapacity(1024, Collections.emptyList());
+
+        Assert.assertEquals(0, sketch.frequency("hot"));
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("hot");
+        }
+        Assert.assertEquals(5, sketch.frequency("hot"));
+        Assert.assertEquals(0, sketch.frequency("cold"));
+
+        for (int i = 0; i < 2 * FrequencySketch.MAX_FREQUENCY; i++) {
+            sketch.increment("hot");
+        }
+        Assert.assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("hot"));
+    }
+
+    @Test
+    public void testFrequenciesAreHalvedAfterSample() {
+        FrequencySketch sketch = new FrequencySketch();
+        for (int i = 0; i < FrequencySketch.MAX_FREQUENCY; i++) {
+            sketch.increment("hot");
+        }
+
+        // The sample of the smallest sketch is 160 additions
+        for (int i = 0; i < 160; i++) {
+            sketch.increment("key_" + i);
+        }
+
+        int frequency = sketch.frequency("hot");
+        Assert.assertTrue(frequency < FrequencySketch.MAX_FREQUENCY);
+        Assert.assertTrue(frequency >= FrequencySketch.MAX_FREQUENCY / 2);
+    }
+
+    @Test
+    public void testGrowingKeepsFrequenciesOfGivenKeys() {
+        FrequencySketch sketch = new FrequencySketch();
+        for (int i = 0; i < 7; i++) {
+            sketch.increment("hot");
+            sketch.increment("warm");
+            sketch.increment("forgotten");
+        }
+
+        sketch.ensureCapacity(4096, Arrays.asList("hot", "warm"));
+
+        Assert.assertEquals(7, sketch.frequency("hot"));
+        Assert.assertEquals(7, sketch.frequency("warm"));
+        Assert.assertEquals(0, sketch.frequency("forgotten"));
+    }
+
+    @Test
+    public void testSmallerCapacityDoesNotShrink() {
+        FrequencySketch sketch = new FrequencySketch();
+        sketch.ensureCapacity(4096, Collections.emptyList());
+        sketch.increment("hot");
+
+        sketch.ensureCapacity(16, Collections.emptyList());
+
+        Assert.assertEquals(1, sketch.frequency("hot"));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        Assert.assertEquals(100_000, histogram.getCount());
+        Assert.assertEquals(1_000, histogram.getMin());
+        Assert.assertEquals(100_000_000, histogram.getMax());
+        Assert.assertEquals(50_000_500, histogram.getMean(), 0.001);
+        Assert.assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.016);
+        Assert.assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 * 0.016);
+        Assert.assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+
+        histogram.record(-5);
+        Assert.assertEquals(0, histogram.getMin());
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void testBucketsAreLinearUpTo128() {
+        for (long value = 0; value < 128; value++) {
+            Assert.assertEquals(value, Histogram.highestValueOf(Histogram.bucketOf(value)));
+        }
+    }
+
+    @Test
+    public void testBucketsKeepRelativePrecision() {
+        for (long value = 128; value > 0 && value < Long.MAX_VALUE / 2; value = value * 3 + 1) {
+            long highestValue = Histogram.highestValueOf(Histogram.bucketOf(value));
+            Assert.assertTrue(highestValue >= value);
+            Assert.assertTrue(highestValue - value <= value * 0.016);
+            Assert.assertEquals(Histogram.bucketOf(value), Histogram.bucketOf(highestValue));
+            Assert.assertEquals(Histogram.bucketOf(value) + 1, Histogram.bucketOf(highestValue + 1));
+        }
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        Histogram histogram = new Histogram();
+
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMin());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getMean(), 0);
+        Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+}
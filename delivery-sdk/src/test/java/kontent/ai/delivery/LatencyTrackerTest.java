@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyTrackerTest {
+
+    @Test
+    public void testNoPercentileBeforeMinimumSamples() {
+        LatencyTracker tracker = new LatencyTracker(0.9);
+        for (int i = 1; i < LatencyTracker.MIN_SAMPLES; i++) {
+            tracker.record(i);
+        }
+        Assert.assertEquals(-1, tracker.getPercentileNanos());
+
+        tracker.record(LatencyTracker.MIN_SAMPLES);
+        Assert.assertEquals(18, tracker.getPercentileNanos());
+    }
+
+    @Test
+    public void testPercentileIsRecomputedEveryInterval() {
+        LatencyTracker tracker = new LatencyTracker(0.9);
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            tracker.record(10);
+        }
+        Assert.assertEquals(10, tracker.getPercentileNanos());
+
+        for (int i = 1; i < LatencyTracker.RECOMPUTE_INTERVAL; i++) {
+            tracker.record(1000);
+        }
+        Assert.assertEquals(10, tracker.getPercentileNanos());
+
+        tracker.record(1000);
+        Assert.assertEquals(1000, tracker.getPercentileNanos());
+    }
+
+    @Test
+    public void testOldSamplesLeaveWindow() {
+        LatencyTracker tracker = new LatencyTracker(1);
+        tracker.record(1_000_000);
+        for (int i = 0; i < LatencyTracker.WINDOW_SIZE + LatencyTracker.RECOMPUTE_INTERVAL; i++) {
+            tracker.record(10);
+        }
+        Assert.assertEquals(10, tracker.getPercentileNanos());
+    }
+}
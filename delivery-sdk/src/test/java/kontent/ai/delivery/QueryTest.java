@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class QueryTest {
+
+    @Test
+    public void testParametersAreSortedAndEncoded() {
+        Query query = DeliveryParameterBuilder.params()
+                .language("es-ES")
+                .filterEquals("elements.title", "Coffee & Tea")
+                .page(0, 10)
+                .buildQuery();
+        Query reordered = DeliveryParameterBuilder.params()
+                .page(0, 10)
+                .filterEquals("elements.title", "Coffee & Tea")
+                .language("es-ES")
+                .buildQuery();
+
+        Assert.assertEquals(query, reordered);
+        Assert.assertEquals(query.hashCode(), reordered.hashCode());
+        Assert.assertEquals(
+                "elements.title=Coffee%20%26%20Tea&language=es-ES&limit=10&skip=0",
+                query.getQueryString());
+        Assert.assertNotEquals(query, DeliveryParameterBuilder.params().language("en-US").buildQuery());
+    }
+
+    @Test
+    public void testParametersWithSameNameKeepTheirOrder() {
+        Query query = Query.of(Arrays.asList(
+                new NameValuePair("b", "2"), new NameValuePair("a", "1"), new NameValuePair("b", "1")));
+
+        Assert.assertEquals("a=1&b=2&b=1", query.getQueryString());
+    }
+
+    @Test
+    public void testListValuesAndParametersWithoutValue() {
+        Query query = DeliveryParameterBuilder.params()
+                .filterIn("system.codename", "on_roasts", "coffee_processing_techniques")
+                .filterEmpty("elements.title")
+                .buildQuery();
+
+        Assert.assertEquals(
+                "elements.title%5Bempty%5D&system.codename%5Bin%5D=on_roasts,coffee_processing_techniques",
+                query.getQueryString());
+    }
+
+    @Test
+    public void testEmptyQuery() {
+        Assert.assertTrue(Query.of(null).isEmpty());
+        Assert.assertTrue(Query.of(Collections.emptyList()).isEmpty());
+        Assert.assertEquals("", Query.of(null).getQueryString());
+    }
+
+    @Test
+    public void testQueryIsImmutable() {
+        Query query = DeliveryParameterBuilder.params().language("es-ES").buildQuery();
+
+        // Changes of the returned parameters do not leak into the query
+        query.getParameters().get(0).setValue("changed");
+        Assert.assertEquals("language=es-ES", query.getQueryString());
+        Assert.assertEquals("es-ES", query.getParameterValue("language"));
+    }
+
+    @Test
+    public void testTypedVariantIsReused() {
+        Query query = DeliveryParameterBuilder.params().language("es-ES").buildQuery();
+
+        Query typed = query.withContentType("article");
+        Assert.assertEquals("language=es-ES&system.type=article", typed.getQueryString());
+        Assert.assertSame(typed, query.withContentType("article"));
+
+        Query otherType = query.withContentType("coffee");
+        Assert.assertEquals("language=es-ES&system.type=coffee", otherType.getQueryString());
+        Assert.assertNull(query.getParameterValue(Query.SYSTEM_TYPE));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testRetriesAreLimitedToRatioOfRequests() {
+        TestRetryBudget retryBudget = new TestRetryBudget(0.5, 0, 100);
+
+        for (int i = 0; i < 4; i++) {
+            retryBudget.recordRequest();
+        }
+        Assert.assertTrue(retryBudget.tryAcquire());
+        Assert.assertTrue(retryBudget.tryAcquire());
+        Assert.assertFalse(retryBudget.tryAcquire());
+    }
+
+    @Test
+    public void testMinRetriesPerSecondAllowRetriesWithoutTraffic() {
+        TestRetryBudget retryBudget = new TestRetryBudget(0.1, 1, 100);
+
+        for (int i = 0; i < RetryBudget.WINDOW_SECONDS; i++) {
+            Assert.assertTrue(retryBudget.tryAcquire());
+        }
+        Assert.assertFalse(retryBudget.tryAcquire());
+    }
+
+    @Test
+    public void testRequestsLeaveWindowAfterWindowSeconds() {
+        TestRetryBudget retryBudget = new TestRetryBudget(1, 0, 100);
+
+        retryBudget.recordRequest();
+        retryBudget.second += RetryBudget.WINDOW_SECONDS;
+        Assert.assertFalse(retryBudget.tryAcquire());
+    }
+
+    @Test
+    public void testNegativeClockIsSupported() {
+        TestRetryBudget retryBudget = new TestRetryBudget(1, 0, -3);
+
+        for (int i = 0; i < RetryBudget.WINDOW_SECONDS; i++) {
+            retryBudget.recordRequest();
+            retryBudget.second++;
+        }
+        retryBudget.second--;
+        for (int i = 0; i < RetryBudget.WINDOW_SECONDS; i++) {
+            Assert.assertTrue(retryBudget.tryAcquire());
+        }
+        Assert.assertFalse(retryBudget.tryAcquire());
+    }
+
+    static class TestRetryBudget extends RetryBudget {
+
+        long second;
+
+        TestRetryBudget(double ratio, int minRetriesPerSecond, long second) {
+            super(ratio, minRetriesPerSecond);
+            this.second = second;
+        }
+
+        @Override
+        long currentSecond() {
+            return second;
+        }
+    }
+}
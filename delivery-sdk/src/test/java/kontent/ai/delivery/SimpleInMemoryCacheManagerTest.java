@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Kontent s.r.o.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package kontent.ai.delivery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class SimpleInMemoryCacheManagerTest {
+
+    private static final String URL = "https://deliver.kontent.ai/02a70003-e864-464e-b62c-e0ede97deb8c/items/on_roasts";
+
+    @Test
+    public void testSubclassesKeepSynchronizedMapOfCache() {
+        PutIfAbsentCacheManager cacheManager = new PutIfAbsentCacheManager();
+
+        // The map keeps accepting null values
+        cacheManager.cache.put(URL, null);
+        Assert.assertNull(cacheManager.get(URL));
+
+        JsonNode jsonNode = JsonNodeFactory.instance.objectNode();
+        Assert.assertSame(jsonNode, cacheManager.putIfAbsent(URL, jsonNode));
+        Assert.assertSame(jsonNode, cacheManager.putIfAbsent(URL, JsonNodeFactory.instance.objectNode()));
+        Assert.assertSame(jsonNode, cacheManager.get(URL));
+    }
+
+    @Test
+    public void testValidatorsApplyToResponseTheyWereStoredWith() {
+        SimpleInMemoryCacheManager cacheManager = new SimpleInMemoryCacheManager();
+        JsonNode jsonNode = JsonNodeFactory.instance.objectNode();
+
+        cacheManager.put(URL, new CacheEntry(jsonNode, "\"etag\"", null), null);
+        Assert.assertEquals("\"etag\"", cacheManager.getEntry(URL).getEtag());
+
+        JsonNode replaced = JsonNodeFactory.instance.objectNode().put("replaced", true);
+        cacheManager.put(URL, replaced, null);
+        CacheEntry cacheEntry = cacheManager.getEntry(URL);
+        Assert.assertSame(replaced, cacheEntry.getJsonNode());
+        Assert.assertNull(cacheEntry.getEtag());
+
+        cacheManager.invalidate(URL);
+        Assert.assertNull(cacheManager.getEntry(URL));
+    }
+
+    @Test
+    public void testResponsesExpireAfterTimeToLive() throws Exception {
+        SimpleInMemoryCacheManager fresh = new SimpleInMemoryCacheManager(Duration.ofHours(1), null);
+        SimpleInMemoryCacheManager stale = new SimpleInMemoryCacheManager(Duration.ofNanos(1), Duration.ofHours(1));
+        SimpleInMemoryCacheManager expired = new SimpleInMemoryCacheManager(Duration.ofNanos(1), null);
+        JsonNode jsonNode = JsonNodeFactory.instance.objectNode();
+        fresh.put(URL, new CacheEntry(jsonNode, "\"etag\"", null), null);
+        stale.put(URL, jsonNode, null);
+        expired.put(URL, jsonNode, null);
+        Thread.sleep(5);
+
+        Assert.assertEquals(CacheFreshness.FRESH, fresh.getEntry(URL).getFreshness());
+        Assert.assertEquals("\"etag\"", fresh.getEntry(URL).getEtag());
+        Assert.assertTrue(fresh.getEntry(URL).getAge().compareTo(Duration.ofMillis(5)) >= 0);
+        Assert.assertEquals(CacheFreshness.STALE, stale.getEntry(URL).getFreshness());
+        Assert.assertEquals(CacheFreshness.EXPIRED, expired.getEntry(URL).getFreshness());
+        Assert.assertSame(jsonNode, expired.getEntry(URL).getJsonNode());
+
+        // A replaced response is fresh again
+        SimpleInMemoryCacheManager replaced = new SimpleInMemoryCacheManager(Duration.ofMillis(200), null);
+        replaced.put(URL, jsonNode, null);
+        Thread.sleep(250);
+        Assert.assertEquals(CacheFreshness.EXPIRED, replaced.getEntry(URL).getFreshness());
+        replaced.put(URL, jsonNode, null);
+        Assert.assertEquals(CacheFreshness.FRESH, replaced.getEntry(URL).getFreshness());
+    }
+
+    @Test
+    public void testResponsesNeverExpireWithoutTimeToLive() throws Exception {
+        SimpleInMemoryCacheManager cacheManager = new SimpleInMemoryCacheManager();
+        cacheManager.put(URL, JsonNodeFactory.instance.objectNode(), null);
+        Thread.sleep(5);
+
+        Assert.assertEquals(CacheFreshness.FRESH, cacheManager.getEntry(URL).getFreshness());
+        Assert.assertNull(cacheManager.getEntry(URL).getAge());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStaleWhileRevalidateRequiresTimeToLive() {
+        new SimpleInMemoryCacheManager(null, Duration.ofMinutes(1));
+    }
+
+    static class PutIfAbsentCacheManager extends SimpleInMemoryCacheManager {
+
+        // A compound operation of a subclass, atomic with the operations of the cache manager
+        JsonNode putIfAbsent(String url, JsonNode jsonNode) {
+            synchronized (cache) {
+                JsonNode cached = cache.get(url);
+                if (cached == null) {
+                    put(url, jsonNode, null);
+                    return jsonNode;
+                }
+                return cached;
+            }
+        }
+    }
+}